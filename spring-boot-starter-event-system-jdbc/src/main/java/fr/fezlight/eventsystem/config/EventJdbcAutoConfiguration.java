@@ -1,5 +1,6 @@
 package fr.fezlight.eventsystem.config;
 
+import fr.fezlight.eventsystem.config.jdbc.EventPublicationBatchingPostProcessor;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -27,4 +28,10 @@ public class EventJdbcAutoConfiguration {
     public LockProvider lockProvider(DataSource dataSource) {
         return new JdbcTemplateLockProvider(dataSource);
     }
+
+    @Bean
+    @ConditionalOnProperty(value = "events.jdbc.batch-inserts.enabled", havingValue = "true")
+    static EventPublicationBatchingPostProcessor eventPublicationBatchingPostProcessor() {
+        return new EventPublicationBatchingPostProcessor();
+    }
 }
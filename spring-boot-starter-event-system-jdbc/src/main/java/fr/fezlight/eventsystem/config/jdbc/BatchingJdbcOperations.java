@@ -0,0 +1,135 @@
+package fr.fezlight.eventsystem.config.jdbc;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decorator of {@link JdbcOperations} buffering the inserts made in a transaction and flushing them with JDBC batch
+ * statements when the transaction commits.
+ * <p>
+ * Only <b>update(String, Object...)</b> calls with an <b>INSERT</b> statement are buffered, and they are reported as
+ * one updated row. Any other call flushes the buffer first, so reads made in the transaction still see the buffered
+ * rows. Outside a transaction, calls are delegated immediately. Each transaction has its own buffer, a suspended
+ * transaction keeping its inserts until it resumes and commits.
+ *
+ * @author FezLight
+ */
+public class BatchingJdbcOperations implements InvocationHandler {
+    private final JdbcOperations delegate;
+
+    private BatchingJdbcOperations(JdbcOperations delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Method used to decorate a {@link JdbcOperations}.
+     *
+     * @param delegate Operations executing the statements
+     * @return the decorated operations
+     */
+    public static JdbcOperations of(JdbcOperations delegate) {
+        return (JdbcOperations) Proxy.newProxyInstance(
+                BatchingJdbcOperations.class.getClassLoader(),
+                new Class<?>[]{JdbcOperations.class},
+                new BatchingJdbcOperations(delegate)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "BatchingJdbcOperations[" + delegate + "]";
+                default -> invokeDelegate(method, args);
+            };
+        }
+
+        if (isBufferedInsert(method, args) && TransactionSynchronizationManager.isSynchronizationActive()) {
+            getBuffer().computeIfAbsent((String) args[0], key -> new ArrayList<>()).add((Object[]) args[1]);
+            return 1;
+        }
+
+        flush();
+        return invokeDelegate(method, args);
+    }
+
+    private void flush() {
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        var buffer = (Map<String, List<Object[]>>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null || buffer.isEmpty()) {
+            return;
+        }
+
+        var statements = new LinkedHashMap<>(buffer);
+        buffer.clear();
+        statements.forEach(delegate::batchUpdate);
+    }
+
+    private boolean isBufferedInsert(Method method, Object[] args) {
+        return method.getName().equals("update")
+               && method.getParameterCount() == 2
+               && method.getParameterTypes()[0] == String.class
+               && method.getParameterTypes()[1] == Object[].class
+               && ((String) args[0]).strip().toUpperCase(Locale.ROOT).startsWith("INSERT");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<Object[]>> getBuffer() {
+        var buffer = (Map<String, List<Object[]>>) TransactionSynchronizationManager.getResource(this);
+        if (buffer != null) {
+            return buffer;
+        }
+
+        Map<String, List<Object[]>> transactionBuffer = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, transactionBuffer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                // An inner transaction (REQUIRES_NEW) gets its own buffer, flushed by its own commit
+                TransactionSynchronizationManager.unbindResource(BatchingJdbcOperations.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(BatchingJdbcOperations.this, transactionBuffer);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                flush();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BatchingJdbcOperations.this);
+            }
+        });
+
+        return transactionBuffer;
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
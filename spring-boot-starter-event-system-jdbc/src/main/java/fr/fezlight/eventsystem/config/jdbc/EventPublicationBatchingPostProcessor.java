@@ -0,0 +1,69 @@
+package fr.fezlight.eventsystem.config.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Post processor decorating the {@link JdbcOperations} of the JDBC {@link EventPublicationRepository} with
+ * {@link BatchingJdbcOperations}.
+ * <p>
+ * Publications created in a transaction, such as the {@link fr.fezlight.eventsystem.models.EventWrapper} published for
+ * each handler of an event, are then inserted with a single JDBC batch statement at commit.
+ *
+ * @author FezLight
+ */
+public class EventPublicationBatchingPostProcessor implements BeanPostProcessor {
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationBatchingPostProcessor.class);
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof EventPublicationRepository)) {
+            return bean;
+        }
+
+        var repository = unwrap(bean);
+        var decorated = new AtomicBoolean();
+        ReflectionUtils.doWithFields(
+                repository.getClass(),
+                field -> {
+                    ReflectionUtils.makeAccessible(field);
+                    var operations = (JdbcOperations) ReflectionUtils.getField(field, repository);
+                    if (operations != null) {
+                        ReflectionUtils.setField(field, repository, BatchingJdbcOperations.of(operations));
+                        decorated.set(true);
+                    }
+                },
+                field -> !Modifier.isStatic(field.getModifiers()) && field.getType() == JdbcOperations.class
+        );
+
+        if (decorated.get()) {
+            log.debug("Batching inserts of event publication repository '{}'", beanName);
+        } else {
+            log.warn("Unable to batch inserts of event publication repository '{}', no JdbcOperations found", beanName);
+        }
+
+        return bean;
+    }
+
+    /**
+     * @param bean Repository, possibly wrapped in proxies
+     * @return the repository itself, whose fields can be written
+     */
+    private static Object unwrap(Object bean) {
+        Object repository = bean;
+        Object target;
+        while ((target = AopProxyUtils.getSingletonTarget(repository)) != null) {
+            repository = target;
+        }
+
+        return repository;
+    }
+}
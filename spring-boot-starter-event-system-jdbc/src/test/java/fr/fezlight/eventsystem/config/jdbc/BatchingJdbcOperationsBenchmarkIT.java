@@ -0,0 +1,119 @@
+package fr.fezlight.eventsystem.config.jdbc;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows per second inserted by the JDBC {@link EventPublicationRepository}, with and without
+ * {@link BatchingJdbcOperations}, for transactions creating 1, 10 and 50 publications.
+ * <p>
+ * Run with <b>-Dbenchmark=true</b>.
+ */
+@SpringBootTest(
+        classes = BatchingJdbcOperationsBenchmarkIT.BenchmarkConfiguration.class,
+        properties = {
+                "events.enabled=false",
+                "spring.modulith.events.jdbc.schema-initialization.enabled=true"
+        }
+)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BatchingJdbcOperationsBenchmarkIT {
+    private static final Logger log = LoggerFactory.getLogger(BatchingJdbcOperationsBenchmarkIT.class);
+
+    private static final int TRANSACTIONS = 200;
+
+    @Autowired
+    private EventPublicationRepository eventPublicationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void givenFanOut_whenCreatePublications_ThenReportRowsPerSecond(int fanOut) {
+        var field = ReflectionUtils.findField(AopUtils.getTargetClass(eventPublicationRepository), null,
+                JdbcOperations.class);
+        assertThat(field).isNotNull();
+        ReflectionUtils.makeAccessible(field);
+        var operations = (JdbcOperations) ReflectionUtils.getField(field, eventPublicationRepository);
+
+        var plain = run(fanOut);
+        // Same decoration as EventPublicationBatchingPostProcessor, reverted for the next fan-out
+        ReflectionUtils.setField(field, eventPublicationRepository, BatchingJdbcOperations.of(operations));
+        long batching;
+        try {
+            batching = run(fanOut);
+        } finally {
+            ReflectionUtils.setField(field, eventPublicationRepository, operations);
+        }
+
+        log.info("Fan-out {} : {} rows/s without batching, {} rows/s with batching", fanOut, plain, batching);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM EVENT_PUBLICATION", Long.class))
+                .isEqualTo(2L * TRANSACTIONS * fanOut);
+        jdbcTemplate.execute("DELETE FROM EVENT_PUBLICATION");
+    }
+
+    private long run(int fanOut) {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            var event = new BenchmarkEvent("event" + i);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int j = 0; j < fanOut; j++) {
+                    eventPublicationRepository.create(
+                            TargetEventPublication.of(event, PublicationTargetIdentifier.of("handler" + j))
+                    );
+                }
+            });
+        }
+
+        return TRANSACTIONS * fanOut * 1_000_000_000L / (System.nanoTime() - start);
+    }
+
+    record BenchmarkEvent(String name) {
+    }
+
+    @SpringBootConfiguration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    static class BenchmarkConfiguration {
+
+        @Bean
+        @ServiceConnection
+        PostgreSQLContainer postgreSQLContainer() {
+            return new PostgreSQLContainer(DockerImageName.parse("postgres:17.5"));
+        }
+
+        @Bean
+        JsonMapper jsonMapper() {
+            return JsonMapper.builder()
+                    .findAndAddModules()
+                    .build();
+        }
+    }
+}
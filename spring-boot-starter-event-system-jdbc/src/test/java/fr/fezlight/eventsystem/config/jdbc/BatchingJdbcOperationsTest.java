@@ -0,0 +1,142 @@
+package fr.fezlight.eventsystem.config.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingJdbcOperationsTest {
+    private static final String INSERT = "INSERT INTO EVENT_PUBLICATION (ID, LISTENER_ID) VALUES (?, ?)";
+
+    @Mock
+    private JdbcOperations delegate;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED
+            );
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenNoTransaction_whenInsert_ThenDelegatedImmediately() {
+        var operations = BatchingJdbcOperations.of(delegate);
+
+        operations.update(INSERT, "1", "listener");
+
+        verify(delegate).update(INSERT, "1", "listener");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenTransaction_whenInsertThenCommit_ThenSingleBatch() {
+        TransactionSynchronizationManager.initSynchronization();
+        var operations = BatchingJdbcOperations.of(delegate);
+
+        assertThat(operations.update(INSERT, "1", "listener")).isEqualTo(1);
+        assertThat(operations.update(INSERT, "2", "listener")).isEqualTo(1);
+
+        verifyNoInteractions(delegate);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(delegate).batchUpdate(eq(INSERT), captor.capture());
+        assertThat(captor.getValue()).containsExactly(new Object[]{"1", "listener"}, new Object[]{"2", "listener"});
+    }
+
+    @Test
+    void givenBufferedInsert_whenQuery_ThenFlushedBeforeQuery() {
+        TransactionSynchronizationManager.initSynchronization();
+        var operations = BatchingJdbcOperations.of(delegate);
+
+        operations.update(INSERT, "1", "listener");
+        operations.queryForList("SELECT * FROM EVENT_PUBLICATION");
+
+        InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).batchUpdate(eq(INSERT), anyList());
+        inOrder.verify(delegate).queryForList("SELECT * FROM EVENT_PUBLICATION");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenRequiresNewTransaction_whenInsertInBoth_ThenInnerInsertsFlushedByInnerCommitOnly() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        var outer = new TransactionTemplate(transactionManager);
+        var inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        var operations = BatchingJdbcOperations.of(delegate);
+
+        outer.executeWithoutResult(status -> {
+            operations.update(INSERT, "outer", "listener");
+            inner.executeWithoutResult(innerStatus -> operations.update(INSERT, "inner", "listener"));
+            status.setRollbackOnly();
+        });
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(delegate).batchUpdate(eq(INSERT), captor.capture());
+        assertThat(captor.getValue()).containsExactly(new Object[]{"inner", "listener"});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenRequiresNewTransaction_whenOuterCommits_ThenOuterInsertsFlushedAfterResume() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        var outer = new TransactionTemplate(transactionManager);
+        var inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        var operations = BatchingJdbcOperations.of(delegate);
+
+        outer.executeWithoutResult(status -> {
+            operations.update(INSERT, "outer-1", "listener");
+            inner.executeWithoutResult(innerStatus -> operations.update(INSERT, "inner", "listener"));
+            operations.update(INSERT, "outer-2", "listener");
+        });
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(delegate, times(2)).batchUpdate(eq(INSERT), captor.capture());
+        assertThat(captor.getAllValues().get(0)).containsExactly(new Object[]{"inner", "listener"});
+        assertThat(captor.getAllValues().get(1))
+                .containsExactly(new Object[]{"outer-1", "listener"}, new Object[]{"outer-2", "listener"});
+    }
+
+    @Test
+    void givenTransaction_whenUpdate_ThenDelegatedImmediately() {
+        TransactionSynchronizationManager.initSynchronization();
+        var operations = BatchingJdbcOperations.of(delegate);
+
+        operations.update("UPDATE EVENT_PUBLICATION SET COMPLETION_DATE = ? WHERE ID = ?", "now", "1");
+
+        verify(delegate).update(anyString(), eq("now"), eq("1"));
+        verify(delegate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,41 @@
+package fr.fezlight.eventsystem.config.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EventPublicationBatchingPostProcessorTest {
+    private static final String INSERT = "INSERT INTO EVENT_PUBLICATION (ID, LISTENER_ID) VALUES (?, ?)";
+
+    @Mock
+    private JdbcOperations jdbcOperations;
+
+    @Test
+    void givenProxiedRepository_whenPostProcess_ThenOperationsOfTargetDecorated() {
+        var repository = mock(TestEventPublicationRepository.class);
+        ReflectionTestUtils.setField(repository, "operations", jdbcOperations);
+        var proxy = new ProxyFactory(repository).getProxy();
+
+        var processed = new EventPublicationBatchingPostProcessor().postProcessAfterInitialization(proxy, "repository");
+
+        assertThat(processed).isSameAs(proxy);
+        var operations = (JdbcOperations) ReflectionTestUtils.getField(repository, "operations");
+        assertThat(operations).isNotSameAs(jdbcOperations);
+        operations.update(INSERT, "1", "listener");
+        verify(jdbcOperations).update(INSERT, "1", "listener");
+    }
+
+    abstract static class TestEventPublicationRepository implements EventPublicationRepository {
+        private JdbcOperations operations;
+    }
+}
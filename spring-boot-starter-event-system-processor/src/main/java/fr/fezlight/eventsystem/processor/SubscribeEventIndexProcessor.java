@@ -0,0 +1,163 @@
+package fr.fezlight.eventsystem.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor generating an index of all methods annotated with <b>@SubscribeEvent</b>.
+ * <p>
+ * The index is written to {@value #INDEX_LOCATION}, one method per line with the following format :
+ * <b>{class binary name}#{method name}({event class binary name})</b>.
+ * <p>
+ * When this index is found on the classpath, handlers of the classes of this module are registered from the listed
+ * methods instead of scanning their beans.
+ * <p>
+ * On an incremental compilation, the index already written is merged : the entries of the classes compiled again are
+ * replaced, and the entries of the classes that no longer exist are dropped.
+ *
+ * @author FezLight
+ */
+@SupportedAnnotationTypes(SubscribeEventIndexProcessor.SUBSCRIBE_EVENT_ANNOTATION)
+public class SubscribeEventIndexProcessor extends AbstractProcessor {
+    static final String SUBSCRIBE_EVENT_ANNOTATION = "fr.fezlight.eventsystem.annotation.SubscribeEvent";
+    static final String INDEX_LOCATION = "META-INF/event-system.handlers";
+
+    private final Set<String> entries = new TreeSet<>();
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            addCompiledType(element);
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.METHOD) {
+                    addEntry((ExecutableElement) element);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            var previousEntries = readIndex();
+            if (!entries.isEmpty() || previousEntries != null) {
+                if (previousEntries != null) {
+                    previousEntries.stream().filter(this::isStillPresent).forEach(entries::add);
+                }
+                writeIndex();
+            }
+        }
+
+        return false;
+    }
+
+    private void addCompiledType(Element element) {
+        if (element instanceof TypeElement type) {
+            compiledTypes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+            for (Element enclosed : type.getEnclosedElements()) {
+                addCompiledType(enclosed);
+            }
+        }
+    }
+
+    /**
+     * @param entry Entry of the index written by a previous compilation
+     * @return true if the class of the entry was not compiled again and still exists
+     */
+    private boolean isStillPresent(String entry) {
+        var className = entry.substring(0, entry.indexOf('#'));
+
+        return !compiledTypes.contains(className)
+               && processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null;
+    }
+
+    private void addEntry(ExecutableElement method) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Method annotated with @SubscribeEvent must be public to be registered", method);
+            return;
+        }
+
+        var type = (TypeElement) method.getEnclosingElement();
+        var parameters = new StringBuilder();
+        for (var parameter : method.getParameters()) {
+            if (!parameters.isEmpty()) {
+                parameters.append(',');
+            }
+            parameters.append(binaryName(parameter.asType()));
+        }
+
+        entries.add(processingEnv.getElementUtils().getBinaryName(type) + "#" + method.getSimpleName() + "(" + parameters + ")");
+    }
+
+    private String binaryName(TypeMirror typeMirror) {
+        var erasure = processingEnv.getTypeUtils().erasure(typeMirror);
+        if (erasure instanceof DeclaredType declaredType) {
+            return processingEnv.getElementUtils().getBinaryName((TypeElement) declaredType.asElement()).toString();
+        }
+
+        return erasure.toString();
+    }
+
+    /**
+     * @return the entries of the index written by a previous compilation, null if none
+     */
+    private List<String> readIndex() {
+        try {
+            var resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            List<String> previousEntries = new ArrayList<>();
+            try (var reader = new BufferedReader(resource.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.indexOf('#') > 0) {
+                        previousEntries.add(line.strip());
+                    }
+                }
+            }
+
+            return previousEntries;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + INDEX_LOCATION + " : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package fr.fezlight.eventsystem.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscribeEventIndexProcessorTest {
+
+    private static final String SUBSCRIBE_EVENT = """
+            package fr.fezlight.eventsystem.annotation;
+
+            import java.lang.annotation.*;
+
+            @Retention(RetentionPolicy.RUNTIME)
+            @Target(ElementType.METHOD)
+            public @interface SubscribeEvent {
+                String customName() default "";
+            }
+            """;
+
+    private static final String LISTENERS = """
+            package com.example;
+
+            import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+            import java.util.List;
+
+            public class OrderListeners {
+                @SubscribeEvent
+                public void handleOrder(OrderEvent event) {
+                }
+
+                @SubscribeEvent(customName = "other")
+                public void handleOrderWithName(OrderEvent event) {
+                }
+
+                @SubscribeEvent
+                void handleHidden(OrderEvent event) {
+                }
+
+                public void notHandler(OrderEvent event) {
+                }
+
+                public static class Nested {
+                    @SubscribeEvent
+                    public void handleNested(OrderEvent.Created event) {
+                    }
+
+                    @SubscribeEvent
+                    public void handleGeneric(List<OrderEvent> events) {
+                    }
+                }
+            }
+            """;
+
+    private static final String EVENT = """
+            package com.example;
+
+            public class OrderEvent {
+                public static class Created extends OrderEvent {
+                }
+            }
+            """;
+
+    private static final String PAYMENT_LISTENERS = """
+            package com.example;
+
+            import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+
+            public class PaymentListeners {
+                @SubscribeEvent
+                public void handlePayment(OrderEvent event) {
+                }
+            }
+            """;
+
+    private static final String ORDER_LISTENERS_CHANGED = """
+            package com.example;
+
+            import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+
+            public class OrderListeners {
+                @SubscribeEvent
+                public void handleOrder(OrderEvent event) {
+                }
+            }
+            """;
+
+    @TempDir
+    private Path outputDirectory;
+
+    @Test
+    void givenAnnotatedMethods_whenCompile_ThenIndexWritten() throws IOException {
+        var diagnostics = compile(Map.of(
+                "fr/fezlight/eventsystem/annotation/SubscribeEvent.java", SUBSCRIBE_EVENT,
+                "com/example/OrderListeners.java", LISTENERS,
+                "com/example/OrderEvent.java", EVENT
+        ));
+
+        assertThat(Files.readAllLines(outputDirectory.resolve(SubscribeEventIndexProcessor.INDEX_LOCATION)))
+                .containsExactly(
+                        "com.example.OrderListeners#handleOrder(com.example.OrderEvent)",
+                        "com.example.OrderListeners#handleOrderWithName(com.example.OrderEvent)",
+                        "com.example.OrderListeners$Nested#handleGeneric(java.util.List)",
+                        "com.example.OrderListeners$Nested#handleNested(com.example.OrderEvent$Created)"
+                );
+        assertThat(diagnostics.getDiagnostics())
+                .filteredOn(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                .singleElement()
+                .extracting(diagnostic -> diagnostic.getMessage(null))
+                .isEqualTo("Method annotated with @SubscribeEvent must be public to be registered");
+    }
+
+    @Test
+    void givenNoAnnotatedMethod_whenCompile_ThenNoIndexWritten() throws IOException {
+        compile(Map.of(
+                "fr/fezlight/eventsystem/annotation/SubscribeEvent.java", SUBSCRIBE_EVENT,
+                "com/example/OrderEvent.java", EVENT
+        ));
+
+        assertThat(outputDirectory.resolve(SubscribeEventIndexProcessor.INDEX_LOCATION)).doesNotExist();
+    }
+
+    @Test
+    void givenPreviousIndex_whenCompileOtherClass_ThenEntriesMerged() throws IOException {
+        compile(Map.of(
+                "fr/fezlight/eventsystem/annotation/SubscribeEvent.java", SUBSCRIBE_EVENT,
+                "com/example/OrderListeners.java", LISTENERS,
+                "com/example/OrderEvent.java", EVENT
+        ), List.of());
+
+        compile(Map.of("com/example/PaymentListeners.java", PAYMENT_LISTENERS), classpath());
+
+        assertThat(Files.readAllLines(outputDirectory.resolve(SubscribeEventIndexProcessor.INDEX_LOCATION)))
+                .containsExactly(
+                        "com.example.OrderListeners#handleOrder(com.example.OrderEvent)",
+                        "com.example.OrderListeners#handleOrderWithName(com.example.OrderEvent)",
+                        "com.example.OrderListeners$Nested#handleGeneric(java.util.List)",
+                        "com.example.OrderListeners$Nested#handleNested(com.example.OrderEvent$Created)",
+                        "com.example.PaymentListeners#handlePayment(com.example.OrderEvent)"
+                );
+    }
+
+    @Test
+    void givenPreviousIndex_whenCompileChangedClass_ThenEntriesOfChangedAndRemovedClassesDropped() throws IOException {
+        compile(Map.of(
+                "fr/fezlight/eventsystem/annotation/SubscribeEvent.java", SUBSCRIBE_EVENT,
+                "com/example/OrderListeners.java", LISTENERS,
+                "com/example/PaymentListeners.java", PAYMENT_LISTENERS,
+                "com/example/OrderEvent.java", EVENT
+        ), List.of());
+        Files.delete(outputDirectory.resolve("com/example/PaymentListeners.class"));
+
+        compile(Map.of("com/example/OrderListeners.java", ORDER_LISTENERS_CHANGED), classpath());
+
+        assertThat(Files.readAllLines(outputDirectory.resolve(SubscribeEventIndexProcessor.INDEX_LOCATION)))
+                .containsExactly("com.example.OrderListeners#handleOrder(com.example.OrderEvent)");
+    }
+
+    private List<String> classpath() {
+        return List.of("-classpath", outputDirectory.toString());
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(Map<String, String> sources) throws IOException {
+        return compile(sources, List.of("-proc:only"));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(Map<String, String> sources, List<String> options)
+            throws IOException {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+        try (var fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDirectory.toFile()));
+
+            List<JavaFileObject> compilationUnits = sources.entrySet().stream()
+                    .map(entry -> (JavaFileObject) new SourceFile(entry.getKey(), entry.getValue()))
+                    .toList();
+
+            var task = compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits);
+            task.setProcessors(List.of(new SubscribeEventIndexProcessor()));
+
+            assertThat(task.call()).as("Compilation result %s", diagnostics.getDiagnostics()).isTrue();
+        }
+
+        return diagnostics;
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String content;
+
+        SourceFile(String path, String content) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
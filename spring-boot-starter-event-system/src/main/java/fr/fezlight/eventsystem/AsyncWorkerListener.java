@@ -0,0 +1,113 @@
+package fr.fezlight.eventsystem;
+
+import com.rabbitmq.client.Channel;
+import fr.fezlight.eventsystem.config.rabbitmq.AsyncHandlerTopology;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_DEFERRALS_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_RETRY_LEFT_HEADER;
+
+/**
+ * Class used to consume the async worker queue (see {@link AsyncHandlerTopology}), calling async handlers without
+ * waiting for them to complete.
+ * <p>
+ * Messages are acknowledged manually once the future of their handler is completed, so a consumer keeps up to its
+ * prefetch handler calls in progress. A handler completed exceptionally is sent to the retry queue or to the error
+ * queue, as if it was called from the worker queue, then its message is acknowledged.
+ *
+ * @author FezLight
+ */
+public class AsyncWorkerListener implements ChannelAwareMessageListener {
+    private static final Logger log = LoggerFactory.getLogger(AsyncWorkerListener.class);
+
+    private final EventListeners eventListeners;
+    private final EventRetryPublisher eventRetryPublisher;
+    private final RabbitTemplate rabbitTemplate;
+
+    public AsyncWorkerListener(EventListeners eventListeners, EventRetryPublisher eventRetryPublisher,
+                               RabbitTemplate rabbitTemplate) {
+        this.eventListeners = eventListeners;
+        this.eventRetryPublisher = eventRetryPublisher;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) throws Exception {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        if (!(convert(message) instanceof EventWrapper<?> eventWrapper)) {
+            log.error("Unable to handle message {}, not an event wrapper", message.getMessageProperties().getMessageId());
+            channel.basicReject(deliveryTag, false);
+            return;
+        }
+
+        process(eventWrapper, message)
+                .handle((result, e) -> {
+                    if (e != null) {
+                        onFailure(eventWrapper, message, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                    return null;
+                })
+                .whenComplete((result, e) -> {
+                    try {
+                        if (e == null) {
+                            channel.basicAck(deliveryTag, false);
+                        } else {
+                            log.error("Unable to handle event {}", eventWrapper, e);
+                            channel.basicReject(deliveryTag, false);
+                        }
+                    } catch (IOException ex) {
+                        log.warn("Unable to acknowledge event {}, it will be redelivered", eventWrapper, ex);
+                    }
+                });
+    }
+
+    private Object convert(Message message) {
+        try {
+            return rabbitTemplate.getMessageConverter().fromMessage(message);
+        } catch (MessageConversionException e) {
+            log.debug("Unable to convert message {}", message.getMessageProperties().getMessageId(), e);
+            return null;
+        }
+    }
+
+    private CompletableFuture<Void> process(EventWrapper<?> eventWrapper, Message message) {
+        try {
+            return eventListeners.processEventAsync(message.getMessageProperties().getReplyTo(), eventWrapper);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void onFailure(EventWrapper<?> eventWrapper, Message message, Throwable cause) {
+        Integer retryLeftHeader = message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER);
+        int retryLeft = Objects.requireNonNullElse(retryLeftHeader, Objects.requireNonNullElse(eventWrapper.getRetryLeft(), 0));
+
+        if (ExceptionUtils.indexOfThrowable(cause, BulkheadFullException.class) >= 0) {
+            log.debug("Handler bulkhead full, deferring event {}", eventWrapper);
+            eventWrapper.setRetryLeft(retryLeft);
+            Integer deferrals = message.getMessageProperties().getHeader(AMQP_DEFERRALS_HEADER);
+            eventRetryPublisher.defer(eventWrapper, Objects.requireNonNullElse(deferrals, 0), cause);
+        } else if (retryLeft > 0) {
+            log.debug("Retry attempts left = {}", retryLeft);
+            eventWrapper.setRetryLeft(retryLeft);
+            eventRetryPublisher.retry(eventWrapper, cause);
+        } else {
+            log.warn("Event {} failed, no retries left", eventWrapper, cause);
+            eventRetryPublisher.reject(eventWrapper, cause);
+        }
+    }
+}
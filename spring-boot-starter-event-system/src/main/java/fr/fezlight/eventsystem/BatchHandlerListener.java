@@ -0,0 +1,118 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.rabbitmq.BatchHandlerTopology;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Class used to consume the queue of a batch handler (see {@link BatchHandlerTopology}), calling the handler once with
+ * the events of all the {@link EventWrapper} received in a batch.
+ * <p>
+ * The batch is acknowledged at once when the handler is done. If the handler fails, the batch is split in two halves
+ * handled again, until the failing events are found alone : each of them is sent to the retry queue if the handler
+ * has retries, or to the error queue otherwise, and the other events are handled. A batch handler must therefore
+ * tolerate being called again with the events of a failed batch.
+ *
+ * @author FezLight
+ */
+public class BatchHandlerListener implements BatchMessageListener {
+    private static final Logger log = LoggerFactory.getLogger(BatchHandlerListener.class);
+
+    private final String handlerName;
+    private final EventRegistryConfig eventRegistryConfig;
+    private final EventRetryPublisher eventRetryPublisher;
+    private final RabbitTemplate rabbitTemplate;
+    private final EventProperties eventProperties;
+
+    /**
+     * @param handlerName Name of the batch handler of the consumed queue
+     */
+    public BatchHandlerListener(String handlerName, EventRegistryConfig eventRegistryConfig,
+                                EventRetryPublisher eventRetryPublisher, RabbitTemplate rabbitTemplate,
+                                EventProperties eventProperties) {
+        this.handlerName = handlerName;
+        this.eventRegistryConfig = eventRegistryConfig;
+        this.eventRetryPublisher = eventRetryPublisher;
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventProperties = eventProperties;
+    }
+
+    @Override
+    public void onMessageBatch(List<Message> messages) {
+        Optional<Handler<Event>> handler = eventRegistryConfig.getByHandlerName(handlerName);
+        if (handler.isEmpty()) {
+            log.error("No handler found for name '{}'", handlerName);
+            return;
+        }
+
+        List<Event> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            var eventWrapper = convert(message);
+            if (eventWrapper == null) {
+                log.error("Unable to handle message {}, not an event wrapper", message.getMessageProperties().getMessageId());
+                rabbitTemplate.send(
+                        eventProperties.getRabbit().getQueue().getError().getExchange(),
+                        eventProperties.getRabbit().getQueue().getError().getName(),
+                        message
+                );
+                continue;
+            }
+
+            events.add(eventWrapper.getEvent());
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Receiving {} events for batch handler '{}'", events.size(), handlerName);
+        }
+
+        if (!events.isEmpty()) {
+            handle(handler.get(), events);
+        }
+    }
+
+    /**
+     * Method used to call the handler with a batch, splitting it until the failing events are found.
+     *
+     * @param handler Batch handler
+     * @param events  Events of the batch
+     */
+    void handle(Handler<Event> handler, List<Event> events) {
+        try {
+            handler.handleBatch(events);
+        } catch (Exception e) {
+            if (events.size() == 1) {
+                eventRetryPublisher.onHandlerFailure(handler, events.get(0), e);
+                return;
+            }
+
+            log.debug("Batch of {} events failed for handler '{}', splitting it", events.size(), handler.name());
+            int half = events.size() / 2;
+            handle(handler, events.subList(0, half));
+            handle(handler, events.subList(half, events.size()));
+        }
+    }
+
+    private EventWrapper<?> convert(Message message) {
+        try {
+            return rabbitTemplate.getMessageConverter().fromMessage(message) instanceof EventWrapper<?> eventWrapper
+                    ? eventWrapper
+                    : null;
+        } catch (MessageConversionException e) {
+            return null;
+        }
+    }
+}
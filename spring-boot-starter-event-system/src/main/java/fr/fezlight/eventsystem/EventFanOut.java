@@ -0,0 +1,65 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.ConfirmedFanOutPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.LocalEventWrapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Interface used to send the {@link EventWrapper} of an event to its handlers, with one implementation per
+ * <b>events.rabbit.fan-out.mode</b> :
+ *
+ * <p>- {@link #outbox(ApplicationEventPublisher)} writes them in the event publication registry, which externalizes
+ * them to the worker queue.
+ * <p>- {@link ConfirmedFanOutPublisher} sends them directly to the worker queue with publisher confirms.
+ * <p>- {@link #local(ApplicationEventPublisher, EventRegistryConfig)} calls them in this instance (see
+ * {@link LocalEventDispatcher}), except the wrappers of batch and async handlers, written in the event publication
+ * registry as with the outbox.
+ *
+ * @author FezLight
+ * @see EventListeners#process(Event)
+ */
+public interface EventFanOut {
+    void publish(List<? extends EventWrapper<?>> eventWrappers);
+
+    /**
+     * @return true if the handlers of an event can be grouped in a single envelope (see {@link GroupedHandlerInvoker})
+     */
+    default boolean isGroupingSupported() {
+        return true;
+    }
+
+    static EventFanOut outbox(ApplicationEventPublisher applicationEventPublisher) {
+        return eventWrappers -> eventWrappers.forEach(eventWrapper -> applicationEventPublisher.publishEvent(eventWrapper));
+    }
+
+    static EventFanOut local(ApplicationEventPublisher applicationEventPublisher,
+                             EventRegistryConfig eventRegistryConfig) {
+        return new EventFanOut() {
+            @Override
+            public void publish(List<? extends EventWrapper<?>> eventWrappers) {
+                eventWrappers.forEach(eventWrapper -> applicationEventPublisher.publishEvent(
+                        isBrokered(eventRegistryConfig, eventWrapper) ? eventWrapper : new LocalEventWrapper<>(eventWrapper)
+                ));
+            }
+
+            @Override
+            public boolean isGroupingSupported() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return true if the handler of the wrapper is consumed from its own queue, as batch and async handlers are
+     */
+    private static boolean isBrokered(EventRegistryConfig eventRegistryConfig, EventWrapper<?> eventWrapper) {
+        return eventRegistryConfig.getByHandlerName(eventWrapper.getHandlerName())
+                .map(handler -> handler.isBatch() || handler.isAsync())
+                .orElse(false);
+    }
+}
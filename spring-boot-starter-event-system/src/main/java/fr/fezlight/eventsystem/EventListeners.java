@@ -1,29 +1,29 @@
 package fr.fezlight.eventsystem;
 
 import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.EventPartitioning;
+import fr.fezlight.eventsystem.config.rabbitmq.ListenerConfig;
 import fr.fezlight.eventsystem.config.rabbitmq.QueueNameResolver;
 import fr.fezlight.eventsystem.models.Event;
 import fr.fezlight.eventsystem.models.EventWrapper;
 import fr.fezlight.eventsystem.models.Handler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.SpelParserConfiguration;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.BiFunction;
-
-import static org.springframework.util.StringUtils.hasLength;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class used to listen on RabbitMQ when an event is published by {@link ApplicationEventPublisher}.
@@ -38,74 +38,135 @@ import static org.springframework.util.StringUtils.hasLength;
  */
 public class EventListeners {
     private static final Logger log = LoggerFactory.getLogger(EventListeners.class);
+    private static final String EVENT_JSON_PREFIX = "{\"@class\"";
 
     private final EventRegistryConfig eventRegistryConfig;
-    private final ApplicationEventPublisher applicationEventPublisher;
     private final QueueNameResolver queueNameResolver;
-    private final ExpressionParser expressionParser;
-    private final BiFunction<String, EvaluationContext, Boolean> conditionEvaluation;
+    private final EventFanOut eventFanOut;
+    private final GroupedHandlerInvoker groupedHandlerInvoker;
 
     public EventListeners(EventRegistryConfig eventRegistryConfig, ApplicationEventPublisher applicationEventPublisher,
                           QueueNameResolver queueNameResolver) {
+        this(eventRegistryConfig, queueNameResolver, EventFanOut.outbox(applicationEventPublisher), null);
+    }
+
+    /**
+     * @param eventFanOut           Strategy sending the {@link EventWrapper} of an event to its handlers
+     * @param groupedHandlerInvoker Invoker of grouped envelopes, null to send one {@link EventWrapper} per handler
+     */
+    public EventListeners(EventRegistryConfig eventRegistryConfig, QueueNameResolver queueNameResolver,
+                          EventFanOut eventFanOut, GroupedHandlerInvoker groupedHandlerInvoker) {
         this.eventRegistryConfig = eventRegistryConfig;
-        this.applicationEventPublisher = applicationEventPublisher;
         this.queueNameResolver = queueNameResolver;
-        this.expressionParser = new SpelExpressionParser(
-                new SpelParserConfiguration(true, true)
-        );
-        this.conditionEvaluation = (expression, context) ->
-                Boolean.TRUE.equals(expressionParser.parseExpression(expression).getValue(context, Boolean.class));
+        this.eventFanOut = eventFanOut;
+        this.groupedHandlerInvoker = groupedHandlerInvoker;
     }
 
     /**
      * Method used to process an event received by {@link ApplicationEventPublisher}.
-     * <p>- Search all handlers registered for this event and create {@link EventWrapper} for each one.
-     * <p>- Resend all to main event queue.
+     * <p>- Search all handlers registered for this event and create {@link EventWrapper} for each one, or a single
+     * grouped {@link EventWrapper} for all of them when grouping is enabled (see {@link GroupedHandlerInvoker}). Batch
+     * and async handlers are never grouped, their wrappers are sent to their own queue (see {@link BatchHandlerListener}
+     * and {@link AsyncWorkerListener}).
+     * <p>- Resend all to main event queue, or call them in this instance, depending on the {@link EventFanOut}.
      *
      * @param <E>   Type of Event.
      * @param event Event received from {@link ApplicationEventPublisher}.
      */
     @Transactional
-    @RabbitListener(queues = "#{@queueNameResolver.mainQueueName}", errorHandler = "rabbitListenerCustomErrorHandler")
     public <E extends Event> void process(E event) {
+        process(event, null);
+    }
+
+    /**
+     * Method used to process an event received on the main event queue (see {@link #process(Event)}).
+     * <p>The JSON of the event found in the message is written as is in each {@link EventWrapper}, instead of encoding
+     * the event again for each handler.
+     *
+     * @param <E>     Type of Event.
+     * @param event   Event received from {@link ApplicationEventPublisher}.
+     * @param message RabbitMQ message the event was converted from, null if not received from RabbitMQ.
+     */
+    @Transactional
+    @RabbitListener(queues = "#{@queueNameResolver.mainQueueName}", errorHandler = "rabbitListenerCustomErrorHandler",
+            containerFactory = ListenerConfig.MAIN_CONTAINER_FACTORY)
+    public <E extends Event> void process(E event, Message message) {
         if (log.isDebugEnabled()) {
             log.debug("Consuming event {}", event);
         }
 
-        var context = new StandardEvaluationContext();
-        context.setVariable("event", event);
-
-        List<Handler<?>> eventHandlers = eventRegistryConfig.getHandlers(event.getClass()).stream().filter(handler -> {
-            var expression = handler.condition();
-            if (!hasLength(expression)) {
-                return true;
-            }
+        var conditionIndex = eventRegistryConfig.getConditionIndex(event.getClass());
+        List<Handler<?>> eventHandlers = conditionIndex.select(event);
 
-            var isValid = conditionEvaluation.apply(expression, context);
-            if (!isValid && log.isDebugEnabled()) {
-                log.debug("Filter out handler '{}' because condition not matched", handler.name());
-            }
-
-            return isValid;
-        }).toList();
+        if (log.isDebugEnabled()) {
+            conditionIndex.handlers().stream()
+                    .filter(handler -> !eventHandlers.contains(handler))
+                    .forEach(handler -> log.debug("Filter out handler '{}' because condition not matched", handler.name()));
+        }
 
-        eventHandlers.forEach(handler -> applicationEventPublisher.publishEvent(
-                EventWrapper.<E>builder()
+        String eventJson = eventHandlers.isEmpty() ? null : getEventJson(message);
+        String orderingKey = eventHandlers.isEmpty() ? null : EventPartitioning.partitionKey(event);
+        List<Handler<?>> groupedHandlers = groupedHandlerInvoker != null && eventFanOut.isGroupingSupported()
+                ? eventHandlers.stream().filter(handler -> !handler.isBatch() && !handler.isAsync()).toList()
+                : List.of();
+        List<EventWrapper<E>> eventWrappers = new ArrayList<>();
+        if (groupedHandlers.size() > 1) {
+            eventWrappers.add(EventWrapper.<E>builder()
+                    .event(event)
+                    .eventJson(eventJson)
+                    .orderingKey(orderingKey)
+                    .handlerNames(groupedHandlers.stream().map(Handler::name).toList())
+                    .retryLeft(0)
+                    .build());
+        }
+        eventHandlers.stream()
+                .filter(handler -> groupedHandlers.size() <= 1 || !groupedHandlers.contains(handler))
+                .map(handler -> EventWrapper.<E>builder()
                         .event(event)
+                        .eventJson(eventJson)
+                        .orderingKey(orderingKey)
                         .handlerName(handler.name())
                         .retryLeft(0)
-                        .build()
-        ));
+                        .build())
+                .forEach(eventWrappers::add);
+
+        eventFanOut.publish(eventWrappers);
 
         if (log.isDebugEnabled()) {
             log.debug("Propagate event to {}", eventHandlers);
         }
     }
 
+    /**
+     * Method used to get the JSON of an event from the message it was converted from.
+     *
+     * @param message RabbitMQ message, null if unknown
+     * @return the JSON of the event if the message body is a JSON object starting with the event type id, null otherwise
+     */
+    static String getEventJson(Message message) {
+        if (message == null) {
+            return null;
+        }
+
+        var contentType = message.getMessageProperties().getContentType();
+        if (contentType == null || !contentType.startsWith(MessageProperties.CONTENT_TYPE_JSON)) {
+            return null;
+        }
+
+        var contentEncoding = message.getMessageProperties().getContentEncoding();
+        var json = new String(
+                message.getBody(),
+                contentEncoding == null ? StandardCharsets.UTF_8 : Charset.forName(contentEncoding)
+        );
+
+        return json.startsWith(EVENT_JSON_PREFIX) ? json : null;
+    }
+
     /**
      * Method used to process an {@link EventWrapper} received by {@link EventListeners#process(Event)}.
      *
-     * <p>Call the Event Handler if found by its name {@link EventWrapper#getHandlerName()}
+     * <p>Call the Event Handler if found by its name {@link EventWrapper#getHandlerName()}, or all the handlers of a
+     * grouped envelope with {@link GroupedHandlerInvoker}.
      * <p>This method will also check if the replyTo headers received from RabbitMQ is matching to the current worker
      * event queue name. If not, the event is ignored.
      *
@@ -113,26 +174,60 @@ public class EventListeners {
      * @param replyTo RabbitMQ Header "reply_to".
      * @param event   Event received from {@link ApplicationEventPublisher}.
      */
-    @RabbitListener(queues = "#{@queueNameResolver.workerQueueName}", errorHandler = "rabbitListenerCustomErrorHandler")
+    @RabbitListener(id = ListenerConfig.WORKER_LISTENER_ID, queues = "#{@queueNameResolver.workerQueueName}",
+            errorHandler = "rabbitListenerCustomErrorHandler", containerFactory = ListenerConfig.WORKER_CONTAINER_FACTORY)
     public <E extends Event> void processEvent(@Header(value = AmqpHeaders.REPLY_TO, required = false) String replyTo,
                                                EventWrapper<E> event) {
+        findHandler(replyTo, event).ifPresent(handler -> handler.handle(event.getEvent()));
+    }
+
+    /**
+     * Method used to process an {@link EventWrapper} without waiting for an async handler to complete.
+     * <p>Same as {@link EventListeners#processEvent(String, EventWrapper)}, used by {@link AsyncWorkerListener}.
+     *
+     * @param <E>     Type of Event.
+     * @param replyTo RabbitMQ Header "reply_to".
+     * @param event   Event received from {@link ApplicationEventPublisher}.
+     * @return the future of an async handler, or a completed future once any other handler is done
+     */
+    public <E extends Event> CompletableFuture<Void> processEventAsync(String replyTo, EventWrapper<E> event) {
+        return findHandler(replyTo, event)
+                .map(handler -> handler.handleAsync(event.getEvent()))
+                .orElseGet(() -> CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Method used to find the handler of an {@link EventWrapper}, calling the handlers of a grouped envelope.
+     *
+     * @return the handler to call, empty if the wrapper is ignored, grouped or has no handler
+     */
+    private <E extends Event> Optional<Handler<E>> findHandler(String replyTo, EventWrapper<E> event) {
         if (replyTo != null && !Objects.equals(replyTo, queueNameResolver.getWorkerQueueName())) {
             log.debug("No consuming for this message '{}' related to other queue {}", event.getEvent().getClass().getName(), replyTo);
-            return;
+            return Optional.empty();
         }
 
         if (log.isDebugEnabled()) {
             log.debug("Receiving event {}", event);
         }
 
+        if (event.isGrouped()) {
+            if (groupedHandlerInvoker == null) {
+                throw new IllegalStateException("Grouped envelope received but events.rabbit.fan-out.grouped.enabled is false");
+            }
+
+            groupedHandlerInvoker.invoke(event);
+            return Optional.empty();
+        }
+
         Optional<Handler<E>> eventHandlers = eventRegistryConfig.getByHandlerName(event.getHandlerName());
 
         eventHandlers.ifPresentOrElse(handler -> {
             log.debug("Handler found => {}", event.getHandlerName());
 
             event.setRetryLeft(handler.retry());
-
-            handler.handle(event.getEvent());
         }, () -> log.error("No handler found for name '{}'", event.getHandlerName()));
+
+        return eventHandlers;
     }
 }
@@ -0,0 +1,37 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factory of the threads calling the event handlers, set by <b>events.execution.mode</b>.
+ * <p>
+ * With virtual threads, the pools keep their parallelism as a bound on concurrent handlers, but a handler blocked on
+ * I/O releases its carrier thread instead of holding a platform thread. Virtual threads require Java 21 or later.
+ *
+ * @author FezLight
+ */
+public final class EventThreads {
+
+    private EventThreads() {
+    }
+
+    /**
+     * @param mode   Execution mode of the handlers
+     * @param prefix Prefix of the thread names, followed by a counter
+     * @return factory of platform daemon threads, or of virtual threads
+     */
+    public static ThreadFactory factory(Mode mode, String prefix) {
+        return switch (mode) {
+            case PLATFORM -> {
+                var threadFactory = new CustomizableThreadFactory(prefix);
+                threadFactory.setDaemon(true);
+                yield threadFactory;
+            }
+            case VIRTUAL_THREADS -> new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Class used to call the handlers of a grouped {@link EventWrapper} (see {@link EventWrapper#getHandlerNames()})
+ * concurrently, on a bounded pool of threads.
+ * <p>
+ * The envelope is acknowledged once every handler is done. Each failed handler is split back into its own
+ * {@link EventWrapper}, sent to the retry queue if it has retries left or to the error queue otherwise, so a failure
+ * does not call the other handlers again. Each failure is sent on its own. If some cannot be sent, the envelope is
+ * narrowed to their handlers before the error is rethrown, so that a retry of the envelope calls only them.
+ *
+ * @author FezLight
+ */
+public class GroupedHandlerInvoker implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(GroupedHandlerInvoker.class);
+
+    private final EventRegistryConfig eventRegistryConfig;
+    private final EventRetryPublisher eventRetryPublisher;
+    private final ExecutorService executorService;
+
+    /**
+     * @param parallelism Maximum number of handlers called at the same time, all envelopes included
+     */
+    public GroupedHandlerInvoker(EventRegistryConfig eventRegistryConfig, EventRetryPublisher eventRetryPublisher,
+                                 int parallelism) {
+        this(eventRegistryConfig, eventRetryPublisher, parallelism,
+                EventThreads.factory(Mode.PLATFORM, "event-grouped-"));
+    }
+
+    /**
+     * @param parallelism   Maximum number of handlers called at the same time, all envelopes included
+     * @param threadFactory Factory of the threads calling the handlers
+     */
+    public GroupedHandlerInvoker(EventRegistryConfig eventRegistryConfig, EventRetryPublisher eventRetryPublisher,
+                                 int parallelism, ThreadFactory threadFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        }
+
+        this.eventRegistryConfig = eventRegistryConfig;
+        this.eventRetryPublisher = eventRetryPublisher;
+        this.executorService = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    /**
+     * Method used to call every handler of a grouped envelope and wait for them.
+     *
+     * @param envelope Grouped envelope received on the worker queue
+     * @param <E>      Type of Event
+     */
+    public <E extends Event> void invoke(EventWrapper<E> envelope) {
+        List<Invocation<E>> invocations = new ArrayList<>(envelope.getHandlerNames().size());
+        for (String handlerName : envelope.getHandlerNames()) {
+            Optional<Handler<E>> handler = eventRegistryConfig.getByHandlerName(handlerName);
+            if (handler.isEmpty()) {
+                log.error("No handler found for name '{}'", handlerName);
+                continue;
+            }
+
+            invocations.add(new Invocation<>(
+                    handler.get(),
+                    CompletableFuture.runAsync(() -> handler.get().handle(envelope.getEvent()), executorService)
+            ));
+        }
+
+        List<Handler<E>> unsent = new ArrayList<>();
+        List<RuntimeException> sendFailures = new ArrayList<>();
+        for (Invocation<E> invocation : invocations) {
+            try {
+                invocation.future().join();
+            } catch (CompletionException e) {
+                try {
+                    eventRetryPublisher.onHandlerFailure(invocation.handler(), envelope.getEvent(), e.getCause());
+                } catch (RuntimeException sendFailure) {
+                    log.warn("Unable to send the failure of handler '{}'", invocation.handler().name(), sendFailure);
+                    unsent.add(invocation.handler());
+                    sendFailures.add(sendFailure);
+                }
+            }
+        }
+
+        if (!unsent.isEmpty()) {
+            envelope.setHandlerNames(unsent.stream().map(Handler::name).toList());
+            envelope.setRetryLeft(unsent.stream().mapToInt(Handler::retry).max().orElse(0));
+
+            var e = new IllegalStateException("Unable to send the failures of handlers " + envelope.getHandlerNames(),
+                    sendFailures.get(0));
+            sendFailures.stream().skip(1).forEach(e::addSuppressed);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    private record Invocation<E extends Event>(Handler<E> handler, CompletableFuture<Void> future) {
+    }
+}
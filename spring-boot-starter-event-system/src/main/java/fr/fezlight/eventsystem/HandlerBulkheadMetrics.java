@@ -0,0 +1,94 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.EventRegistryListener;
+import fr.fezlight.eventsystem.models.BulkheadEventHandler;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.search.Search;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Class used to expose the saturation of the handler bulkheads (see {@link BulkheadEventHandler}) as Micrometer
+ * meters, tagged with the handler name.
+ * <p>
+ * <b>events.handler.bulkhead.active</b> and <b>events.handler.bulkhead.saturation</b> are the calls in progress, and
+ * their ratio to the max concurrency. <b>events.handler.bulkhead.rejected</b> and
+ * <b>events.handler.bulkhead.timeouts</b> count the calls deferred because the bulkhead was full, and the calls
+ * interrupted by the timeout.
+ * <p>
+ * Bulkheads registered after the binding get their meters when they are registered, and lose them when they are
+ * unregistered.
+ *
+ * @author FezLight
+ */
+public class HandlerBulkheadMetrics implements MeterBinder, EventRegistryListener {
+    private static final String METER_PREFIX = "events.handler.bulkhead.";
+
+    private final EventRegistryConfig eventRegistryConfig;
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    public HandlerBulkheadMetrics(EventRegistryConfig eventRegistryConfig) {
+        this.eventRegistryConfig = eventRegistryConfig;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        if (registries.isEmpty()) {
+            eventRegistryConfig.addListener(this);
+        }
+        registries.add(registry);
+
+        // Meters are registered once per name and tags, a bulkhead also seen by the listener is not bound twice
+        HandlerBulkheads.getBulkheads(eventRegistryConfig).forEach((handlerName, bulkhead) ->
+                bind(registry, handlerName, bulkhead)
+        );
+    }
+
+    @Override
+    public void onEventTypeRegistered(Class<? extends Event> event) {
+    }
+
+    @Override
+    public void onHandlerRegistered(Class<? extends Event> event, Handler<?> handler) {
+        if (handler.eventHandler() instanceof BulkheadEventHandler<?> bulkhead) {
+            registries.forEach(registry -> bind(registry, handler.name(), bulkhead));
+        }
+    }
+
+    @Override
+    public void onHandlerUnregistered(Class<? extends Event> event, Handler<?> handler) {
+        if (handler.eventHandler() instanceof BulkheadEventHandler<?>) {
+            registries.forEach(registry -> Search.in(registry)
+                    .name(name -> name.startsWith(METER_PREFIX))
+                    .tag("handler", handler.name())
+                    .meters()
+                    .forEach(registry::remove));
+        }
+    }
+
+    private static void bind(MeterRegistry registry, String handlerName, BulkheadEventHandler<?> bulkhead) {
+        Gauge.builder(METER_PREFIX + "active", bulkhead, BulkheadEventHandler::getActiveCount)
+                .description("Calls of the handler in progress")
+                .tag("handler", handlerName)
+                .register(registry);
+        Gauge.builder(METER_PREFIX + "saturation", bulkhead, BulkheadEventHandler::getSaturation)
+                .description("Ratio of the calls of the handler in progress to its max concurrency")
+                .tag("handler", handlerName)
+                .register(registry);
+        FunctionCounter.builder(METER_PREFIX + "rejected", bulkhead, BulkheadEventHandler::getRejectedCount)
+                .description("Calls of the handler deferred because its bulkhead was full")
+                .tag("handler", handlerName)
+                .register(registry);
+        FunctionCounter.builder(METER_PREFIX + "timeouts", bulkhead, BulkheadEventHandler::getTimeoutCount)
+                .description("Calls of the handler not completed within its timeout")
+                .tag("handler", handlerName)
+                .register(registry);
+    }
+}
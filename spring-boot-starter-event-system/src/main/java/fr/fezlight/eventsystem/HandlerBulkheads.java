@@ -0,0 +1,67 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import fr.fezlight.eventsystem.models.BulkheadEventHandler;
+import fr.fezlight.eventsystem.models.Handler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class used to share what handler bulkheads (see {@link BulkheadEventHandler}) need.
+ * <p>
+ * Handlers with a timeout but without executor run on a shared executor, created on first use. These handlers must
+ * define a max concurrency, and a call holds its permit until the handler completes, so the threads of the shared
+ * executor are bounded by the sum of their max concurrency.
+ *
+ * @author FezLight
+ */
+public class HandlerBulkheads implements AutoCloseable {
+    private final Mode mode;
+    private ExecutorService sharedExecutor;
+
+    public HandlerBulkheads(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * @return the executor shared by the handlers with a timeout but without executor
+     */
+    public synchronized Executor getSharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = Executors.newCachedThreadPool(EventThreads.factory(mode, "event-bulkhead-"));
+        }
+
+        return sharedExecutor;
+    }
+
+    /**
+     * Method used to find the handlers isolated in a bulkhead.
+     *
+     * @param eventRegistryConfig Registry of the handlers
+     * @return bulkheads by handler name
+     */
+    public static Map<String, BulkheadEventHandler<?>> getBulkheads(EventRegistryConfig eventRegistryConfig) {
+        Map<String, BulkheadEventHandler<?>> bulkheads = new LinkedHashMap<>();
+        eventRegistryConfig.getRegisteredHandlers().forEach((event, handlers) -> {
+            for (Handler<?> handler : handlers) {
+                if (handler.eventHandler() instanceof BulkheadEventHandler<?> bulkhead) {
+                    bulkheads.put(handler.name(), bulkhead);
+                }
+            }
+        });
+
+        return bulkheads;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sharedExecutor != null) {
+            sharedExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.config.rabbitmq.HandlerQueueTopology;
+import fr.fezlight.eventsystem.config.rabbitmq.QueueNameResolver;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.Optional;
+
+/**
+ * Class used to consume the handler queues, when each handler has its own queue (see {@link HandlerQueueTopology}).
+ * <p>
+ * The event received is handled by the handler of the queue if its condition matches. On failure, the event is sent to
+ * the retry queue as an {@link EventWrapper} addressed to the worker queue, so next attempts are made by
+ * {@link EventListeners#processEvent(String, EventWrapper)}. Without retry left, the event is rejected to the error
+ * queue, as an event received on the queue of an unknown handler.
+ *
+ * @author FezLight
+ */
+public class HandlerQueueListener implements MessageListener {
+    private static final Logger log = LoggerFactory.getLogger(HandlerQueueListener.class);
+
+    private final EventRegistryConfig eventRegistryConfig;
+    private final HandlerQueueTopology handlerQueueTopology;
+    private final RabbitTemplate rabbitTemplate;
+    private final EventRetryPublisher eventRetryPublisher;
+
+    public HandlerQueueListener(EventRegistryConfig eventRegistryConfig, HandlerQueueTopology handlerQueueTopology,
+                                RabbitTemplate rabbitTemplate, EventProperties eventProperties,
+                                QueueNameResolver queueNameResolver) {
+        this.eventRegistryConfig = eventRegistryConfig;
+        this.handlerQueueTopology = handlerQueueTopology;
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventRetryPublisher = new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        var handlerName = handlerQueueTopology.getHandlerName(message.getMessageProperties().getConsumerQueue());
+        Optional<Handler<Event>> handler = handlerName == null
+                ? Optional.empty()
+                : eventRegistryConfig.getByHandlerName(handlerName);
+
+        if (handler.isEmpty()) {
+            throw new AmqpRejectAndDontRequeueException(
+                    "No handler found for queue '" + message.getMessageProperties().getConsumerQueue() + "'"
+            );
+        }
+
+        if (!(rabbitTemplate.getMessageConverter().fromMessage(message) instanceof Event event)) {
+            throw new AmqpRejectAndDontRequeueException("Unable to handle message");
+        }
+
+        process(handler.get(), event);
+    }
+
+    /**
+     * Method used to call a handler with an event received on its queue.
+     *
+     * @param handler Handler of the queue
+     * @param event   Event received
+     */
+    void process(Handler<Event> handler, Event event) {
+        if (!handler.matches(event)) {
+            log.debug("Filter out handler '{}' because condition not matched", handler.name());
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Receiving event {} for handler '{}'", event, handler.name());
+        }
+
+        try {
+            handler.handle(event);
+        } catch (BulkheadFullException e) {
+            log.debug("Handler '{}' bulkhead full, deferring event", handler.name());
+            eventRetryPublisher.defer(
+                    EventWrapper.builder()
+                            .event(event)
+                            .handlerName(handler.name())
+                            .retryLeft(handler.retry())
+                            .build(),
+                    e
+            );
+        } catch (Exception e) {
+            if (handler.retry() <= 0) {
+                throw new AmqpRejectAndDontRequeueException("Rejecting message no retries left", e);
+            }
+
+            log.debug("Retry attempts left = {}", handler.retry());
+            eventRetryPublisher.retry(
+                    EventWrapper.builder()
+                            .event(event)
+                            .handlerName(handler.name())
+                            .retryLeft(handler.retry())
+                            .build(),
+                    e
+            );
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor running the tasks of a key one after the other, in submission order, and the tasks of different keys in
+ * parallel on a bounded pool of threads.
+ * <p>
+ * The tasks waiting for a key are bounded : submitting a task to a full key blocks the caller until a task of this key
+ * is done, so a hot key slows down its producer instead of filling the memory. The caller waits on a lock rather than
+ * on a monitor, so a virtual thread waiting for a hot key does not pin its carrier thread.
+ *
+ * @author FezLight
+ */
+public class KeyedEventExecutor implements AutoCloseable {
+    private final int keyQueueCapacity;
+    private final ExecutorService executorService;
+    private final Map<String, KeyQueue> keyQueues = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    /**
+     * @param parallelism      Maximum number of keys running a task at the same time
+     * @param keyQueueCapacity Maximum number of tasks submitted and not done for a key
+     */
+    public KeyedEventExecutor(int parallelism, int keyQueueCapacity) {
+        this(parallelism, keyQueueCapacity, EventThreads.factory(Mode.PLATFORM, "event-ordered-"));
+    }
+
+    /**
+     * @param parallelism      Maximum number of keys running a task at the same time
+     * @param keyQueueCapacity Maximum number of tasks submitted and not done for a key
+     * @param threadFactory    Factory of the threads running the tasks
+     */
+    public KeyedEventExecutor(int parallelism, int keyQueueCapacity, ThreadFactory threadFactory) {
+        if (parallelism < 1 || keyQueueCapacity < 1) {
+            throw new IllegalArgumentException("parallelism and key queue capacity must be greater than 0");
+        }
+
+        this.keyQueueCapacity = keyQueueCapacity;
+        this.executorService = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    /**
+     * Method used to run a task after the tasks previously submitted with the same key.
+     * <p>
+     * A failed task does not prevent the next tasks of its key from running.
+     *
+     * @param key  Key of the task
+     * @param task Task to run
+     * @return future completed when the task is done
+     * @throws InterruptedException if interrupted while waiting for room in the queue of the key
+     */
+    public CompletableFuture<Void> submit(String key, Runnable task) throws InterruptedException {
+        Objects.requireNonNull(key, "key cannot be null");
+
+        KeyQueue keyQueue;
+        CompletableFuture<Void> future;
+        lock.lockInterruptibly();
+        try {
+            keyQueue = keyQueues.computeIfAbsent(key, k -> new KeyQueue());
+            while (keyQueue.pending >= keyQueueCapacity) {
+                released.await();
+                keyQueue = keyQueues.computeIfAbsent(key, k -> new KeyQueue());
+            }
+
+            keyQueue.pending++;
+            future = keyQueue.tail.thenRunAsync(task, executorService);
+            keyQueue.tail = future.exceptionally(e -> null);
+        } finally {
+            lock.unlock();
+        }
+
+        var submitted = keyQueue;
+        future.whenComplete((result, e) -> release(key, submitted));
+        return future;
+    }
+
+    /**
+     * @return number of keys with tasks submitted and not done
+     */
+    public int getActiveKeys() {
+        lock.lock();
+        try {
+            return keyQueues.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String key, KeyQueue keyQueue) {
+        lock.lock();
+        try {
+            if (--keyQueue.pending == 0) {
+                keyQueues.remove(key, keyQueue);
+            }
+
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    private static final class KeyQueue {
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private int pending;
+    }
+}
@@ -0,0 +1,116 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import fr.fezlight.eventsystem.models.LocalEventWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.modulith.events.EventExternalizationConfiguration;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class used to call the handlers of an event in the instance that fanned it out, without going through RabbitMQ.
+ * <p>
+ * Each {@link LocalEventWrapper} is stored in the event publication registry with the fan-out transaction, and its
+ * handler is called on a bounded pool of threads once the transaction is committed. The publication is completed when
+ * the returned future completes, so a handler interrupted by a shutdown is called again when incomplete publications
+ * are resubmitted.
+ * <p>
+ * A failed handler is sent to the retry queue or to the error queue, as if it was called from the worker queue. When
+ * the pool is saturated, the {@link EventWrapper} is sent to RabbitMQ instead, with the routing and the headers it
+ * would have been externalized with (see {@link EventExternalizationConfiguration}).
+ *
+ * @author FezLight
+ */
+public class LocalEventDispatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LocalEventDispatcher.class);
+
+    private final EventRegistryConfig eventRegistryConfig;
+    private final EventRetryPublisher eventRetryPublisher;
+    private final RabbitTemplate rabbitTemplate;
+    private final EventExternalizationConfiguration eventExternalizationConfiguration;
+    private final ExecutorService executorService;
+
+    public LocalEventDispatcher(EventRegistryConfig eventRegistryConfig, EventRetryPublisher eventRetryPublisher,
+                                RabbitTemplate rabbitTemplate,
+                                EventExternalizationConfiguration eventExternalizationConfiguration,
+                                EventProperties eventProperties) {
+        var local = eventProperties.getRabbit().getFanOut().getLocal();
+        if (local.getParallelism() < 1 || local.getQueueCapacity() < 1) {
+            throw new IllegalArgumentException("parallelism and queue capacity must be greater than 0");
+        }
+
+        this.eventRegistryConfig = eventRegistryConfig;
+        this.eventRetryPublisher = eventRetryPublisher;
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventExternalizationConfiguration = eventExternalizationConfiguration;
+        this.executorService = new ThreadPoolExecutor(
+                local.getParallelism(), local.getParallelism(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(local.getQueueCapacity()),
+                EventThreads.factory(eventProperties.getExecution().getMode(), "event-local-")
+        );
+    }
+
+    /**
+     * Method used to call the handler of a {@link LocalEventWrapper} once the fan-out transaction is committed.
+     *
+     * @param localEventWrapper Wrapper published by {@link EventListeners#process(Event)}
+     * @return future completed when the handler is done, or its failure is sent to the retry path
+     */
+    @TransactionalEventListener
+    public CompletableFuture<Void> dispatch(LocalEventWrapper<?> localEventWrapper) {
+        var eventWrapper = localEventWrapper.eventWrapper();
+        try {
+            return CompletableFuture.runAsync(() -> invoke(eventWrapper), executorService);
+        } catch (RejectedExecutionException e) {
+            log.debug("Local dispatch saturated, sending {} to RabbitMQ", eventWrapper);
+            send(eventWrapper);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void send(EventWrapper<?> eventWrapper) {
+        var target = eventExternalizationConfiguration.determineTarget(eventWrapper);
+        var headers = eventExternalizationConfiguration.getHeadersFor(eventWrapper);
+        rabbitTemplate.convertAndSend(target.getTarget(), target.getKey(), eventWrapper, message -> {
+            headers.forEach(message.getMessageProperties()::setHeader);
+            return message;
+        });
+    }
+
+    private <E extends Event> void invoke(EventWrapper<E> eventWrapper) {
+        Optional<Handler<E>> handler = eventRegistryConfig.getByHandlerName(eventWrapper.getHandlerName());
+        if (handler.isEmpty()) {
+            log.error("No handler found for name '{}'", eventWrapper.getHandlerName());
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Dispatching event {} locally", eventWrapper);
+        }
+
+        try {
+            handler.get().handle(eventWrapper.getEvent());
+        } catch (Exception e) {
+            eventRetryPublisher.onHandlerFailure(handler.get(), eventWrapper.getEvent(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+}
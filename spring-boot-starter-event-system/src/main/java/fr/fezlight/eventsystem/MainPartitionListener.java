@@ -0,0 +1,51 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.rabbitmq.EventPartitioning;
+import fr.fezlight.eventsystem.config.rabbitmq.FanOutNotConfirmedException;
+import fr.fezlight.eventsystem.models.Event;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * Class used to consume the partitions of the main queue (see {@link EventPartitioning}).
+ * <p>
+ * The event received is fanned out by {@link EventListeners#process(Event, Message)}, as if it was received on the
+ * main queue. Failures are handled the same way : the event is requeued if its fan-out is not confirmed, and rejected
+ * to the error queue otherwise.
+ *
+ * @author FezLight
+ */
+public class MainPartitionListener implements MessageListener {
+    private static final Logger log = LoggerFactory.getLogger(MainPartitionListener.class);
+
+    private final EventListeners eventListeners;
+    private final RabbitTemplate rabbitTemplate;
+
+    public MainPartitionListener(EventListeners eventListeners, RabbitTemplate rabbitTemplate) {
+        this.eventListeners = eventListeners;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        if (!(rabbitTemplate.getMessageConverter().fromMessage(message) instanceof Event event)) {
+            throw new AmqpRejectAndDontRequeueException("Unable to handle message");
+        }
+
+        try {
+            eventListeners.process(event, message);
+        } catch (RuntimeException e) {
+            if (ExceptionUtils.indexOfThrowable(e, FanOutNotConfirmedException.class) >= 0) {
+                log.debug("Requeue message, fan-out not confirmed");
+                throw e;
+            }
+
+            throw new AmqpRejectAndDontRequeueException("Unable to handle message", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package fr.fezlight.eventsystem;
+
+import com.rabbitmq.client.Channel;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_DEFERRALS_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_ORDERING_KEY_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_RETRY_LEFT_HEADER;
+
+/**
+ * Class used to consume the ordered worker queue, calling the handlers of the events sharing an ordering key (see
+ * {@link EventWrapper#getOrderingKey()}) one after the other, and the ones of different keys in parallel with a
+ * {@link KeyedEventExecutor}.
+ * <p>
+ * Messages are acknowledged manually once their handler is done, so the number of events in progress is bounded by
+ * the prefetch of the listener container. A failed handler is sent to the error queue, or to the ordered retry queue
+ * which delivers it back to this queue with its ordering key (see {@link EventRetryPublisher}). The next events of its
+ * key are not blocked while it waits for its retry.
+ *
+ * @author FezLight
+ */
+public class OrderedWorkerListener implements ChannelAwareMessageListener {
+    private static final Logger log = LoggerFactory.getLogger(OrderedWorkerListener.class);
+
+    private final EventListeners eventListeners;
+    private final KeyedEventExecutor keyedEventExecutor;
+    private final EventRetryPublisher eventRetryPublisher;
+    private final RabbitTemplate rabbitTemplate;
+
+    public OrderedWorkerListener(EventListeners eventListeners, KeyedEventExecutor keyedEventExecutor,
+                                 EventRetryPublisher eventRetryPublisher, RabbitTemplate rabbitTemplate) {
+        this.eventListeners = eventListeners;
+        this.keyedEventExecutor = keyedEventExecutor;
+        this.eventRetryPublisher = eventRetryPublisher;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) throws Exception {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        if (!(convert(message) instanceof EventWrapper<?> eventWrapper)) {
+            log.error("Unable to handle message {}, not an event wrapper", message.getMessageProperties().getMessageId());
+            channel.basicReject(deliveryTag, false);
+            return;
+        }
+
+        keyedEventExecutor.submit(orderingKey(eventWrapper, message), () -> process(eventWrapper, message))
+                .whenComplete((result, e) -> {
+                    try {
+                        if (e == null) {
+                            channel.basicAck(deliveryTag, false);
+                        } else {
+                            log.error("Unable to handle event {}", eventWrapper, e);
+                            channel.basicReject(deliveryTag, false);
+                        }
+                    } catch (IOException ex) {
+                        log.warn("Unable to acknowledge event {}, it will be redelivered", eventWrapper, ex);
+                    }
+                });
+    }
+
+    private Object convert(Message message) {
+        try {
+            return rabbitTemplate.getMessageConverter().fromMessage(message);
+        } catch (MessageConversionException e) {
+            log.debug("Unable to convert message {}", message.getMessageProperties().getMessageId(), e);
+            return null;
+        }
+    }
+
+    private void process(EventWrapper<?> eventWrapper, Message message) {
+        try {
+            eventListeners.processEvent(message.getMessageProperties().getReplyTo(), eventWrapper);
+        } catch (Exception e) {
+            Integer retryLeftHeader = message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER);
+            int retryLeft = Objects.requireNonNullElse(retryLeftHeader, Objects.requireNonNullElse(eventWrapper.getRetryLeft(), 0));
+
+            if (ExceptionUtils.indexOfThrowable(e, BulkheadFullException.class) >= 0) {
+                log.debug("Handler bulkhead full, deferring event {}", eventWrapper);
+                eventWrapper.setRetryLeft(retryLeft);
+                Integer deferrals = message.getMessageProperties().getHeader(AMQP_DEFERRALS_HEADER);
+                eventRetryPublisher.defer(eventWrapper, Objects.requireNonNullElse(deferrals, 0), e);
+            } else if (retryLeft > 0) {
+                log.debug("Retry attempts left = {}", retryLeft);
+                eventWrapper.setRetryLeft(retryLeft);
+                eventRetryPublisher.retry(eventWrapper, e);
+            } else {
+                log.warn("Event {} failed, no retries left", eventWrapper, e);
+                eventRetryPublisher.reject(eventWrapper, e);
+            }
+        }
+    }
+
+    /**
+     * Method used to get the ordering key of a wrapper, from the message headers if the wrapper has none.
+     *
+     * @return the ordering key, or the message delivery tag so that an event without key does not wait for others
+     */
+    static String orderingKey(EventWrapper<?> eventWrapper, Message message) {
+        if (eventWrapper.getOrderingKey() != null) {
+            return eventWrapper.getOrderingKey();
+        }
+
+        Object header = message.getMessageProperties().getHeader(AMQP_ORDERING_KEY_HEADER);
+        return header != null ? header.toString() : "#" + message.getMessageProperties().getDeliveryTag();
+    }
+}
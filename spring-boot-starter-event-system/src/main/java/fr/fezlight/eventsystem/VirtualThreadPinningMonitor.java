@@ -0,0 +1,73 @@
+package fr.fezlight.eventsystem;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Monitor logging the virtual threads pinned to their carrier thread, enabled by
+ * <b>events.execution.pinning-diagnostics.enabled</b>.
+ * <p>
+ * A virtual thread blocking inside a {@code synchronized} block or a native frame keeps its carrier thread, so a
+ * handler doing so limits the number of handlers running at once to the number of carriers. The JFR
+ * {@code jdk.VirtualThreadPinned} events longer than the threshold are logged with the stack of the pinned thread, to
+ * find the handler or library to fix.
+ *
+ * @author FezLight
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 10;
+
+    private final RecordingStream recordingStream;
+    private final LongAdder pinnedCount = new LongAdder();
+
+    /**
+     * @param threshold Minimum duration of a pinning to be reported
+     */
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.recordingStream = new RecordingStream();
+        this.recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        this.recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        this.recordingStream.startAsync();
+    }
+
+    /**
+     * @return number of pinnings reported since startup
+     */
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+
+        String stack = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(STACK_DEPTH)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread '{}' pinned to its carrier for {} ms{}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), stack);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    @Override
+    public void close() {
+        recordingStream.close();
+    }
+}
@@ -0,0 +1,25 @@
+package fr.fezlight.eventsystem.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define the type alias of the annotated event, used as routing key when events are routed by type.
+ * <p>
+ * Without this annotation, the fully qualified class name of the event is used. The alias must be the same in every
+ * application publishing or handling the event.
+ *
+ * @author FezLight
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EventType {
+    /**
+     * Configure the type alias of the annotated event
+     *
+     * @return the type alias of the event
+     */
+    String value();
+}
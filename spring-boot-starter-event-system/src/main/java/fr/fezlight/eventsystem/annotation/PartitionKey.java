@@ -0,0 +1,21 @@
+package fr.fezlight.eventsystem.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define the property of an event used as its partition key, such as the identifier of an aggregate.
+ * <p>
+ * Events with the same key are routed to the same partition of the main queue, so they are fanned out in order when
+ * the main queue is partitioned. When ordering is enabled, the key is also carried by each
+ * {@link fr.fezlight.eventsystem.models.EventWrapper} of the event, so its handlers are called in order with the other
+ * events of the same key. Can be put on a field, a method without parameter or a record component.
+ *
+ * @author FezLight
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PartitionKey {
+}
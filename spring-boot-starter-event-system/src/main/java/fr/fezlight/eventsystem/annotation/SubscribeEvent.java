@@ -7,12 +7,16 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.function.Predicate;
 
 /**
  * Indicate that the annotated method is a method that can handle event listening
  * for a specific event.
  * <p>
- * The event related to this annotation is deducted from the first parameter of the method.
+ * The event related to this annotation is deducted from the first parameter of the method. A method taking a
+ * {@link java.util.List} of events is a batch handler, called once with up to {@link #batchSize()} events. A method
+ * returning a {@link java.util.concurrent.CompletionStage} or a Reactor {@code Mono} is an async handler, whose event
+ * is acknowledged once the result completes.
  *
  * @author FezLight
  */
@@ -47,4 +51,71 @@ public @interface SubscribeEvent {
      */
     /* language=SpEL */
     String condition() default "";
+
+    /**
+     * Name of a {@link Predicate} bean used for making the event handling conditional.
+     * <p>
+     * The bean is resolved once at startup and called with the event, without any SpEL evaluation. Cannot be combined
+     * with {@link #condition()} or {@link #conditionClass()}.
+     *
+     * @return the name of the predicate bean, if any (or empty by default)
+     */
+    String conditionBean() default "";
+
+    /**
+     * {@link Predicate} class used for making the event handling conditional.
+     * <p>
+     * The bean of this type is used if one is defined, otherwise the class is instantiated once at startup. Cannot be
+     * combined with {@link #condition()} or {@link #conditionBean()}.
+     *
+     * @return the predicate class, if any (or {@link Predicate} by default, meaning no predicate)
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Predicate> conditionClass() default Predicate.class;
+
+    /**
+     * Configure the maximum number of events given at once to a batch handler, whose parameter is a
+     * {@link java.util.List} of events. Ignored for other handlers.
+     *
+     * @return the batch size (100 by default)
+     */
+    int batchSize() default 100;
+
+    /**
+     * Configure how long a batch handler waits for a full batch before being called with the events received, as a
+     * duration like <b>200ms</b> or <b>1s</b>. Ignored for other handlers.
+     *
+     * @return the batch timeout (1s by default)
+     */
+    String batchTimeout() default "1s";
+
+    /**
+     * Configure the maximum number of concurrent executions of the annotated method in this instance (its bulkhead).
+     * <p>
+     * An event received while the bulkhead is full is deferred through the retry queue, without using a retry.
+     * Ignored for batch and async handlers.
+     *
+     * @return the maximum concurrent executions, if any (or 0 by default, meaning unbounded)
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * Name of an {@link java.util.concurrent.Executor} bean running the annotated method, the consumer waiting for it.
+     * An event refused by the executor is deferred as when the bulkhead is full. Ignored for batch and async handlers.
+     *
+     * @return the name of the executor bean, if any (or empty by default, meaning the consumer thread, or a shared
+     * executor when a {@link #timeout()} is defined)
+     */
+    String executor() default "";
+
+    /**
+     * Configure how long the consumer waits for the annotated method, as a duration like <b>500ms</b> or <b>10s</b>.
+     * <p>
+     * The method is then interrupted and the event is retried or rejected as any failure. Without {@link #executor()},
+     * a {@link #maxConcurrency()} is required, bounding the threads of the shared executor. Ignored for batch and async
+     * handlers.
+     *
+     * @return the timeout, if any (or empty by default, meaning no timeout)
+     */
+    String timeout() default "";
 }
@@ -0,0 +1,34 @@
+package fr.fezlight.eventsystem.aot;
+
+import fr.fezlight.eventsystem.config.SubscribeEventIndex;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.LocalEventWrapper;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Runtime hints of the event system types that do not depend on the application.
+ * <p>
+ * Registers the binding of {@link EventWrapper}, sent and consumed as JSON, with the serializer of its event, of
+ * {@link LocalEventWrapper}, stored as JSON in the event publication registry, and the build-time handler index.
+ *
+ * @author FezLight
+ * @see SubscribeEventAotProcessor
+ */
+public class EventRuntimeHints implements RuntimeHintsRegistrar {
+    static final TypeReference EVENT_SERIALIZER = TypeReference.of(EventWrapper.class.getName() + "$SerializedEventSerializer");
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), EventWrapper.class);
+        hints.reflection().registerType(EventWrapper.class, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(EVENT_SERIALIZER, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        bindingRegistrar.registerReflectionHints(hints.reflection(), LocalEventWrapper.class);
+        hints.resources().registerPattern(SubscribeEventIndex.INDEX_LOCATION);
+    }
+}
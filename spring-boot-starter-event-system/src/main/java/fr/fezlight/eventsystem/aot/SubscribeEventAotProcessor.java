@@ -0,0 +1,103 @@
+package fr.fezlight.eventsystem.aot;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.MethodBatchEventHandler;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Ahead-of-time processor registering the runtime hints needed to register and call handlers in a native image.
+ * <p>
+ * At build time, it discovers :
+ * <p>- all bean methods annotated with {@link SubscribeEvent}, registered for invocation
+ * <p>- all {@link SubscribeEvent#conditionClass()} predicates, registered for instantiation
+ * <p>- all {@link Event} implementations, either handled by these methods or found in the auto-configuration packages,
+ * registered for JSON binding since their class name is carried by the payload
+ *
+ * @author FezLight
+ * @see EventRuntimeHints
+ */
+public class SubscribeEventAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Set<Class<?>> handlerTypes = new LinkedHashSet<>();
+        Set<Method> handlerMethods = new LinkedHashSet<>();
+        Set<Class<?>> eventTypes = new LinkedHashSet<>();
+        Set<Class<?>> conditionTypes = new LinkedHashSet<>();
+
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            var beanType = beanFactory.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+
+            var targetClass = ClassUtils.getUserClass(beanType);
+            for (Method method : targetClass.getMethods()) {
+                if (!method.isAnnotationPresent(SubscribeEvent.class)) {
+                    continue;
+                }
+
+                handlerTypes.add(targetClass);
+                handlerMethods.add(method);
+
+                var conditionClass = method.getAnnotation(SubscribeEvent.class).conditionClass();
+                if (conditionClass != Predicate.class) {
+                    conditionTypes.add(conditionClass);
+                }
+
+                if (method.getParameterCount() == 1) {
+                    eventTypes.add(MethodBatchEventHandler.getEventType(method));
+                }
+            }
+        }
+
+        eventTypes.addAll(findEventTypes(beanFactory));
+
+        if (handlerMethods.isEmpty() && eventTypes.isEmpty()) {
+            return null;
+        }
+
+        return (generationContext, beanFactoryInitializationCode) -> {
+            var reflection = generationContext.getRuntimeHints().reflection();
+
+            handlerTypes.forEach(type -> reflection.registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS));
+            handlerMethods.forEach(method -> reflection.registerMethod(method, ExecutableMode.INVOKE));
+            conditionTypes.forEach(type -> reflection.registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+            new BindingReflectionHintsRegistrar().registerReflectionHints(reflection, eventTypes.toArray(Class<?>[]::new));
+        };
+    }
+
+    private Set<Class<?>> findEventTypes(ConfigurableListableBeanFactory beanFactory) {
+        Set<Class<?>> eventTypes = new LinkedHashSet<>();
+        if (!AutoConfigurationPackages.has(beanFactory)) {
+            return eventTypes;
+        }
+
+        var scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(Event.class));
+
+        for (String basePackage : AutoConfigurationPackages.get(beanFactory)) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                eventTypes.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), beanFactory.getBeanClassLoader()));
+            }
+        }
+
+        return eventTypes;
+    }
+}
@@ -0,0 +1,82 @@
+package fr.fezlight.eventsystem.condition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Parsed Spring Expression Language (SpEL) expression used by handler conditions.
+ * <p>
+ * When the expression has been compiled and the compiled version cannot be run, it is replaced by its interpreted
+ * version for all further evaluations.
+ *
+ * @author FezLight
+ * @see ConditionExpressionCache
+ */
+public class ConditionExpression {
+    private static final Logger log = LoggerFactory.getLogger(ConditionExpression.class);
+    private static final SpelExpressionParser INTERPRETED_EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(true, true)
+    );
+
+    private final String expressionString;
+    private volatile Expression expression;
+
+    ConditionExpression(String expressionString, Expression expression) {
+        this.expressionString = expressionString;
+        this.expression = expression;
+    }
+
+    /**
+     * Method used to evaluate the expression as a condition.
+     *
+     * @param context Evaluation context containing the <b>#event</b> variable
+     * @return true if the condition is matched, false otherwise
+     */
+    public boolean matches(EvaluationContext context) {
+        return Boolean.TRUE.equals(getValue(context, Boolean.class));
+    }
+
+    /**
+     * Method used to evaluate the expression.
+     *
+     * @param context    Evaluation context containing the <b>#event</b> variable
+     * @param resultType Expected type of the result
+     * @param <T>        Expected type of the result
+     * @return the result of the evaluation
+     */
+    public <T> T getValue(EvaluationContext context, Class<T> resultType) {
+        try {
+            return expression.getValue(context, resultType);
+        } catch (SpelEvaluationException e) {
+            if (e.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+                throw e;
+            }
+
+            log.debug("Unable to run compiled expression '{}', falling back to interpreted mode", expressionString, e);
+
+            var interpretedExpression = INTERPRETED_EXPRESSION_PARSER.parseExpression(expressionString);
+            this.expression = interpretedExpression;
+
+            return interpretedExpression.getValue(context, resultType);
+        }
+    }
+
+    public String getExpressionString() {
+        return expressionString;
+    }
+
+    public Expression getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expressionString;
+    }
+}
@@ -0,0 +1,72 @@
+package fr.fezlight.eventsystem.condition;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.models.Event;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of parsed Spring Expression Language (SpEL) conditions defined by {@link SubscribeEvent#condition()}.
+ * <p>
+ * Conditions are parsed once, when the handler is registered, instead of on every consumed event. Expressions are
+ * parsed with the configured {@link SpelCompilerMode} and are kept per event type, because a compiled expression is
+ * specialized for the types it was first evaluated with.
+ * <p>
+ * When a compiled expression cannot be run, it is replaced by its interpreted version.
+ *
+ * @author FezLight
+ */
+public class ConditionExpressionCache {
+    private final SpelExpressionParser expressionParser;
+    private final Map<Key, ConditionExpression> expressions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache compiling expressions in {@link SpelCompilerMode#MIXED} mode, the default of
+     * <b>events.condition.compiler-mode</b>.
+     */
+    public ConditionExpressionCache() {
+        this(SpelCompilerMode.MIXED);
+    }
+
+    public ConditionExpressionCache(SpelCompilerMode compilerMode) {
+        this.expressionParser = new SpelExpressionParser(
+                new SpelParserConfiguration(compilerMode, null, true, true, Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Method used to parse a condition and store it in the cache, if not already present.
+     *
+     * @param event     Event related class
+     * @param condition Condition to handle event (Spring Expression Language (SpEL) expression)
+     * @return the parsed expression
+     * @throws org.springframework.expression.ParseException if the condition is not a valid expression
+     */
+    public ConditionExpression register(Class<? extends Event> event, String condition) {
+        return expressions.computeIfAbsent(new Key(event, condition),
+                key -> new ConditionExpression(condition, expressionParser.parseExpression(condition)));
+    }
+
+    /**
+     * Method used to remove the expressions of a condition, for every event type, once no handler uses it anymore.
+     *
+     * @param condition Condition to remove
+     */
+    public void evict(String condition) {
+        expressions.keySet().removeIf(key -> key.condition().equals(condition));
+    }
+
+    /**
+     * Method used to clear all cached expressions.
+     */
+    public void clear() {
+        expressions.clear();
+    }
+
+    private record Key(Class<? extends Event> event, String condition) {
+    }
+}
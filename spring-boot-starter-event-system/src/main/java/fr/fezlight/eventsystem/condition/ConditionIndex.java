@@ -0,0 +1,301 @@
+package fr.fezlight.eventsystem.condition;
+
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.springframework.util.StringUtils.hasLength;
+
+/**
+ * Index of the handlers registered for an event type, grouped by their condition.
+ * <p>
+ * Conditions made of simple equality predicates on an event field are recognized when the index is built :
+ * <p>- <b>#event.type == 'value'</b> (or <b>'value' == #event.type</b>)
+ * <p>- <b>#event.type == 'a' or #event.type == 'b'</b>
+ * <p>- <b>{'a', 'b'}.contains(#event.type)</b>
+ * <p>
+ * Handlers with such conditions are grouped into a hash lookup by field, so the field is evaluated once per event and
+ * only the matching bucket is selected. Any other condition is evaluated handler by handler.
+ * <p>
+ * All expressions are resolved when the index is built, so selecting handlers involves no cache lookup.
+ * <p>
+ * Handlers with a {@link Predicate} condition are called directly with the event. An evaluation context is only
+ * created when at least one handler has a SpEL condition.
+ *
+ * @author FezLight
+ */
+public class ConditionIndex {
+    private static final String EVENT_VARIABLE = "#event";
+
+    private final List<Handler<?>> handlers;
+    private final ConditionExpression[] conditions;
+    private final Predicate<Object>[] predicates;
+    private final List<Integer> unconditional = new ArrayList<>();
+    private final List<Integer> tested = new ArrayList<>();
+    private final List<Integer> evaluated = new ArrayList<>();
+    private final Map<String, FieldIndex> fieldIndexes = new LinkedHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private ConditionIndex(Class<? extends Event> event, List<Handler<?>> handlers,
+                           ConditionExpressionCache conditionExpressionCache) {
+        this.handlers = List.copyOf(handlers);
+        this.conditions = new ConditionExpression[this.handlers.size()];
+        this.predicates = new Predicate[this.handlers.size()];
+
+        for (int position = 0; position < this.handlers.size(); position++) {
+            var handler = this.handlers.get(position);
+            if (handler.predicate() != null) {
+                predicates[position] = (Predicate<Object>) handler.predicate();
+                tested.add(position);
+                continue;
+            }
+
+            var condition = handler.condition();
+            if (!hasLength(condition)) {
+                unconditional.add(position);
+                continue;
+            }
+
+            conditions[position] = conditionExpressionCache.register(event, condition);
+
+            var indexedCondition = analyze(conditions[position].getExpression());
+            if (indexedCondition == null) {
+                evaluated.add(position);
+                continue;
+            }
+
+            var path = indexedCondition.path();
+            fieldIndexes.computeIfAbsent(path, key -> new FieldIndex(conditionExpressionCache.register(event, key)))
+                    .add(position, indexedCondition.values());
+        }
+    }
+
+    /**
+     * Method used to build an index for the handlers of an event type.
+     *
+     * @param event                    Event related class
+     * @param handlers                 Handlers registered for the event type, in registration order
+     * @param conditionExpressionCache Cache used to parse and evaluate conditions
+     * @return the condition index
+     */
+    public static ConditionIndex of(Class<? extends Event> event, List<Handler<?>> handlers,
+                                    ConditionExpressionCache conditionExpressionCache) {
+        return new ConditionIndex(event, handlers, conditionExpressionCache);
+    }
+
+    /**
+     * Method used to retrieve all handlers of this index.
+     *
+     * @return list of handlers, in registration order
+     */
+    public List<Handler<?>> handlers() {
+        return handlers;
+    }
+
+    /**
+     * Method used to select the handlers whose condition is matched by an event.
+     *
+     * @param event Event consumed
+     * @return list of matching handlers, in registration order
+     */
+    public List<Handler<?>> select(Event event) {
+        var requiresContext = !evaluated.isEmpty() || !fieldIndexes.isEmpty();
+
+        return select(event, requiresContext ? evaluationContext(event) : null);
+    }
+
+    /**
+     * Method used to select the handlers whose condition is matched.
+     *
+     * @param context Evaluation context containing the <b>#event</b> variable
+     * @return list of matching handlers, in registration order
+     */
+    public List<Handler<?>> select(EvaluationContext context) {
+        return select((Event) context.lookupVariable(EVENT_VARIABLE.substring(1)), context);
+    }
+
+    /**
+     * Method used to create the evaluation context of SpEL conditions.
+     *
+     * @param event Event consumed
+     * @return evaluation context containing the <b>#event</b> variable
+     */
+    public static EvaluationContext evaluationContext(Event event) {
+        var context = new StandardEvaluationContext();
+        context.setVariable(EVENT_VARIABLE.substring(1), event);
+        return context;
+    }
+
+    private List<Handler<?>> select(Event event, EvaluationContext context) {
+        if (handlers.isEmpty()) {
+            return List.of();
+        }
+
+        var matched = new BitSet(handlers.size());
+        unconditional.forEach(matched::set);
+        tested.forEach(position -> {
+            if (predicates[position].test(event)) {
+                matched.set(position);
+            }
+        });
+        evaluated.forEach(position -> {
+            if (matches(position, context)) {
+                matched.set(position);
+            }
+        });
+        fieldIndexes.values().forEach(fieldIndex -> fieldIndex.select(context, matched));
+
+        List<Handler<?>> result = new ArrayList<>(matched.cardinality());
+        matched.stream().forEach(position -> result.add(handlers.get(position)));
+        return result;
+    }
+
+    private boolean matches(int position, EvaluationContext context) {
+        return conditions[position].matches(context);
+    }
+
+    private static IndexedCondition analyze(Expression expression) {
+        if (!(expression instanceof SpelExpression spelExpression)) {
+            return null;
+        }
+
+        return analyze(spelExpression.getAST());
+    }
+
+    private static IndexedCondition analyze(SpelNode node) {
+        if (node instanceof OpEQ && node.getChildCount() == 2) {
+            var left = node.getChild(0);
+            var right = node.getChild(1);
+            if (isEventPath(left) && right instanceof StringLiteral literal) {
+                return new IndexedCondition(left.toStringAST(), Set.of(literalValue(literal)));
+            }
+            if (isEventPath(right) && left instanceof StringLiteral literal) {
+                return new IndexedCondition(right.toStringAST(), Set.of(literalValue(literal)));
+            }
+            return null;
+        }
+
+        if (node instanceof OpOr && node.getChildCount() == 2) {
+            var left = analyze(node.getChild(0));
+            var right = analyze(node.getChild(1));
+            if (left == null || right == null || !left.path().equals(right.path())) {
+                return null;
+            }
+
+            Set<String> values = new LinkedHashSet<>(left.values());
+            values.addAll(right.values());
+            return new IndexedCondition(left.path(), values);
+        }
+
+        if (node instanceof CompoundExpression && node.getChildCount() == 2
+            && node.getChild(0) instanceof InlineList list
+            && node.getChild(1) instanceof MethodReference method
+            && method.getName().equals("contains")
+            && method.getChildCount() == 1
+            && isEventPath(method.getChild(0))) {
+            Set<String> values = new LinkedHashSet<>();
+            for (int i = 0; i < list.getChildCount(); i++) {
+                if (!(list.getChild(i) instanceof StringLiteral literal)) {
+                    return null;
+                }
+                values.add(literalValue(literal));
+            }
+            return new IndexedCondition(method.getChild(0).toStringAST(), values);
+        }
+
+        return null;
+    }
+
+    private static boolean isEventPath(SpelNode node) {
+        if (!(node instanceof CompoundExpression) || node.getChildCount() < 2) {
+            return false;
+        }
+        if (!(node.getChild(0) instanceof VariableReference variable) || !EVENT_VARIABLE.equals(variable.toStringAST())) {
+            return false;
+        }
+        for (int i = 1; i < node.getChildCount(); i++) {
+            if (!(node.getChild(i) instanceof PropertyOrFieldReference)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String literalValue(StringLiteral literal) {
+        return (String) literal.getLiteralValue().getValue();
+    }
+
+    private record IndexedCondition(String path, Set<String> values) {
+    }
+
+    /**
+     * Hash lookup of the handlers whose condition only depends on the value of a single event field.
+     */
+    private class FieldIndex {
+        private final ConditionExpression path;
+        private final List<Integer> positions = new ArrayList<>();
+        private final Map<String, List<Integer>> buckets = new HashMap<>();
+
+        FieldIndex(ConditionExpression path) {
+            this.path = path;
+        }
+
+        void add(int position, Set<String> values) {
+            positions.add(position);
+            values.forEach(value -> buckets.computeIfAbsent(value, key -> new ArrayList<>()).add(position));
+        }
+
+        void select(EvaluationContext context, BitSet matched) {
+            Object value;
+            try {
+                value = path.getValue(context, Object.class);
+            } catch (EvaluationException e) {
+                selectOneByOne(context, matched);
+                return;
+            }
+
+            if (value == null) {
+                return;
+            }
+
+            if (!(value instanceof String key)) {
+                // Only String values are guaranteed to compare the same way as SpEL equality
+                selectOneByOne(context, matched);
+                return;
+            }
+
+            buckets.getOrDefault(key, List.of()).forEach(matched::set);
+        }
+
+        private void selectOneByOne(EvaluationContext context, BitSet matched) {
+            positions.forEach(position -> {
+                if (matches(position, context)) {
+                    matched.set(position);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package fr.fezlight.eventsystem.config;
+
+import fr.fezlight.eventsystem.HandlerBulkheadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration of the handler bulkhead meters, when Micrometer is present.
+ *
+ * @author FezLight
+ * @see HandlerBulkheadMetrics
+ */
+@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+public class BulkheadMetricsConfig {
+
+    @Bean
+    HandlerBulkheadMetrics handlerBulkheadMetrics(EventRegistryConfig eventRegistryConfig) {
+        return new HandlerBulkheadMetrics(eventRegistryConfig);
+    }
+}
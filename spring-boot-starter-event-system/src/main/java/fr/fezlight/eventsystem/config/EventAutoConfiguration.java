@@ -1,14 +1,40 @@
 package fr.fezlight.eventsystem.config;
 
+import fr.fezlight.eventsystem.EventFanOut;
 import fr.fezlight.eventsystem.EventListeners;
 import fr.fezlight.eventsystem.EventService;
+import fr.fezlight.eventsystem.EventThreads;
+import fr.fezlight.eventsystem.GroupedHandlerInvoker;
+import fr.fezlight.eventsystem.HandlerBulkheads;
+import fr.fezlight.eventsystem.LocalEventDispatcher;
+import fr.fezlight.eventsystem.VirtualThreadPinningMonitor;
 import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.condition.ConditionExpressionCache;
 import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Routing.Mode;
+import fr.fezlight.eventsystem.config.rabbitmq.AsyncHandlerConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.AsyncHandlerTopology;
+import fr.fezlight.eventsystem.config.rabbitmq.BatchHandlerConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.BatchHandlerTopology;
+import fr.fezlight.eventsystem.config.rabbitmq.ConfirmedFanOutPublisher;
+import fr.fezlight.eventsystem.config.rabbitmq.EventPartitioning;
 import fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRouting;
+import fr.fezlight.eventsystem.config.rabbitmq.HandlerQueueConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.ListenerConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.OrderingConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.PartitionConfig;
 import fr.fezlight.eventsystem.config.rabbitmq.QueueNameResolver;
+import fr.fezlight.eventsystem.models.BulkheadEventHandler;
 import fr.fezlight.eventsystem.models.Event;
 import fr.fezlight.eventsystem.models.EventHandler;
 import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.MethodAsyncEventHandler;
+import fr.fezlight.eventsystem.models.MethodBatchEventHandler;
+import fr.fezlight.eventsystem.models.MethodEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.JacksonJavaTypeMapper;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
@@ -22,6 +48,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
@@ -29,17 +56,29 @@ import org.springframework.context.annotation.Import;
 import org.springframework.modulith.events.EventExternalizationConfiguration;
 import org.springframework.modulith.events.RoutingTarget;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 import tools.jackson.databind.json.JsonMapper;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_ORDERING_KEY_HEADER;
 import static org.springframework.scheduling.annotation.Scheduled.CRON_DISABLED;
 import static org.springframework.util.ObjectUtils.isEmpty;
+import static org.springframework.util.StringUtils.hasLength;
 
 @ConditionalOnProperty(
         value = "events.enabled",
@@ -48,49 +87,180 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 )
 @AutoConfiguration(afterName = "org.springframework.modulith.events.amqp.RabbitJacksonConfiguration")
 @EnableConfigurationProperties(EventProperties.class)
-@Import(EventQueueConfig.class)
+@Import({EventQueueConfig.class, HandlerQueueConfig.class, PartitionConfig.class,
+        OrderingConfig.class, ListenerConfig.class, BatchHandlerConfig.class, AsyncHandlerConfig.class,
+        BulkheadMetricsConfig.class})
 public class EventAutoConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(EventAutoConfiguration.class);
 
     @Bean
-    @SuppressWarnings("unchecked")
-    EventRegistryConfig eventRegistryConfig(ApplicationContext applicationContext) {
-        var registry = new EventRegistryConfig();
+    EventRegistryConfig eventRegistryConfig(ApplicationContext applicationContext, EventProperties eventProperties) {
+        var registry = new EventRegistryConfig(
+                new ConditionExpressionCache(eventProperties.getCondition().getCompilerMode())
+        );
+        long start = System.nanoTime();
+
+        var index = eventProperties.getHandlerIndex().isEnabled()
+                ? SubscribeEventIndex.load(applicationContext.getClassLoader())
+                : Optional.<SubscribeEventIndex>empty();
+
+        index.ifPresent(value -> registerIndexedHandlers(applicationContext, registry, value));
+        registerScannedHandlers(applicationContext, registry, index.orElse(null));
+
+        log.debug("Registered handlers from {} in {} ms",
+                index.isPresent() ? SubscribeEventIndex.INDEX_LOCATION + " and bean scanning" : "bean scanning",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return registry;
+    }
+
+    /**
+     * Method used to register the handlers of the beans by scanning their methods, except the beans whose class comes
+     * from a module having a handler index (see {@link SubscribeEventIndex#covers(Class, ClassLoader)}).
+     *
+     * @param index Handler index, null to scan all beans
+     */
+    private void registerScannedHandlers(ApplicationContext applicationContext, EventRegistryConfig registry,
+                                         SubscribeEventIndex index) {
         Collection<Object> beans = applicationContext.getBeansWithAnnotation(Component.class).values();
 
         for (Object bean : beans) {
             Class<?> o = AopProxyUtils.ultimateTargetClass(bean);
+            if (index != null && index.covers(o, applicationContext.getClassLoader())) {
+                continue;
+            }
+
             List<Method> methods = Arrays.stream(o.getMethods())
                     .filter(method -> method.isAnnotationPresent(SubscribeEvent.class))
                     .toList();
 
             for (Method method : methods) {
-                if (method.getParameterCount() != 1) {
-                    throw new IllegalArgumentException("Method annotated with @SubscribeEvent must have exactly one parameter");
+                registerHandler(applicationContext, registry, bean, o, method);
+            }
+        }
+    }
+
+    private void registerIndexedHandlers(ApplicationContext applicationContext, EventRegistryConfig registry,
+                                         SubscribeEventIndex index) {
+        var classLoader = applicationContext.getClassLoader();
+        Map<String, Set<Method>> methodsByBeanName = new LinkedHashMap<>();
+
+        for (SubscribeEventIndex.Entry entry : index.entries()) {
+            var type = resolveClass(entry.className(), classLoader);
+            var parameterTypes = entry.parameterTypes().stream()
+                    .map(parameterType -> resolveClass(parameterType, classLoader))
+                    .toArray(Class<?>[]::new);
+
+            for (String beanName : applicationContext.getBeanNamesForType(type)) {
+                if (applicationContext.findAnnotationOnBean(beanName, Component.class) == null) {
+                    continue;
                 }
 
-                registry.registerHandler(
-                        String.format("%s#%s", o.getSimpleName(), method.getName()),
-                        (Class<Event>) method.getParameterTypes()[0],
-                        new EventHandler<>() {
-                            @Override
-                            public void handle(Event event) {
-                                try {
-                                    method.invoke(bean, event);
-                                } catch (IllegalAccessException | InvocationTargetException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            }
-
-                            @Override
-                            public SubscribeEvent getSubscribeEvent() {
-                                return method.getAnnotation(SubscribeEvent.class);
-                            }
-                        }
-                );
+                var targetClass = AopProxyUtils.ultimateTargetClass(applicationContext.getBean(beanName));
+                var method = ClassUtils.getMethodIfAvailable(targetClass, entry.methodName(), parameterTypes);
+                if (method != null && method.isAnnotationPresent(SubscribeEvent.class)) {
+                    methodsByBeanName.computeIfAbsent(beanName, key -> new LinkedHashSet<>()).add(method);
+                }
             }
         }
 
-        return registry;
+        methodsByBeanName.forEach((beanName, methods) -> {
+            var bean = applicationContext.getBean(beanName);
+            var targetClass = AopProxyUtils.ultimateTargetClass(bean);
+            methods.forEach(method -> registerHandler(applicationContext, registry, bean, targetClass, method));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerHandler(ApplicationContext applicationContext, EventRegistryConfig registry, Object bean,
+                                 Class<?> targetClass, Method method) {
+        if (method.getParameterCount() != 1) {
+            throw new IllegalArgumentException("Method annotated with @SubscribeEvent must have exactly one parameter");
+        }
+
+        EventHandler<Event> eventHandler;
+        if (MethodBatchEventHandler.isBatch(method)) {
+            if (MethodAsyncEventHandler.isAsync(method)) {
+                throw new IllegalArgumentException("Method " + method + " cannot be both a batch and an async handler");
+            }
+            eventHandler = new MethodBatchEventHandler<>(bean, method);
+        } else if (MethodAsyncEventHandler.isAsync(method)) {
+            eventHandler = new MethodAsyncEventHandler<>(bean, method);
+        } else {
+            eventHandler = bulkhead(applicationContext, new MethodEventHandler<>(bean, method));
+        }
+
+        registry.registerHandler(
+                String.format("%s#%s", targetClass.getSimpleName(), method.getName()),
+                (Class<Event>) MethodBatchEventHandler.getEventType(method),
+                eventHandler,
+                (Predicate<Event>) resolvePredicate(applicationContext, eventHandler.getSubscribeEvent())
+        );
+    }
+
+    /**
+     * Method used to isolate a handler in a bulkhead, if {@link SubscribeEvent#maxConcurrency()},
+     * {@link SubscribeEvent#executor()} or {@link SubscribeEvent#timeout()} is defined.
+     *
+     * @throws IllegalArgumentException if a timeout is defined without executor nor max concurrency, the shared
+     *                                  executor threads being bounded by the max concurrency only
+     */
+    private EventHandler<Event> bulkhead(ApplicationContext applicationContext, EventHandler<Event> eventHandler) {
+        var subscribeEvent = eventHandler.getSubscribeEvent();
+        boolean hasExecutor = hasLength(subscribeEvent.executor());
+        boolean hasTimeout = hasLength(subscribeEvent.timeout());
+        if (subscribeEvent.maxConcurrency() == 0 && !hasExecutor && !hasTimeout) {
+            return eventHandler;
+        }
+
+        Executor executor = null;
+        if (hasExecutor) {
+            executor = applicationContext.getBean(subscribeEvent.executor(), Executor.class);
+        } else if (hasTimeout) {
+            if (subscribeEvent.maxConcurrency() == 0) {
+                throw new IllegalArgumentException("A 'timeout' without 'executor' requires a 'maxConcurrency'");
+            }
+            executor = applicationContext.getBean(HandlerBulkheads.class).getSharedExecutor();
+        }
+
+        Duration timeout = null;
+        if (hasTimeout) {
+            try {
+                timeout = DurationStyle.detectAndParse(subscribeEvent.timeout());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid 'timeout' " + subscribeEvent.timeout(), e);
+            }
+        }
+
+        return new BulkheadEventHandler<>(eventHandler, subscribeEvent.maxConcurrency(), executor, timeout);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Predicate<?> resolvePredicate(ApplicationContext applicationContext, SubscribeEvent subscribeEvent) {
+        if (hasLength(subscribeEvent.conditionBean())) {
+            return applicationContext.getBean(subscribeEvent.conditionBean(), Predicate.class);
+        }
+
+        if (subscribeEvent.conditionClass() != Predicate.class) {
+            return resolvePredicate(applicationContext, subscribeEvent.conditionClass());
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private <P extends Predicate> P resolvePredicate(ApplicationContext applicationContext, Class<P> predicateClass) {
+        return applicationContext.getBeanProvider(predicateClass)
+                .getIfAvailable(() -> applicationContext.getAutowireCapableBeanFactory().createBean(predicateClass));
+    }
+
+    private Class<?> resolveClass(String className, ClassLoader classLoader) {
+        try {
+            return ClassUtils.forName(className, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("Unable to resolve class " + className + " listed in "
+                                            + SubscribeEventIndex.INDEX_LOCATION, e);
+        }
     }
 
     @Bean
@@ -105,12 +275,85 @@ public class EventAutoConfiguration {
         );
     }
 
+    @Bean
+    EventRouting eventRouting(EventProperties eventProperties, QueueNameResolver queueNameResolver) {
+        return new EventRouting(eventProperties, queueNameResolver);
+    }
+
+    @Bean
+    EventPartitioning eventPartitioning(EventProperties eventProperties, QueueNameResolver queueNameResolver) {
+        return new EventPartitioning(eventProperties, queueNameResolver);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "events.rabbit.fan-out.mode", havingValue = "confirmed")
+    ConfirmedFanOutPublisher confirmedFanOutPublisher(RabbitTemplate rabbitTemplate,
+                                                      QueueNameResolver queueNameResolver,
+                                                      EventProperties eventProperties,
+                                                      BatchHandlerTopology batchHandlerTopology,
+                                                      AsyncHandlerTopology asyncHandlerTopology) {
+        var fanOutTemplate = new RabbitTemplate(rabbitTemplate.getConnectionFactory());
+        fanOutTemplate.setMessageConverter(rabbitTemplate.getMessageConverter());
+
+        return new ConfirmedFanOutPublisher(
+                fanOutTemplate, queueNameResolver, eventProperties, batchHandlerTopology, asyncHandlerTopology
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "events.rabbit.fan-out.grouped.enabled", havingValue = "true")
+    GroupedHandlerInvoker groupedHandlerInvoker(EventRegistryConfig eventRegistryConfig,
+                                                RabbitTemplate rabbitTemplate,
+                                                QueueNameResolver queueNameResolver,
+                                                EventProperties eventProperties) {
+        return new GroupedHandlerInvoker(
+                eventRegistryConfig,
+                new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver),
+                eventProperties.getRabbit().getFanOut().getGrouped().getParallelism(),
+                EventThreads.factory(eventProperties.getExecution().getMode(), "event-grouped-")
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "events.rabbit.fan-out.mode", havingValue = "local")
+    LocalEventDispatcher localEventDispatcher(EventRegistryConfig eventRegistryConfig,
+                                              RabbitTemplate rabbitTemplate,
+                                              QueueNameResolver queueNameResolver,
+                                              EventExternalizationConfiguration eventExternalizationConfiguration,
+                                              EventProperties eventProperties) {
+        return new LocalEventDispatcher(
+                eventRegistryConfig,
+                new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver),
+                rabbitTemplate, eventExternalizationConfiguration, eventProperties
+        );
+    }
+
+    @Bean
+    HandlerBulkheads handlerBulkheads(EventProperties eventProperties) {
+        return new HandlerBulkheads(eventProperties.getExecution().getMode());
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "events.execution.pinning-diagnostics.enabled", havingValue = "true")
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(EventProperties eventProperties) {
+        return new VirtualThreadPinningMonitor(eventProperties.getExecution().getPinningDiagnostics().getThreshold());
+    }
+
     @Bean
     EventListeners eventListeners(EventRegistryConfig eventRegistryConfig,
                                   ApplicationEventPublisher applicationEventPublisher,
-                                  QueueNameResolver queueNameResolver) {
+                                  QueueNameResolver queueNameResolver,
+                                  EventProperties eventProperties,
+                                  ObjectProvider<ConfirmedFanOutPublisher> confirmedFanOutPublisher,
+                                  ObjectProvider<GroupedHandlerInvoker> groupedHandlerInvoker) {
+        EventFanOut eventFanOut = switch (eventProperties.getRabbit().getFanOut().getMode()) {
+            case OUTBOX -> EventFanOut.outbox(applicationEventPublisher);
+            case CONFIRMED -> confirmedFanOutPublisher.getObject();
+            case LOCAL -> EventFanOut.local(applicationEventPublisher, eventRegistryConfig);
+        };
+
         return new EventListeners(
-                eventRegistryConfig, applicationEventPublisher, queueNameResolver
+                eventRegistryConfig, queueNameResolver, eventFanOut, groupedHandlerInvoker.getIfAvailable()
         );
     }
 
@@ -196,13 +439,31 @@ public class EventAutoConfiguration {
     @Bean
     EventExternalizationConfiguration eventExternalizationConfiguration(
             QueueNameResolver queueNameResolver,
-            @Value("${events.rabbit.queue.main.direct-exchange:events.direct}") String directExchange,
-            @Value("${events.rabbit.queue.main.exchange:events}") String exchange
+            EventRouting eventRouting,
+            EventPartitioning eventPartitioning,
+            BatchHandlerTopology batchHandlerTopology,
+            AsyncHandlerTopology asyncHandlerTopology,
+            @Value("${events.rabbit.queue.main.direct-exchange:events.direct}") String directExchange
     ) {
         return EventExternalizationConfiguration.externalizing()
                 .select(EventExternalizationConfiguration.annotatedAsExternalized())
-                .route(EventWrapper.class, it -> RoutingTarget.forTarget(directExchange).andKey(queueNameResolver.getWorkerQueueName()))
-                .route(Event.class, it -> RoutingTarget.forTarget(exchange).andKey(queueNameResolver.getMainQueueName()))
+                .route(EventWrapper.class, it -> RoutingTarget.forTarget(directExchange)
+                        .andKey(batchHandlerTopology.getRoutingKey(
+                                it, asyncHandlerTopology.getRoutingKey(it, queueNameResolver.getWorkerQueueName())
+                        )))
+                .route(Event.class, eventRouting::getRoutingTarget)
+                .headers(Event.class, eventRouting.getMode() == Mode.HEADERS
+                        ? event -> headers(eventRouting.getHeaders(event), eventPartitioning.getHeaders(event))
+                        : eventPartitioning::getHeaders)
+                .headers(EventWrapper.class, it -> it.getOrderingKey() == null
+                        ? Map.of()
+                        : Map.of(AMQP_ORDERING_KEY_HEADER, it.getOrderingKey()))
                 .build();
     }
+
+    private static Map<String, Object> headers(Map<String, Object> typeHeaders, Map<String, Object> partitionHeaders) {
+        Map<String, Object> headers = new HashMap<>(typeHeaders);
+        headers.putAll(partitionHeaders);
+        return headers;
+    }
 }
@@ -1,6 +1,8 @@
 package fr.fezlight.eventsystem.config;
 
 import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.condition.ConditionExpressionCache;
+import fr.fezlight.eventsystem.condition.ConditionIndex;
 import fr.fezlight.eventsystem.models.Event;
 import fr.fezlight.eventsystem.models.EventHandler;
 import fr.fezlight.eventsystem.models.Handler;
@@ -8,30 +10,61 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.expression.ParseException;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.springframework.util.StringUtils.hasLength;
 
 /**
  * This class is the event registry containing all the events handlers registered by @SubscribeEvent or manually.
  * <p>
  * The main purpose of this class is to store all events handlers at runtime and give a simple way to retrieve all
  * these handlers.
+ * <p>
+ * Handlers can be registered and unregistered at runtime while events are dispatched. Each change publishes a new
+ * immutable snapshot of the registry, so readers only perform a volatile read and never lock, while writers are
+ * serialized.
  *
  * @author FezLight
  */
 public class EventRegistryConfig {
     private static final Logger log = LoggerFactory.getLogger(EventRegistryConfig.class);
+    private static final int DEFAULT_BATCH_SIZE = defaultValue("batchSize");
+    private static final String DEFAULT_BATCH_TIMEOUT = defaultValue("batchTimeout");
+    private static final int DEFAULT_MAX_CONCURRENCY = defaultValue("maxConcurrency");
+    private static final String DEFAULT_EXECUTOR = defaultValue("executor");
+    private static final String DEFAULT_TIMEOUT = defaultValue("timeout");
 
-    private final MultiValueMap<Class<? extends Event>, Handler<?>> handlersRegistry = new LinkedMultiValueMap<>();
+    private final ConditionExpressionCache conditionExpressionCache;
+    private final List<EventRegistryListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot;
+
+    public EventRegistryConfig() {
+        this(new ConditionExpressionCache());
+    }
+
+    public EventRegistryConfig(ConditionExpressionCache conditionExpressionCache) {
+        this.conditionExpressionCache = conditionExpressionCache;
+        this.snapshot = Snapshot.of(Map.of(), Map.of(), conditionExpressionCache);
+    }
 
     /**
      * Method used to register a new handler to the registry by specifying its name and event class.
+     * <p>
+     * The name, number of retries and condition of the handler are resolved once here, and the condition is parsed.
      *
      * @param handlerName  Name of the handler about to be registered (avoid using already registered name)
      * @param event        Event related class
@@ -40,15 +73,64 @@ public class EventRegistryConfig {
      * @return the handler instance
      */
     public <E extends Event> Handler<?> registerHandler(String handlerName, Class<E> event, EventHandler<E> eventHandler) {
-        var handler = new Handler<>(handlerName, eventHandler);
+        return registerHandler(handlerName, event, eventHandler, null);
+    }
+
+    /**
+     * Method used to register a new handler to the registry with a predicate condition.
+     * <p>
+     * The predicate is called directly with the event instead of evaluating a SpEL condition. It is required when the
+     * handler declares {@link SubscribeEvent#conditionBean()} or {@link SubscribeEvent#conditionClass()}.
+     *
+     * @param handlerName  Name of the handler about to be registered (avoid using already registered name)
+     * @param event        Event related class
+     * @param eventHandler A class implementation of EventHandler or lambda
+     * @param predicate    Condition to handle event, null if none
+     * @param <E>          Event related class type
+     * @return the handler instance
+     */
+    public synchronized <E extends Event> Handler<?> registerHandler(String handlerName, Class<E> event,
+                                                                     EventHandler<E> eventHandler,
+                                                                     Predicate<? super E> predicate) {
+        var handler = new Handler<>(handlerName, eventHandler, predicate);
+        var current = snapshot;
 
-        if (getByHandlerName(handler.name()).isPresent()) {
+        if (current.handlersByName().containsKey(handler.name())) {
             throw new IllegalArgumentException("Handler with name " + handlerName + " already registered, use 'customName' properties to define an alternative name");
         }
 
+        if (hasLength(handler.condition())) {
+            try {
+                handler = handler.withConditionExpression(conditionExpressionCache.register(event, handler.condition()));
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Handler with name " + handlerName + " has an invalid condition '" + handler.condition() + "'", e);
+            }
+        }
+
         log.debug("Registering handler for {} with id '{}'", event.getSimpleName(), handlerName);
 
-        handlersRegistry.add(event, handler);
+        Map<Class<? extends Event>, List<Handler<?>>> handlersRegistry = new LinkedHashMap<>(current.handlersRegistry());
+        List<Handler<?>> eventHandlers = new ArrayList<>(handlersRegistry.getOrDefault(event, List.of()));
+        eventHandlers.add(handler);
+        handlersRegistry.put(event, List.copyOf(eventHandlers));
+
+        Map<String, Handler<?>> handlersByName = new LinkedHashMap<>(current.handlersByName());
+        handlersByName.put(handler.name(), handler);
+
+        snapshot = Snapshot.of(handlersRegistry, handlersByName, conditionExpressionCache);
+
+        try {
+            for (EventRegistryListener listener : listeners) {
+                if (eventHandlers.size() == 1) {
+                    listener.onEventTypeRegistered(event);
+                }
+                listener.onHandlerRegistered(event, handler);
+            }
+        } catch (RuntimeException e) {
+            snapshot = current;
+            evictUnusedCondition(handler.condition(), current.handlersByName());
+            throw e;
+        }
 
         return handler;
     }
@@ -68,6 +150,30 @@ public class EventRegistryConfig {
      * @return the handler instance
      */
     public <E extends Event> Handler<?> registerHandler(Class<E> event, Consumer<E> eventHandler, int retry, String condition) {
+        return registerHandler(event, eventHandler, retry, condition, null);
+    }
+
+    /**
+     * Method used to register a new handler to the registry by specifying event class, number of retry and a
+     * predicate condition.
+     * <p>
+     * It will do the same exact job as {@link #registerHandler(Class, Consumer, int, String)} but the condition is a
+     * type-checked predicate called directly with the event, without any SpEL evaluation.
+     *
+     * @param event        Event related class
+     * @param eventHandler Specify what should be done with the event by consumer
+     * @param retry        Number of retries permitted
+     * @param condition    Condition to handle event
+     * @param <E>          Event related class type
+     * @return the handler instance
+     */
+    public <E extends Event> Handler<?> registerHandler(Class<E> event, Consumer<E> eventHandler, int retry,
+                                                        Predicate<? super E> condition) {
+        return registerHandler(event, eventHandler, retry, "", condition);
+    }
+
+    private <E extends Event> Handler<?> registerHandler(Class<E> event, Consumer<E> eventHandler, int retry,
+                                                         String condition, Predicate<? super E> predicate) {
         var id = UUID.randomUUID().toString();
         var subscribeEvent = new SubscribeEvent() {
             @Override
@@ -89,6 +195,42 @@ public class EventRegistryConfig {
             public String condition() {
                 return condition;
             }
+
+            @Override
+            public String conditionBean() {
+                return "";
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Class<? extends Predicate> conditionClass() {
+                return Predicate.class;
+            }
+
+            @Override
+            public int batchSize() {
+                return DEFAULT_BATCH_SIZE;
+            }
+
+            @Override
+            public String batchTimeout() {
+                return DEFAULT_BATCH_TIMEOUT;
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return DEFAULT_MAX_CONCURRENCY;
+            }
+
+            @Override
+            public String executor() {
+                return DEFAULT_EXECUTOR;
+            }
+
+            @Override
+            public String timeout() {
+                return DEFAULT_TIMEOUT;
+            }
         };
 
         return registerHandler(subscribeEvent.customName(), event, new EventHandler<>() {
@@ -101,7 +243,7 @@ public class EventRegistryConfig {
             public SubscribeEvent getSubscribeEvent() {
                 return subscribeEvent;
             }
-        });
+        }, predicate);
     }
 
     /**
@@ -111,47 +253,144 @@ public class EventRegistryConfig {
      * @param handlerName Name of the handler
      * @param <E>         Event related class type
      */
-    public <E extends Event> void unregisterHandler(Class<E> event, String handlerName) {
-        if (!handlersRegistry.containsKey(event)) {
+    public synchronized <E extends Event> void unregisterHandler(Class<E> event, String handlerName) {
+        var current = snapshot;
+        if (!current.handlersRegistry().containsKey(event)) {
             log.warn("No handler found for event {} and name '{}'", event, handlerName);
             return;
         }
 
         log.debug("Unregistering handler for {} with id '{}'", event.getSimpleName(), handlerName);
-        handlersRegistry.get(event).removeIf(handler -> handler.name().equals(handlerName));
+        List<Handler<?>> eventHandlers = new ArrayList<>(current.handlersRegistry().get(event));
+        var unregistered = eventHandlers.stream()
+                .filter(handler -> handler.name().equals(handlerName))
+                .findFirst();
+        if (unregistered.isEmpty()) {
+            return;
+        }
+        eventHandlers.remove(unregistered.get());
+
+        Map<Class<? extends Event>, List<Handler<?>>> handlersRegistry = new LinkedHashMap<>(current.handlersRegistry());
+        handlersRegistry.put(event, List.copyOf(eventHandlers));
+
+        Map<String, Handler<?>> handlersByName = new LinkedHashMap<>(current.handlersByName());
+        handlersByName.remove(handlerName);
+
+        for (EventRegistryListener listener : listeners) {
+            listener.onHandlerUnregistered(event, unregistered.get());
+            if (eventHandlers.isEmpty()) {
+                listener.onEventTypeUnregistered(event);
+            }
+        }
+
+        snapshot = Snapshot.of(handlersRegistry, handlersByName, conditionExpressionCache);
+        evictUnusedCondition(unregistered.get().condition(), handlersByName);
     }
 
     /**
      * Method used to retrieve all handler related to an event type
+     * <p>
+     * Handlers registered for a supertype or an interface of the event type are also returned, after the ones
+     * registered for the event type itself.
      *
      * @param event Event related class
      * @param <E>   Event related class type
      * @return list of handler related to event type, empty list if not found
      */
     public <E extends Event> List<Handler<?>> getHandlers(Class<E> event) {
-        if (!handlersRegistry.containsKey(event)) {
-            return List.of();
-        }
+        return getConditionIndex(event).handlers();
+    }
 
-        return handlersRegistry.get(event);
+    /**
+     * Method used to retrieve all event types having at least one handler registered.
+     *
+     * @return set of event types, in registration order
+     */
+    public Set<Class<? extends Event>> getEventTypes() {
+        Set<Class<? extends Event>> eventTypes = new LinkedHashSet<>();
+        snapshot.handlersRegistry().forEach((event, handlers) -> {
+            if (!handlers.isEmpty()) {
+                eventTypes.add(event);
+            }
+        });
+
+        return eventTypes;
+    }
+
+    /**
+     * Method used to retrieve the handlers registered for each event type, without the handlers of their supertypes.
+     *
+     * @return unmodifiable map of handlers by event type, in registration order
+     */
+    public Map<Class<? extends Event>, List<Handler<?>>> getRegisteredHandlers() {
+        return snapshot.handlersRegistry();
+    }
+
+    /**
+     * Method used to add a listener notified when a handler is registered or unregistered, and when an event type gains
+     * its first handler or loses its last one.
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(EventRegistryListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Method used to retrieve the condition index of all handlers related to an event type.
+     * <p>
+     * The index is resolved once per event type and resolved again after any registration change.
+     *
+     * @param event Event related class
+     * @return condition index of the handlers related to event type
+     * @see #getHandlers(Class)
+     */
+    public ConditionIndex getConditionIndex(Class<? extends Event> event) {
+        return snapshot.resolvedHandlers().get(event);
     }
 
     /**
      * Method used to clear all event handler in the registry.
      * Essentially used for testing purposes.
+     * <p>
+     * Listeners are notified of every handler and event type unregistered, as by
+     * {@link #unregisterHandler(Class, String)}.
+     */
+    public synchronized void clear() {
+        var current = snapshot;
+        for (EventRegistryListener listener : listeners) {
+            current.handlersRegistry().forEach((event, handlers) -> {
+                if (handlers.isEmpty()) {
+                    return;
+                }
+                handlers.forEach(handler -> listener.onHandlerUnregistered(event, handler));
+                listener.onEventTypeUnregistered(event);
+            });
+        }
+
+        snapshot = Snapshot.of(Map.of(), Map.of(), conditionExpressionCache);
+        conditionExpressionCache.clear();
+    }
+
+    /**
+     * Method used to retrieve the cache of parsed handler conditions.
+     *
+     * @return the condition expression cache filled at registration
      */
-    public void clear() {
-        handlersRegistry.clear();
+    public ConditionExpressionCache getConditionExpressionCache() {
+        return conditionExpressionCache;
     }
 
+    /**
+     * Method used to retrieve a handler by its name
+     *
+     * @param handlerName Name of the handler
+     * @param <E>         Event related class type
+     * @return the handler registered with this name, empty if not found
+     */
     @SuppressWarnings("unchecked")
     public <E extends Event> Optional<Handler<E>> getByHandlerName(String handlerName) {
-        return handlersRegistry.values()
-                .stream()
-                .flatMap(List::stream)
-                .filter(handler -> handler.name().equals(handlerName))
-                .map(handler -> (Handler<E>) handler)
-                .findFirst();
+        return Optional.ofNullable((Handler<E>) snapshot.handlersByName().get(handlerName));
     }
 
     @EventListener(ApplicationStartedEvent.class)
@@ -162,9 +401,68 @@ public class EventRegistryConfig {
 
         log.debug("Registry config registered event");
 
-        handlersRegistry.forEach((key, value) -> {
+        snapshot.handlersRegistry().forEach((key, value) -> {
             log.debug("Event \"{}\"", key.getSimpleName());
             value.forEach(handler -> log.debug("- Handler '{}'", handler.name()));
         });
     }
+
+    private void evictUnusedCondition(String condition, Map<String, Handler<?>> handlersByName) {
+        if (hasLength(condition)
+            && handlersByName.values().stream().noneMatch(handler -> condition.equals(handler.condition()))) {
+            conditionExpressionCache.evict(condition);
+        }
+    }
+
+    /**
+     * @param attribute Name of the {@link SubscribeEvent} attribute
+     * @param <T>       Attribute type
+     * @return the default value of the attribute, used by the handlers registered manually
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T defaultValue(String attribute) {
+        try {
+            return (T) SubscribeEvent.class.getMethod(attribute).getDefaultValue();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Immutable state of the registry, replaced as a whole on every registration change.
+     * <p>
+     * Condition indexes are resolved lazily per event type from this state only.
+     */
+    private record Snapshot(Map<Class<? extends Event>, List<Handler<?>>> handlersRegistry,
+                            Map<String, Handler<?>> handlersByName,
+                            ClassValue<ConditionIndex> resolvedHandlers) {
+
+        static Snapshot of(Map<Class<? extends Event>, List<Handler<?>>> handlersRegistry,
+                           Map<String, Handler<?>> handlersByName,
+                           ConditionExpressionCache conditionExpressionCache) {
+            var registry = Collections.unmodifiableMap(handlersRegistry);
+
+            return new Snapshot(registry, Collections.unmodifiableMap(handlersByName), new ClassValue<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected ConditionIndex computeValue(Class<?> type) {
+                    var event = (Class<? extends Event>) type;
+                    return ConditionIndex.of(event, resolveHandlers(registry, event), conditionExpressionCache);
+                }
+            });
+        }
+
+        private static List<Handler<?>> resolveHandlers(Map<Class<? extends Event>, List<Handler<?>>> handlersRegistry,
+                                                        Class<? extends Event> event) {
+            List<Handler<?>> handlers = new ArrayList<>(handlersRegistry.getOrDefault(event, List.of()));
+
+            handlersRegistry.forEach((type, typeHandlers) -> {
+                if (!type.equals(event) && type.isAssignableFrom(event)) {
+                    handlers.addAll(typeHandlers);
+                }
+            });
+
+            return handlers;
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package fr.fezlight.eventsystem.config;
+
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+
+/**
+ * Listener of the event types and handlers registered in the {@link EventRegistryConfig}.
+ * <p>
+ * Listeners are called by the writer changing the registry. A registration is visible to readers before its listeners
+ * are called, so that messages consumed from a queue bound by a listener find their handler. An unregistration is
+ * visible to readers after its listeners are called, so that queues are no longer consumed once handlers are gone. An
+ * exception thrown by a listener cancels the change.
+ *
+ * @author FezLight
+ * @see EventRegistryConfig#addListener(EventRegistryListener)
+ */
+public interface EventRegistryListener {
+
+    /**
+     * Method called when the first handler of an event type is registered.
+     *
+     * @param event Event related class
+     */
+    void onEventTypeRegistered(Class<? extends Event> event);
+
+    /**
+     * Method called when the last handler of an event type is unregistered.
+     *
+     * @param event Event related class
+     */
+    default void onEventTypeUnregistered(Class<? extends Event> event) {
+    }
+
+    /**
+     * Method called when a handler is registered, after {@link #onEventTypeRegistered(Class)} if it is the first
+     * handler of its event type.
+     *
+     * @param event   Event related class
+     * @param handler Registered handler
+     */
+    default void onHandlerRegistered(Class<? extends Event> event, Handler<?> handler) {
+    }
+
+    /**
+     * Method called when a handler is unregistered, before {@link #onEventTypeUnregistered(Class)} if it was the last
+     * handler of its event type.
+     *
+     * @param event   Event related class
+     * @param handler Unregistered handler
+     */
+    default void onHandlerUnregistered(Class<? extends Event> event, Handler<?> handler) {
+    }
+}
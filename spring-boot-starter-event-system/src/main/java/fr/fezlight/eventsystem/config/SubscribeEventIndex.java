@@ -0,0 +1,131 @@
+package fr.fezlight.eventsystem.config;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of the methods annotated with {@link SubscribeEvent}, generated at build time by the
+ * <b>spring-boot-starter-event-system-processor</b> annotation processor.
+ * <p>
+ * All {@value #INDEX_LOCATION} files found on the classpath are merged. Each line describes a method with the
+ * following format : <b>{class binary name}#{method name}({parameter binary names})</b>.
+ * <p>
+ * An index only covers the classes of the module (directory or jar) containing it, the beans of modules built without
+ * the processor are still scanned.
+ *
+ * @author FezLight
+ */
+public class SubscribeEventIndex {
+    public static final String INDEX_LOCATION = "META-INF/event-system.handlers";
+
+    private final List<Entry> entries;
+    private final Set<String> roots;
+
+    private SubscribeEventIndex(List<Entry> entries, Set<String> roots) {
+        this.entries = List.copyOf(entries);
+        this.roots = Set.copyOf(roots);
+    }
+
+    /**
+     * Method used to load the index from the classpath.
+     *
+     * @param classLoader Class loader used to find index files
+     * @return the merged index, empty if no index file is present
+     * @throws IllegalStateException if an index file cannot be read or contains an invalid line
+     */
+    public static Optional<SubscribeEventIndex> load(ClassLoader classLoader) {
+        List<URL> resources;
+        try {
+            resources = Collections.list(classLoader.getResources(INDEX_LOCATION));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load " + INDEX_LOCATION, e);
+        }
+
+        if (resources.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        Set<String> roots = new HashSet<>();
+        for (URL resource : resources) {
+            var location = resource.toString();
+            roots.add(location.substring(0, location.length() - INDEX_LOCATION.length()));
+            try (var reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        entries.add(Entry.parse(line.strip(), resource));
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read " + resource, e);
+            }
+        }
+
+        return Optional.of(new SubscribeEventIndex(entries, roots));
+    }
+
+    /**
+     * Method used to retrieve all indexed methods.
+     *
+     * @return list of indexed methods, in index order
+     */
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Method used to know if the handlers of a class are listed in the index, because its module contains an index.
+     *
+     * @param type        Class of a bean
+     * @param classLoader Class loader used to load the index
+     * @return true if the class comes from a module containing an index, false if its methods must be scanned
+     */
+    public boolean covers(Class<?> type, ClassLoader classLoader) {
+        var classFile = classLoader.getResource(ClassUtils.convertClassNameToResourcePath(type.getName()) + ".class");
+        if (classFile == null) {
+            return false;
+        }
+
+        var location = classFile.toString();
+        return roots.stream().anyMatch(location::startsWith);
+    }
+
+    /**
+     * Method annotated with {@link SubscribeEvent} listed in the index.
+     *
+     * @param className      Binary name of the class declaring the method
+     * @param methodName     Name of the method
+     * @param parameterTypes Binary names of the method parameter types
+     */
+    public record Entry(String className, String methodName, List<String> parameterTypes) {
+
+        static Entry parse(String line, URL resource) {
+            int methodStart = line.indexOf('#');
+            int parametersStart = line.indexOf('(', methodStart);
+            if (methodStart <= 0 || parametersStart <= methodStart + 1 || !line.endsWith(")")) {
+                throw new IllegalStateException("Invalid line '" + line + "' in " + resource);
+            }
+
+            var parameters = line.substring(parametersStart + 1, line.length() - 1);
+
+            return new Entry(
+                    line.substring(0, methodStart),
+                    line.substring(methodStart + 1, parametersStart),
+                    parameters.isEmpty() ? List.of() : List.of(parameters.split(","))
+            );
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package fr.fezlight.eventsystem.config.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
@@ -11,6 +12,9 @@ public class EventProperties {
     private boolean enabled = true;
     private Rabbit rabbit = new Rabbit();
     private ScheduledTask scheduledTask = new ScheduledTask();
+    private Condition condition = new Condition();
+    private HandlerIndex handlerIndex = new HandlerIndex();
+    private Execution execution = new Execution();
 
     public boolean isEnabled() {
         return this.enabled;
@@ -24,6 +28,18 @@ public class EventProperties {
         return this.scheduledTask;
     }
 
+    public Condition getCondition() {
+        return this.condition;
+    }
+
+    public HandlerIndex getHandlerIndex() {
+        return this.handlerIndex;
+    }
+
+    public Execution getExecution() {
+        return this.execution;
+    }
+
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
@@ -36,17 +52,349 @@ public class EventProperties {
         this.scheduledTask = scheduledTask;
     }
 
+    public void setCondition(Condition condition) {
+        this.condition = condition;
+    }
+
+    public void setHandlerIndex(HandlerIndex handlerIndex) {
+        this.handlerIndex = handlerIndex;
+    }
+
+    public void setExecution(Execution execution) {
+        this.execution = execution;
+    }
+
     public static class Rabbit {
         private Queue queue = new Queue();
+        private Routing routing = new Routing();
+        private HandlerQueues handlerQueues = new HandlerQueues();
+        private FanOut fanOut = new FanOut();
+        private Partitions partitions = new Partitions();
+        private Ordering ordering = new Ordering();
+        private Listener listener = new Listener();
 
         public Queue getQueue() {
             return this.queue;
         }
 
+        public Routing getRouting() {
+            return this.routing;
+        }
+
+        public HandlerQueues getHandlerQueues() {
+            return this.handlerQueues;
+        }
+
+        public FanOut getFanOut() {
+            return this.fanOut;
+        }
+
+        public Partitions getPartitions() {
+            return this.partitions;
+        }
+
+        public Ordering getOrdering() {
+            return this.ordering;
+        }
+
+        public Listener getListener() {
+            return this.listener;
+        }
+
         public void setQueue(Queue queue) {
             this.queue = queue;
         }
 
+        public void setRouting(Routing routing) {
+            this.routing = routing;
+        }
+
+        public void setHandlerQueues(HandlerQueues handlerQueues) {
+            this.handlerQueues = handlerQueues;
+        }
+
+        public void setFanOut(FanOut fanOut) {
+            this.fanOut = fanOut;
+        }
+
+        public void setPartitions(Partitions partitions) {
+            this.partitions = partitions;
+        }
+
+        public void setOrdering(Ordering ordering) {
+            this.ordering = ordering;
+        }
+
+        public void setListener(Listener listener) {
+            this.listener = listener;
+        }
+
+        public static class Routing {
+            private Mode mode = Mode.FANOUT;
+            private String exchange = "";
+
+            public Mode getMode() {
+                return this.mode;
+            }
+
+            public String getExchange() {
+                return this.exchange;
+            }
+
+            public void setMode(Mode mode) {
+                this.mode = mode;
+            }
+
+            public void setExchange(String exchange) {
+                this.exchange = exchange;
+            }
+
+            public enum Mode {
+                FANOUT, TOPIC, HEADERS
+            }
+        }
+
+        public static class HandlerQueues {
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return this.enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        public static class Partitions {
+            private int count = 1;
+
+            public int getCount() {
+                return this.count;
+            }
+
+            public void setCount(int count) {
+                this.count = count;
+            }
+        }
+
+        public static class Listener {
+            private Container main = new Container();
+            private Worker worker = new Worker();
+            private Container async = new Container();
+
+            public Container getMain() {
+                return this.main;
+            }
+
+            public Worker getWorker() {
+                return this.worker;
+            }
+
+            public Container getAsync() {
+                return this.async;
+            }
+
+            public void setMain(Container main) {
+                this.main = main;
+            }
+
+            public void setWorker(Worker worker) {
+                this.worker = worker;
+            }
+
+            public void setAsync(Container async) {
+                this.async = async;
+            }
+
+            public static class Container {
+                private Integer concurrency;
+                private Integer maxConcurrency;
+                private Integer prefetch;
+
+                public Integer getConcurrency() {
+                    return this.concurrency;
+                }
+
+                public Integer getMaxConcurrency() {
+                    return this.maxConcurrency;
+                }
+
+                public Integer getPrefetch() {
+                    return this.prefetch;
+                }
+
+                public void setConcurrency(Integer concurrency) {
+                    this.concurrency = concurrency;
+                }
+
+                public void setMaxConcurrency(Integer maxConcurrency) {
+                    this.maxConcurrency = maxConcurrency;
+                }
+
+                public void setPrefetch(Integer prefetch) {
+                    this.prefetch = prefetch;
+                }
+            }
+
+            public static class Worker extends Container {
+                private Adaptive adaptive = new Adaptive();
+
+                public Adaptive getAdaptive() {
+                    return this.adaptive;
+                }
+
+                public void setAdaptive(Adaptive adaptive) {
+                    this.adaptive = adaptive;
+                }
+            }
+
+            public static class Adaptive {
+                private boolean enabled = false;
+                private Duration interval = Duration.ofSeconds(10);
+                private Duration targetDrainTime = Duration.ofSeconds(30);
+
+                public boolean isEnabled() {
+                    return this.enabled;
+                }
+
+                public Duration getInterval() {
+                    return this.interval;
+                }
+
+                public Duration getTargetDrainTime() {
+                    return this.targetDrainTime;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public void setInterval(Duration interval) {
+                    this.interval = interval;
+                }
+
+                public void setTargetDrainTime(Duration targetDrainTime) {
+                    this.targetDrainTime = targetDrainTime;
+                }
+            }
+        }
+
+        public static class Ordering {
+            private boolean enabled = false;
+            private int parallelism = Runtime.getRuntime().availableProcessors();
+            private int keyQueueCapacity = 100;
+
+            public boolean isEnabled() {
+                return this.enabled;
+            }
+
+            public int getParallelism() {
+                return this.parallelism;
+            }
+
+            public int getKeyQueueCapacity() {
+                return this.keyQueueCapacity;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public void setKeyQueueCapacity(int keyQueueCapacity) {
+                this.keyQueueCapacity = keyQueueCapacity;
+            }
+        }
+
+        public static class FanOut {
+            private Mode mode = Mode.OUTBOX;
+            private Duration confirmTimeout = Duration.ofSeconds(10);
+            private Grouped grouped = new Grouped();
+            private Local local = new Local();
+
+            public Mode getMode() {
+                return this.mode;
+            }
+
+            public Duration getConfirmTimeout() {
+                return this.confirmTimeout;
+            }
+
+            public Grouped getGrouped() {
+                return this.grouped;
+            }
+
+            public Local getLocal() {
+                return this.local;
+            }
+
+            public void setMode(Mode mode) {
+                this.mode = mode;
+            }
+
+            public void setConfirmTimeout(Duration confirmTimeout) {
+                this.confirmTimeout = confirmTimeout;
+            }
+
+            public void setGrouped(Grouped grouped) {
+                this.grouped = grouped;
+            }
+
+            public void setLocal(Local local) {
+                this.local = local;
+            }
+
+            public enum Mode {
+                OUTBOX, CONFIRMED, LOCAL
+            }
+
+            public static class Grouped {
+                private boolean enabled = false;
+                private int parallelism = Runtime.getRuntime().availableProcessors();
+
+                public boolean isEnabled() {
+                    return this.enabled;
+                }
+
+                public int getParallelism() {
+                    return this.parallelism;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public void setParallelism(int parallelism) {
+                    this.parallelism = parallelism;
+                }
+            }
+
+            public static class Local {
+                private int parallelism = Runtime.getRuntime().availableProcessors();
+                private int queueCapacity = 1000;
+
+                public int getParallelism() {
+                    return this.parallelism;
+                }
+
+                public int getQueueCapacity() {
+                    return this.queueCapacity;
+                }
+
+                public void setParallelism(int parallelism) {
+                    this.parallelism = parallelism;
+                }
+
+                public void setQueueCapacity(int queueCapacity) {
+                    this.queueCapacity = queueCapacity;
+                }
+            }
+        }
+
         public static class Queue {
             private ExtendedQueueConfig main = new ExtendedQueueConfig("", "events", "events.direct");
             private ExtendedQueueConfig worker = new ExtendedQueueConfig("", "events.retry", "events.direct");
@@ -139,6 +487,9 @@ public class EventProperties {
 
             public static class RetryQueueConfig extends QueueConfig {
                 private Duration timeBetweenRetries;
+                private boolean targeted = false;
+                private String targetedName = "events.retry.targeted";
+                private int maxDeferrals = 60;
 
                 public RetryQueueConfig(String name, String exchange, Duration timeBetweenRetries) {
                     super(name, exchange);
@@ -152,6 +503,30 @@ public class EventProperties {
                 public void setTimeBetweenRetries(Duration timeBetweenRetries) {
                     this.timeBetweenRetries = timeBetweenRetries;
                 }
+
+                public boolean isTargeted() {
+                    return this.targeted;
+                }
+
+                public void setTargeted(boolean targeted) {
+                    this.targeted = targeted;
+                }
+
+                public String getTargetedName() {
+                    return this.targetedName;
+                }
+
+                public void setTargetedName(String targetedName) {
+                    this.targetedName = targetedName;
+                }
+
+                public int getMaxDeferrals() {
+                    return this.maxDeferrals;
+                }
+
+                public void setMaxDeferrals(int maxDeferrals) {
+                    this.maxDeferrals = maxDeferrals;
+                }
             }
         }
     }
@@ -224,4 +599,74 @@ public class EventProperties {
             }
         }
     }
+
+    public static class Condition {
+        private SpelCompilerMode compilerMode = SpelCompilerMode.MIXED;
+
+        public SpelCompilerMode getCompilerMode() {
+            return this.compilerMode;
+        }
+
+        public void setCompilerMode(SpelCompilerMode compilerMode) {
+            this.compilerMode = compilerMode;
+        }
+    }
+
+    public static class HandlerIndex {
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Execution {
+        private Mode mode = Mode.PLATFORM;
+        private PinningDiagnostics pinningDiagnostics = new PinningDiagnostics();
+
+        public Mode getMode() {
+            return this.mode;
+        }
+
+        public PinningDiagnostics getPinningDiagnostics() {
+            return this.pinningDiagnostics;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public void setPinningDiagnostics(PinningDiagnostics pinningDiagnostics) {
+            this.pinningDiagnostics = pinningDiagnostics;
+        }
+
+        public enum Mode {
+            PLATFORM, VIRTUAL_THREADS
+        }
+
+        public static class PinningDiagnostics {
+            private boolean enabled = false;
+            private Duration threshold = Duration.ofMillis(20);
+
+            public boolean isEnabled() {
+                return this.enabled;
+            }
+
+            public Duration getThreshold() {
+                return this.threshold;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public void setThreshold(Duration threshold) {
+                this.threshold = threshold;
+            }
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.EventThreads;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scaler adjusting the number of consumers of the worker queue to its load, enabled by
+ * <b>events.rabbit.listener.worker.adaptive.enabled</b>.
+ * <p>
+ * At each interval, the consumers needed to drain the messages ready in the worker queue within the target drain time
+ * are computed from the mean handler latency observed during the interval. The worker container is scaled up to this
+ * number at once, and scaled down by one consumer per interval, within <b>concurrency</b> and <b>max-concurrency</b>.
+ *
+ * @author FezLight
+ */
+public class AdaptiveConcurrencyScaler implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyScaler.class);
+
+    private final ObjectProvider<RabbitListenerEndpointRegistry> registry;
+    private final ObjectProvider<AmqpAdmin> amqpAdmin;
+    private final QueueNameResolver queueNameResolver;
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final Duration targetDrainTime;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder invocationNanos = new LongAdder();
+    private volatile long latencyNanos;
+
+    public AdaptiveConcurrencyScaler(ObjectProvider<RabbitListenerEndpointRegistry> registry,
+                                     ObjectProvider<AmqpAdmin> amqpAdmin,
+                                     QueueNameResolver queueNameResolver,
+                                     EventProperties eventProperties) {
+        var worker = eventProperties.getRabbit().getListener().getWorker();
+        this.minConsumers = worker.getConcurrency() != null ? worker.getConcurrency() : 1;
+        this.maxConsumers = worker.getMaxConcurrency() != null
+                ? worker.getMaxConcurrency()
+                : Math.max(minConsumers, Runtime.getRuntime().availableProcessors());
+        if (minConsumers < 1 || maxConsumers < minConsumers) {
+            throw new IllegalArgumentException("events.rabbit.listener.worker.concurrency must be greater than 0 and lower than max-concurrency");
+        }
+
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.queueNameResolver = queueNameResolver;
+        this.targetDrainTime = worker.getAdaptive().getTargetDrainTime();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                EventThreads.factory(Mode.PLATFORM, "event-worker-scaler-")
+        );
+
+        long interval = worker.getAdaptive().getInterval().toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::scale, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return advice of the worker container recording the latency of each listener call
+     */
+    public MethodInterceptor latencyRecorder() {
+        return invocation -> {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                invocationNanos.add(System.nanoTime() - start);
+                invocations.increment();
+            }
+        };
+    }
+
+    /**
+     * Method used to compute the number of consumers of the worker queue for the next interval.
+     *
+     * @param current         Current number of consumers
+     * @param readyMessages   Messages ready in the worker queue
+     * @param latencyNanos    Mean handler latency, 0 if unknown
+     * @param targetDrainTime Time in which the ready messages should be consumed
+     * @param min             Minimum number of consumers
+     * @param max             Maximum number of consumers
+     * @return the number of consumers, within min and max
+     */
+    static int desiredConsumers(int current, long readyMessages, long latencyNanos, Duration targetDrainTime,
+                                int min, int max) {
+        long needed = latencyNanos == 0
+                ? (readyMessages > 0 ? current + 1 : min)
+                : (long) Math.ceil((double) readyMessages * latencyNanos / targetDrainTime.toNanos());
+
+        long desired = needed >= current ? needed : current - 1;
+        return (int) Math.max(min, Math.min(max, desired));
+    }
+
+    void scale() {
+        try {
+            MessageListenerContainer container = registry.getObject().getListenerContainer(ListenerConfig.WORKER_LISTENER_ID);
+            if (!(container instanceof SimpleMessageListenerContainer simpleContainer) || !container.isRunning()) {
+                return;
+            }
+
+            var queueInfo = amqpAdmin.getObject().getQueueInfo(queueNameResolver.getWorkerQueueName());
+            if (queueInfo == null) {
+                return;
+            }
+
+            long count = invocations.sumThenReset();
+            long nanos = invocationNanos.sumThenReset();
+            if (count > 0) {
+                latencyNanos = nanos / count;
+            }
+
+            int current = simpleContainer.getActiveConsumerCount();
+            int desired = desiredConsumers(
+                    current, queueInfo.getMessageCount(), latencyNanos, targetDrainTime, minConsumers, maxConsumers
+            );
+            if (desired != current) {
+                log.debug("Scaling worker consumers from {} to {} ({} messages ready, {} ms mean latency)",
+                        current, desired, queueInfo.getMessageCount(), TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+                simpleContainer.setConcurrentConsumers(desired);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to scale worker consumers", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,84 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.AsyncWorkerListener;
+import fr.fezlight.eventsystem.EventListeners;
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+/**
+ * Configuration of the async worker queue, consumed when async handlers are registered.
+ * <p>
+ * Its listener container is configured by <b>spring.rabbitmq.listener.simple.*</b>, then by
+ * <b>events.rabbit.listener.async.*</b> when set. Its prefetch bounds the number of async handler calls in progress
+ * for each consumer.
+ *
+ * @author FezLight
+ * @see AsyncHandlerTopology
+ */
+public class AsyncHandlerConfig {
+
+    @Bean
+    AsyncHandlerTopology asyncHandlerTopology(EventRegistryConfig eventRegistryConfig, EventProperties eventProperties,
+                                              QueueNameResolver queueNameResolver) {
+        return new AsyncHandlerTopology(eventRegistryConfig, eventProperties, queueNameResolver);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "eventsAsyncHandlers")
+    Declarables eventsAsyncHandlers(EventProperties eventProperties, AsyncHandlerTopology asyncHandlerTopology) {
+        if (!eventProperties.getRabbit().getQueue().isAutoconfigure()) {
+            return new Declarables(List.of());
+        }
+
+        return new Declarables(asyncHandlerTopology.createDeclarables());
+    }
+
+    @Bean
+    RabbitListenerConfigurer eventsAsyncListenerConfigurer(AsyncHandlerTopology asyncHandlerTopology,
+                                                           EventListeners eventListeners,
+                                                           SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                           ConnectionFactory connectionFactory,
+                                                           RabbitTemplate rabbitTemplate,
+                                                           EventProperties eventProperties,
+                                                           QueueNameResolver queueNameResolver) {
+        return registrar -> {
+            if (!asyncHandlerTopology.isEnabled()) {
+                return;
+            }
+
+            var endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(asyncHandlerTopology.getQueueName());
+            endpoint.setQueueNames(asyncHandlerTopology.getQueueName());
+            endpoint.setAckMode(AcknowledgeMode.MANUAL);
+            endpoint.setMessageListener(new AsyncWorkerListener(
+                    eventListeners,
+                    new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver),
+                    rabbitTemplate
+            ));
+            registrar.registerEndpoint(endpoint, containerFactory(configurer, connectionFactory, eventProperties));
+        };
+    }
+
+    static SimpleRabbitListenerContainerFactory containerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                 ConnectionFactory connectionFactory,
+                                                                 EventProperties eventProperties) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        ListenerConfig.configure(factory, eventProperties.getRabbit().getListener().getAsync());
+        ListenerConfig.configure(factory, eventProperties.getExecution().getMode(), "event-async-");
+
+        return factory;
+    }
+}
@@ -0,0 +1,96 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Topology in which the async handlers (see {@link fr.fezlight.eventsystem.models.AsyncEventHandler}) share an async
+ * worker queue, whose messages are acknowledged once their handler completes.
+ * <p>
+ * The {@link EventWrapper} of an async handler is sent to this queue instead of the worker queue. It is named
+ * <b>{worker queue name}.async</b> and bound to the direct exchange of the main queue. It is created if async handlers
+ * are registered at startup, async handlers registered later are called through the worker queue.
+ *
+ * @author FezLight
+ */
+public class AsyncHandlerTopology {
+    private final EventProperties eventProperties;
+    private final QueueNameResolver queueNameResolver;
+    private final Set<String> handlerNames;
+
+    public AsyncHandlerTopology(EventRegistryConfig eventRegistryConfig, EventProperties eventProperties,
+                                QueueNameResolver queueNameResolver) {
+        this.eventProperties = eventProperties;
+        this.queueNameResolver = queueNameResolver;
+
+        Set<String> asyncHandlerNames = new LinkedHashSet<>();
+        eventRegistryConfig.getRegisteredHandlers().forEach((event, eventHandlers) -> eventHandlers.stream()
+                .filter(Handler::isAsync)
+                .map(Handler::name)
+                .forEach(asyncHandlerNames::add));
+        this.handlerNames = Set.copyOf(asyncHandlerNames);
+    }
+
+    /**
+     * @return true if async handlers are registered at startup, so the async worker queue is used
+     */
+    public boolean isEnabled() {
+        return !handlerNames.isEmpty();
+    }
+
+    /**
+     * @return the async worker queue name
+     */
+    public String getQueueName() {
+        return queueNameResolver.getWorkerQueueName() + ".async";
+    }
+
+    /**
+     * Method used to get the routing key of a wrapper sent by the fan-out.
+     *
+     * @param eventWrapper      Wrapper about to be sent
+     * @param defaultRoutingKey Routing key of the wrapper if its handler is not an async handler
+     * @return the async worker queue name if the handler of the wrapper is an async handler, the default routing key
+     * otherwise
+     */
+    public String getRoutingKey(EventWrapper<?> eventWrapper, String defaultRoutingKey) {
+        if (eventWrapper.isGrouped() || eventWrapper.getHandlerName() == null
+            || !handlerNames.contains(eventWrapper.getHandlerName())) {
+            return defaultRoutingKey;
+        }
+
+        return getQueueName();
+    }
+
+    /**
+     * Method used to create the async worker queue and its binding.
+     *
+     * @return queue and binding, empty if there is no async handler
+     */
+    public List<Declarable> createDeclarables() {
+        if (!isEnabled()) {
+            return List.of();
+        }
+
+        DirectExchange directExchange = ExchangeBuilder.directExchange(eventProperties.getRabbit().getQueue().getMain().getDirectExchange())
+                .build();
+        Queue queue = QueueBuilder.durable(getQueueName())
+                .deadLetterExchange(eventProperties.getRabbit().getQueue().getError().getExchange())
+                .deadLetterRoutingKey(eventProperties.getRabbit().getQueue().getError().getName())
+                .build();
+
+        return List.of(directExchange, queue, BindingBuilder.bind(queue).to(directExchange).withQueueName());
+    }
+}
@@ -0,0 +1,98 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.BatchHandlerListener;
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.Handler;
+import fr.fezlight.eventsystem.models.MethodBatchEventHandler;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+/**
+ * Configuration of the batch handler queues, one per handler taking a {@link java.util.List} of events.
+ * <p>
+ * Each queue is consumed by its own listener container, configured by <b>spring.rabbitmq.listener.simple.*</b>, with
+ * consumer batching set from {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#batchSize()} and
+ * {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#batchTimeout()}. Nothing is created without batch handlers.
+ *
+ * @author FezLight
+ * @see BatchHandlerTopology
+ */
+public class BatchHandlerConfig {
+
+    @Bean
+    BatchHandlerTopology batchHandlerTopology(EventRegistryConfig eventRegistryConfig, EventProperties eventProperties,
+                                              QueueNameResolver queueNameResolver) {
+        return new BatchHandlerTopology(eventRegistryConfig, eventProperties, queueNameResolver);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "eventsBatchHandlers")
+    Declarables eventsBatchHandlers(EventProperties eventProperties, BatchHandlerTopology batchHandlerTopology) {
+        if (!eventProperties.getRabbit().getQueue().isAutoconfigure()) {
+            return new Declarables(List.of());
+        }
+
+        return new Declarables(batchHandlerTopology.createDeclarables());
+    }
+
+    @Bean
+    RabbitListenerConfigurer eventsBatchListenerConfigurer(BatchHandlerTopology batchHandlerTopology,
+                                                           EventRegistryConfig eventRegistryConfig,
+                                                           SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                           ConnectionFactory connectionFactory,
+                                                           RabbitTemplate rabbitTemplate,
+                                                           EventProperties eventProperties,
+                                                           QueueNameResolver queueNameResolver) {
+        return registrar -> batchHandlerTopology.getHandlers().forEach(handler -> {
+            var queueName = batchHandlerTopology.getQueueName(handler.name());
+            var endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(queueName);
+            endpoint.setQueueNames(queueName);
+            endpoint.setBatchListener(true);
+            endpoint.setMessageListener(new BatchHandlerListener(
+                    handler.name(),
+                    eventRegistryConfig,
+                    new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver),
+                    rabbitTemplate,
+                    eventProperties
+            ));
+            registrar.registerEndpoint(endpoint, containerFactory(configurer, connectionFactory, eventProperties, handler));
+        });
+    }
+
+    /**
+     * Method used to create the container factory of a batch handler.
+     * <p>
+     * A batch is delivered once {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#batchSize()} messages are
+     * received or {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#batchTimeout()} is elapsed, and acknowledged
+     * at once.
+     */
+    static SimpleRabbitListenerContainerFactory containerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                 ConnectionFactory connectionFactory,
+                                                                 EventProperties eventProperties,
+                                                                 Handler<?> handler) {
+        var subscribeEvent = handler.eventHandler().getSubscribeEvent();
+        long batchTimeout = MethodBatchEventHandler.getBatchTimeout(subscribeEvent).toMillis();
+
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(subscribeEvent.batchSize());
+        factory.setDefaultRequeueRejected(false);
+        factory.setContainerCustomizer(container -> container.setBatchReceiveTimeout(batchTimeout));
+        ListenerConfig.configure(factory, eventProperties.getExecution().getMode(), "event-batch-");
+
+        return factory;
+    }
+}
@@ -0,0 +1,108 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Topology in which each batch handler (see {@link fr.fezlight.eventsystem.models.BatchEventHandler}) has its own
+ * queue, consumed by batch.
+ * <p>
+ * The {@link EventWrapper} of a batch handler is sent to its queue instead of the worker queue. Batch queues are named
+ * <b>{worker queue name}.batch.{handler name}</b> and bound to the direct exchange of the main queue. They are created
+ * for the batch handlers registered at startup, batch handlers registered later are called through the worker queue
+ * with one event at a time.
+ *
+ * @author FezLight
+ */
+public class BatchHandlerTopology {
+    private final EventProperties eventProperties;
+    private final QueueNameResolver queueNameResolver;
+    private final List<Handler<?>> handlers;
+
+    public BatchHandlerTopology(EventRegistryConfig eventRegistryConfig, EventProperties eventProperties,
+                                QueueNameResolver queueNameResolver) {
+        this.eventProperties = eventProperties;
+        this.queueNameResolver = queueNameResolver;
+
+        List<Handler<?>> batchHandlers = new ArrayList<>();
+        eventRegistryConfig.getRegisteredHandlers().forEach((event, eventHandlers) -> eventHandlers.stream()
+                .filter(Handler::isBatch)
+                .forEach(batchHandlers::add));
+        this.handlers = List.copyOf(batchHandlers);
+    }
+
+    /**
+     * @return batch handlers having a batch queue, in registration order
+     */
+    public List<Handler<?>> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Method used to retrieve the queue name of a batch handler.
+     *
+     * @param handlerName Name of the batch handler
+     * @return the queue name of the handler
+     */
+    public String getQueueName(String handlerName) {
+        return queueNameResolver.getWorkerQueueName() + ".batch." + handlerName;
+    }
+
+    /**
+     * Method used to get the routing key of a wrapper sent by the fan-out.
+     *
+     * @param eventWrapper      Wrapper about to be sent
+     * @param defaultRoutingKey Routing key of the wrapper if its handler has no batch queue
+     * @return the batch queue name of the handler of the wrapper, or the default routing key
+     */
+    public String getRoutingKey(EventWrapper<?> eventWrapper, String defaultRoutingKey) {
+        if (eventWrapper.isGrouped() || eventWrapper.getHandlerName() == null) {
+            return defaultRoutingKey;
+        }
+
+        for (Handler<?> handler : handlers) {
+            if (handler.name().equals(eventWrapper.getHandlerName())) {
+                return getQueueName(handler.name());
+            }
+        }
+
+        return defaultRoutingKey;
+    }
+
+    /**
+     * Method used to create the queue and the binding of all batch handlers.
+     *
+     * @return queues and bindings, empty if there is no batch handler
+     */
+    public List<Declarable> createDeclarables() {
+        if (handlers.isEmpty()) {
+            return List.of();
+        }
+
+        DirectExchange directExchange = ExchangeBuilder.directExchange(eventProperties.getRabbit().getQueue().getMain().getDirectExchange())
+                .build();
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(directExchange);
+        for (Handler<?> handler : handlers) {
+            Queue queue = QueueBuilder.durable(getQueueName(handler.name()))
+                    .deadLetterExchange(eventProperties.getRabbit().getQueue().getError().getExchange())
+                    .deadLetterRoutingKey(eventProperties.getRabbit().getQueue().getError().getName())
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(directExchange).withQueueName());
+        }
+
+        return declarables;
+    }
+}
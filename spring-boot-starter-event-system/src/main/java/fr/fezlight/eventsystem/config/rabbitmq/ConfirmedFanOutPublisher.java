@@ -0,0 +1,131 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.EventFanOut;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_ORDERING_KEY_HEADER;
+
+/**
+ * Publisher sending the {@link EventWrapper} of an event directly to the worker queue, with publisher confirms,
+ * instead of going through the event publication registry.
+ * <p>
+ * The event consumed from the main queue is only acknowledged once every wrapper is confirmed by the broker, so it
+ * keeps the fan-out durable without writing each wrapper in the outbox. If a wrapper is not confirmed, the event is
+ * requeued and fanned out again, so handlers must tolerate duplicates.
+ * <p>
+ * When ordering is enabled, the wrappers with an ordering key are sent to the ordered worker queue instead (see
+ * {@link fr.fezlight.eventsystem.OrderedWorkerListener}). Otherwise, the wrappers of async handlers are sent to the async
+ * worker queue (see {@link AsyncHandlerTopology}). The wrappers of batch handlers are sent to their batch queue (see
+ * {@link BatchHandlerTopology}).
+ * <p>
+ * Wrappers are sent mandatory, so a wrapper routed to no queue is returned by the broker and fails the fan-out like a
+ * nack. Requires <b>spring.rabbitmq.publisher-confirm-type=correlated</b> and <b>spring.rabbitmq.publisher-returns=true</b>.
+ *
+ * @author FezLight
+ */
+public class ConfirmedFanOutPublisher implements EventFanOut {
+    private final RabbitTemplate rabbitTemplate;
+    private final QueueNameResolver queueNameResolver;
+    private final String exchange;
+    private final Duration confirmTimeout;
+    private final boolean ordering;
+    private final BatchHandlerTopology batchHandlerTopology;
+    private final AsyncHandlerTopology asyncHandlerTopology;
+
+    public ConfirmedFanOutPublisher(RabbitTemplate rabbitTemplate, QueueNameResolver queueNameResolver,
+                                    EventProperties eventProperties) {
+        this(rabbitTemplate, queueNameResolver, eventProperties, null, null);
+    }
+
+    /**
+     * @param rabbitTemplate       Template sending the wrappers, dedicated to the publisher as it is set mandatory
+     * @param batchHandlerTopology Topology of the batch handler queues, null to send no wrapper to a batch queue
+     * @param asyncHandlerTopology Topology of the async worker queue, null to send no wrapper to the async worker queue
+     */
+    public ConfirmedFanOutPublisher(RabbitTemplate rabbitTemplate, QueueNameResolver queueNameResolver,
+                                    EventProperties eventProperties, BatchHandlerTopology batchHandlerTopology,
+                                    AsyncHandlerTopology asyncHandlerTopology) {
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            throw new IllegalStateException("events.rabbit.fan-out.mode=confirmed requires spring.rabbitmq.publisher-confirm-type=correlated");
+        }
+        if (!rabbitTemplate.getConnectionFactory().isPublisherReturns()) {
+            throw new IllegalStateException("events.rabbit.fan-out.mode=confirmed requires spring.rabbitmq.publisher-returns=true");
+        }
+        rabbitTemplate.setMandatory(true);
+
+        this.rabbitTemplate = rabbitTemplate;
+        this.queueNameResolver = queueNameResolver;
+        this.exchange = eventProperties.getRabbit().getQueue().getMain().getDirectExchange();
+        this.confirmTimeout = eventProperties.getRabbit().getFanOut().getConfirmTimeout();
+        this.ordering = eventProperties.getRabbit().getOrdering().isEnabled();
+        this.batchHandlerTopology = batchHandlerTopology;
+        this.asyncHandlerTopology = asyncHandlerTopology;
+    }
+
+    /**
+     * Method used to publish the wrappers of an event and wait for their confirms.
+     *
+     * @param eventWrappers Wrappers to send to the worker queue
+     * @throws FanOutNotConfirmedException if a wrapper is nacked, returned or not confirmed in time
+     */
+    @Override
+    public void publish(List<? extends EventWrapper<?>> eventWrappers) {
+        List<CorrelationData> correlations = new ArrayList<>(eventWrappers.size());
+        for (EventWrapper<?> eventWrapper : eventWrappers) {
+            var correlationData = new CorrelationData();
+            if (eventWrapper.getOrderingKey() == null) {
+                rabbitTemplate.convertAndSend(exchange, routingKey(eventWrapper), eventWrapper, correlationData);
+            } else {
+                rabbitTemplate.convertAndSend(exchange, routingKey(eventWrapper), eventWrapper, m -> {
+                    m.getMessageProperties().setHeader(AMQP_ORDERING_KEY_HEADER, eventWrapper.getOrderingKey());
+                    return m;
+                }, correlationData);
+            }
+            correlations.add(correlationData);
+        }
+
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (CorrelationData correlationData : correlations) {
+            CorrelationData.Confirm confirm;
+            try {
+                confirm = correlationData.getFuture().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FanOutNotConfirmedException("Interrupted while waiting for fan-out confirms", e);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new FanOutNotConfirmedException("Fan-out not confirmed within " + confirmTimeout, e);
+            }
+
+            if (!confirm.isAck()) {
+                throw new FanOutNotConfirmedException("Fan-out nacked by the broker: " + confirm.getReason());
+            }
+
+            if (correlationData.getReturned() != null) {
+                throw new FanOutNotConfirmedException("Fan-out returned by the broker: " + correlationData.getReturned().getReplyText());
+            }
+        }
+    }
+
+    private String routingKey(EventWrapper<?> eventWrapper) {
+        String routingKey;
+        if (ordering && eventWrapper.getOrderingKey() != null) {
+            routingKey = queueNameResolver.getOrderedWorkerQueueName();
+        } else {
+            routingKey = asyncHandlerTopology == null
+                    ? queueNameResolver.getWorkerQueueName()
+                    : asyncHandlerTopology.getRoutingKey(eventWrapper, queueNameResolver.getWorkerQueueName());
+        }
+
+        return batchHandlerTopology == null ? routingKey : batchHandlerTopology.getRoutingKey(eventWrapper, routingKey);
+    }
+}
@@ -0,0 +1,192 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.annotation.PartitionKey;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.Event;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Partitioning of the main queue, to fan out events with several consumers while keeping the order of the events
+ * sharing a partition key (see {@link PartitionKey}).
+ * <p>
+ * With more than one partition, events are received by a consistent hash exchange of the application, hashing the
+ * {@value #AMQP_PARTITION_KEY_HEADER} header, and routed to one of the partition queues. Each partition queue has a
+ * single active consumer, so the partitions are spread over the instances of the application. Events without this
+ * header, published by an older version, are routed to the first partition.
+ * <p>
+ * Requires the <b>rabbitmq_consistent_hash_exchange</b> plugin.
+ *
+ * @author FezLight
+ */
+public class EventPartitioning {
+    public static final String AMQP_PARTITION_KEY_HEADER = "partition_key";
+    public static final String CONSISTENT_HASH_EXCHANGE_TYPE = "x-consistent-hash";
+
+    private static final Function<Object, Object> NO_KEY = event -> null;
+
+    private static final ClassValue<Function<Object, Object>> KEY_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+            return resolveKeyAccessor(type);
+        }
+    };
+
+    private final int count;
+    private final String mainQueueName;
+    private final EventProperties eventProperties;
+
+    public EventPartitioning(EventProperties eventProperties, QueueNameResolver queueNameResolver) {
+        this.count = eventProperties.getRabbit().getPartitions().getCount();
+        if (count < 1) {
+            throw new IllegalArgumentException("events.rabbit.partitions.count must be greater than 0");
+        }
+
+        this.mainQueueName = queueNameResolver.getMainQueueName();
+        this.eventProperties = eventProperties;
+    }
+
+    /**
+     * @return true if the main queue is split in more than one partition
+     */
+    public boolean isEnabled() {
+        return count > 1;
+    }
+
+    /**
+     * @return names of the partition queues, in partition order
+     */
+    public List<String> getQueueNames() {
+        return IntStream.range(0, count)
+                .mapToObj(partition -> mainQueueName + "." + partition)
+                .toList();
+    }
+
+    /**
+     * Method used to create the consistent hash exchange receiving the events of the application.
+     *
+     * @return the exchange, named after the main queue
+     */
+    public CustomExchange createExchange() {
+        return new CustomExchange(mainQueueName + ".partitions", CONSISTENT_HASH_EXCHANGE_TYPE, true, false, Map.of(
+                "hash-header", AMQP_PARTITION_KEY_HEADER,
+                "alternate-exchange", getUnkeyedExchangeName()
+        ));
+    }
+
+    /**
+     * Method used to create the partition queues, their bindings and the exchanges routing to them.
+     *
+     * @param directExchange Direct exchange the partition queues are also bound to, by name
+     * @return the declarables of the partitions
+     */
+    public List<Declarable> createDeclarables(DirectExchange directExchange) {
+        var exchange = createExchange();
+        var unkeyedExchange = new FanoutExchange(getUnkeyedExchangeName());
+
+        List<Declarable> declarables = new ArrayList<>(List.of(exchange, unkeyedExchange));
+        List<String> queueNames = getQueueNames();
+        for (int partition = 0; partition < queueNames.size(); partition++) {
+            Queue queue = QueueBuilder.durable(queueNames.get(partition))
+                    .singleActiveConsumer()
+                    .deadLetterExchange(eventProperties.getRabbit().getQueue().getError().getExchange())
+                    .deadLetterRoutingKey(eventProperties.getRabbit().getQueue().getError().getName())
+                    .build();
+
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with("1").noargs());
+            declarables.add(BindingBuilder.bind(queue).to(directExchange).withQueueName());
+            if (partition == 0) {
+                declarables.add(BindingBuilder.bind(queue).to(unkeyedExchange));
+            }
+        }
+
+        return declarables;
+    }
+
+    /**
+     * Method used to create the binding of the partitions to the main fanout exchange.
+     *
+     * @param mainExchange Main fanout exchange receiving every event
+     * @return the exchange to exchange binding
+     */
+    public Binding createBinding(FanoutExchange mainExchange) {
+        return BindingBuilder.bind(createExchange()).to(mainExchange);
+    }
+
+    /**
+     * Method used to resolve the partition header of a published event.
+     *
+     * @param event Event about to be published
+     * @return the partition key of the event, or a random key if it has none
+     */
+    public Map<String, Object> getHeaders(Event event) {
+        var partitionKey = partitionKey(event);
+        return Map.of(
+                AMQP_PARTITION_KEY_HEADER,
+                partitionKey != null ? partitionKey : Integer.toString(ThreadLocalRandom.current().nextInt())
+        );
+    }
+
+    /**
+     * Method used to resolve the partition key of an event.
+     *
+     * @param event Event
+     * @return value of the property annotated with {@link PartitionKey} as a string, null if none or null
+     */
+    public static String partitionKey(Event event) {
+        var key = KEY_ACCESSORS.get(event.getClass()).apply(event);
+        return key != null ? key.toString() : null;
+    }
+
+    private String getUnkeyedExchangeName() {
+        return mainQueueName + ".partitions.unkeyed";
+    }
+
+    private static Function<Object, Object> resolveKeyAccessor(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        ReflectionUtils.doWithMethods(
+                type,
+                methods::add,
+                method -> method.isAnnotationPresent(PartitionKey.class)
+                          && method.getParameterCount() == 0
+                          && !Modifier.isStatic(method.getModifiers())
+        );
+        if (!methods.isEmpty()) {
+            var method = methods.get(0);
+            ReflectionUtils.makeAccessible(method);
+            return event -> ReflectionUtils.invokeMethod(method, event);
+        }
+
+        List<Field> fields = new ArrayList<>();
+        ReflectionUtils.doWithFields(
+                type,
+                fields::add,
+                field -> field.isAnnotationPresent(PartitionKey.class) && !Modifier.isStatic(field.getModifiers())
+        );
+        if (!fields.isEmpty()) {
+            var field = fields.get(0);
+            ReflectionUtils.makeAccessible(field);
+            return event -> ReflectionUtils.getField(field, event);
+        }
+
+        return NO_KEY;
+    }
+}
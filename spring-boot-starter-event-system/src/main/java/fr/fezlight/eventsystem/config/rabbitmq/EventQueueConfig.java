@@ -1,14 +1,20 @@
 package fr.fezlight.eventsystem.config.rabbitmq;
 
 
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
 import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Routing.Mode;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @ConditionalOnProperty(
         value = "events.rabbit.queue.autoconfigure",
         havingValue = "true",
@@ -17,6 +23,8 @@ import org.springframework.context.annotation.Bean;
 public class EventQueueConfig {
     public static final String AMQP_RETRY_LEFT_HEADER = "retry_left";
     public static final String AMQP_REASON_HEADER = "reason";
+    public static final String AMQP_ORDERING_KEY_HEADER = "ordering_key";
+    public static final String AMQP_DEFERRALS_HEADER = "deferrals";
 
     private final EventProperties eventProperties;
     private final QueueNameResolver queueNameResolver;
@@ -26,9 +34,26 @@ public class EventQueueConfig {
         this.queueNameResolver = queueNameResolver;
     }
 
+    /**
+     * Method used to declare the main queue and its bindings.
+     * <p>
+     * In {@link Mode#FANOUT} mode, the main queue is bound to the main fanout exchange and receives every event.
+     * Otherwise, it is only bound to the event types of the registry, and to the ones registered later at runtime. With
+     * handler queues, events are bound to the queue of each handler instead (see {@link HandlerQueueTopology}).
+     * <p>
+     * When the main queue is partitioned, events are bound to the partitions instead (see {@link EventPartitioning}).
+     * The main queue is still declared and consumed, so events received before partitioning are fanned out.
+     *
+     * @see EventRouting
+     */
     @Bean
     @ConditionalOnMissingBean(name = "eventsMain")
-    Declarables eventsMain() {
+    Declarables eventsMain(EventRegistryConfig eventRegistryConfig, EventRouting eventRouting,
+                           EventPartitioning eventPartitioning, ObjectProvider<AmqpAdmin> amqpAdmin) {
+        if (eventPartitioning.isEnabled() && eventProperties.getRabbit().getHandlerQueues().isEnabled()) {
+            throw new IllegalStateException("events.rabbit.partitions.count cannot be combined with events.rabbit.handler-queues.enabled");
+        }
+
         Queue queue = QueueBuilder.durable(queueNameResolver.getMainQueueName())
                 .singleActiveConsumer()
                 .deadLetterExchange(eventProperties.getRabbit().getQueue().getError().getExchange())
@@ -36,15 +61,39 @@ public class EventQueueConfig {
                 .build();
         DirectExchange directExchange = ExchangeBuilder.directExchange(eventProperties.getRabbit().getQueue().getMain().getDirectExchange())
                 .build();
-        FanoutExchange fanoutExchange = new FanoutExchange(eventProperties.getRabbit().getQueue().getMain().getExchange());
 
-        return new Declarables(
+        List<Declarable> declarables = new ArrayList<>(List.of(
                 queue,
                 directExchange,
-                fanoutExchange,
-                BindingBuilder.bind(queue).to(directExchange).withQueueName(),
-                BindingBuilder.bind(queue).to(fanoutExchange)
-        );
+                BindingBuilder.bind(queue).to(directExchange).withQueueName()
+        ));
+        if (eventPartitioning.isEnabled()) {
+            declarables.addAll(eventPartitioning.createDeclarables(directExchange));
+        }
+
+        if (eventRouting.getMode() == Mode.FANOUT) {
+            FanoutExchange fanoutExchange = new FanoutExchange(eventProperties.getRabbit().getQueue().getMain().getExchange());
+
+            declarables.add(fanoutExchange);
+            declarables.add(eventPartitioning.isEnabled()
+                    ? eventPartitioning.createBinding(fanoutExchange)
+                    : BindingBuilder.bind(queue).to(fanoutExchange));
+
+            return new Declarables(declarables);
+        }
+
+        declarables.add(eventRouting.createExchange());
+
+        if (eventPartitioning.isEnabled()) {
+            var partitionsExchange = eventPartitioning.createExchange();
+            eventRegistryConfig.addListener(new EventRoutingBinder(amqpAdmin, eventRouting, partitionsExchange));
+            eventRegistryConfig.getEventTypes().forEach(event -> declarables.add(eventRouting.createBinding(partitionsExchange, event)));
+        } else if (!eventProperties.getRabbit().getHandlerQueues().isEnabled()) {
+            eventRegistryConfig.addListener(new EventRoutingBinder(amqpAdmin, eventRouting, queue));
+            eventRegistryConfig.getEventTypes().forEach(event -> declarables.add(eventRouting.createBinding(queue, event)));
+        }
+
+        return new Declarables(declarables);
     }
 
     @Bean
@@ -67,6 +116,42 @@ public class EventQueueConfig {
         );
     }
 
+    /**
+     * Method used to declare the ordered worker queue, receiving the {@link fr.fezlight.eventsystem.models.EventWrapper}
+     * with an ordering key. It has a single active consumer, so the events of a key are handled in order by one
+     * instance.
+     * <p>
+     * Its retries are delayed in their own retry queue, dead-lettering expired messages back to the ordered worker
+     * queue, so they keep their ordering key whether <b>events.rabbit.queue.retry.targeted</b> is enabled or not.
+     *
+     * @see fr.fezlight.eventsystem.OrderedWorkerListener
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "eventsOrderedWorker")
+    @ConditionalOnProperty(value = "events.rabbit.ordering.enabled", havingValue = "true")
+    Declarables eventsOrderedWorker() {
+        Queue queue = QueueBuilder.durable(queueNameResolver.getOrderedWorkerQueueName())
+                .singleActiveConsumer()
+                .deadLetterExchange(eventProperties.getRabbit().getQueue().getError().getExchange())
+                .deadLetterRoutingKey(eventProperties.getRabbit().getQueue().getError().getName())
+                .build();
+        DirectExchange directExchange = ExchangeBuilder.directExchange(eventProperties.getRabbit().getQueue().getMain().getDirectExchange())
+                .build();
+        Queue retryQueue = QueueBuilder.durable(queueNameResolver.getOrderedRetryQueueName())
+                .deadLetterExchange(directExchange.getName())
+                .deadLetterRoutingKey(queue.getName())
+                .ttl((int) eventProperties.getRabbit().getQueue().getRetry().getTimeBetweenRetries().toMillis())
+                .build();
+
+        return new Declarables(
+                queue,
+                retryQueue,
+                directExchange,
+                BindingBuilder.bind(queue).to(directExchange).withQueueName(),
+                BindingBuilder.bind(retryQueue).to(directExchange).withQueueName()
+        );
+    }
+
     @Bean("eventsDeadLetter")
     @ConditionalOnMissingBean(name = "eventsDeadLetter")
     Declarables eventsDeadLetter() {
@@ -82,6 +167,10 @@ public class EventQueueConfig {
         );
     }
 
+    /**
+     * Method used to declare the retry queue, dead-lettering expired messages to the worker fanout exchange, so every
+     * worker queue receives them and keeps the ones addressed to it (see {@link fr.fezlight.eventsystem.EventListeners#processEvent}).
+     */
     @Bean("eventsRetry")
     @ConditionalOnMissingBean(name = "eventsRetry")
     Declarables eventsRetry() {
@@ -99,6 +188,30 @@ public class EventQueueConfig {
         );
     }
 
+    /**
+     * Method used to declare the targeted retry queue, enabled by <b>events.rabbit.queue.retry.targeted</b>.
+     * <p>
+     * Retries are published to a fanout exchange with the name of the queue they come from as routing key. Expired
+     * messages are dead-lettered with this routing key to the direct exchange of the worker queues, so they are only
+     * delivered to the queue they come from.
+     */
+    @Bean("eventsRetryTargeted")
+    @ConditionalOnMissingBean(name = "eventsRetryTargeted")
+    @ConditionalOnProperty(value = "events.rabbit.queue.retry.targeted", havingValue = "true")
+    Declarables eventsRetryTargeted() {
+        Queue queue = QueueBuilder.durable(eventProperties.getRabbit().getQueue().getRetry().getTargetedName())
+                .deadLetterExchange(eventProperties.getRabbit().getQueue().getWorker().getDirectExchange())
+                .ttl((int) eventProperties.getRabbit().getQueue().getRetry().getTimeBetweenRetries().toMillis())
+                .build();
+        FanoutExchange fanoutExchange = new FanoutExchange(eventProperties.getRabbit().getQueue().getRetry().getTargetedName());
+
+        return new Declarables(
+                queue,
+                fanoutExchange,
+                BindingBuilder.bind(queue).to(fanoutExchange)
+        );
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public RabbitListenerErrorHandler rabbitListenerCustomErrorHandler(RabbitTemplate rabbitTemplate,
@@ -0,0 +1,188 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.Objects;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_DEFERRALS_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_ORDERING_KEY_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_REASON_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_RETRY_LEFT_HEADER;
+
+/**
+ * Publisher sending the {@link EventWrapper} of a failed handler to the retry queue or to the error queue, when the
+ * failure is not reported to the listener container (the consumed message is acknowledged).
+ * <p>
+ * The wrapper is addressed to the worker queue, so next attempts and reprocessing from the error queue are made by
+ * {@link fr.fezlight.eventsystem.EventListeners#processEvent(String, EventWrapper)}. With targeted retries, next
+ * attempts are only delivered to the worker queue.
+ * <p>
+ * When ordering is enabled, the retries of a wrapper with an ordering key are sent to the ordered retry queue instead,
+ * so they are delivered back to the ordered worker queue with their <b>ordering_key</b> header.
+ *
+ * @author FezLight
+ */
+public class EventRetryPublisher {
+    private static final Logger log = LoggerFactory.getLogger(EventRetryPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final EventProperties eventProperties;
+    private final QueueNameResolver queueNameResolver;
+
+    public EventRetryPublisher(RabbitTemplate rabbitTemplate, EventProperties eventProperties,
+                               QueueNameResolver queueNameResolver) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventProperties = eventProperties;
+        this.queueNameResolver = queueNameResolver;
+    }
+
+    /**
+     * Method used to send the event of a failed handler to the retry queue if the handler has retries, or to the error
+     * queue otherwise. An event refused by a full bulkhead is deferred instead.
+     *
+     * @param handler Failed handler
+     * @param event   Event handled
+     * @param cause   Failure of the handler
+     * @param <E>     Type of Event
+     */
+    public <E extends Event> void onHandlerFailure(Handler<E> handler, E event, Throwable cause) {
+        var eventWrapper = EventWrapper.<E>builder()
+                .event(event)
+                .handlerName(handler.name())
+                .retryLeft(handler.retry())
+                .build();
+
+        if (ExceptionUtils.indexOfThrowable(cause, BulkheadFullException.class) >= 0) {
+            log.debug("Handler '{}' bulkhead full, deferring event", handler.name());
+            defer(eventWrapper, cause);
+        } else if (handler.retry() > 0) {
+            log.debug("Handler '{}' failed, retry attempts left = {}", handler.name(), handler.retry());
+            retry(eventWrapper, cause);
+        } else {
+            log.warn("Handler '{}' failed, no retries left", handler.name(), cause);
+            reject(eventWrapper, cause);
+        }
+    }
+
+    /**
+     * Method used to send a wrapper to the retry queue.
+     *
+     * @param eventWrapper Wrapper of the failed handler, {@link EventWrapper#getRetryLeft()} being the attempts left
+     * @param cause        Failure of the handler
+     */
+    public void retry(EventWrapper<?> eventWrapper, Throwable cause) {
+        sendToRetry(eventWrapper, headers(eventWrapper, eventWrapper.getRetryLeft() - 1, 0, cause));
+    }
+
+    /**
+     * Method used to send a wrapper refused by a full bulkhead for the first time to the retry queue, without using a
+     * retry.
+     *
+     * @param eventWrapper Wrapper of the refused handler, {@link EventWrapper#getRetryLeft()} being the attempts left
+     * @param cause        Refusal of the bulkhead
+     * @see #defer(EventWrapper, int, Throwable)
+     */
+    public void defer(EventWrapper<?> eventWrapper, Throwable cause) {
+        defer(eventWrapper, 0, cause);
+    }
+
+    /**
+     * Method used to send a wrapper refused by a full bulkhead to the retry queue, without using a retry, or to the
+     * error queue once it was deferred <b>events.rabbit.queue.retry.max-deferrals</b> times.
+     *
+     * @param eventWrapper Wrapper of the refused handler, {@link EventWrapper#getRetryLeft()} being the attempts left
+     * @param deferrals    Times the wrapper was already deferred, from its {@link EventQueueConfig#AMQP_DEFERRALS_HEADER}
+     *                     header
+     * @param cause        Refusal of the bulkhead
+     */
+    public void defer(EventWrapper<?> eventWrapper, int deferrals, Throwable cause) {
+        if (deferrals >= eventProperties.getRabbit().getQueue().getRetry().getMaxDeferrals()) {
+            log.warn("Event {} deferred {} times, no deferrals left", eventWrapper, deferrals, cause);
+            reject(eventWrapper, cause);
+            return;
+        }
+
+        sendToRetry(eventWrapper, headers(
+                eventWrapper, Objects.requireNonNullElse(eventWrapper.getRetryLeft(), 0), deferrals + 1, cause
+        ));
+    }
+
+    /**
+     * Method used to send a wrapper to the error queue.
+     *
+     * @param eventWrapper Wrapper of the failed handler
+     * @param cause        Failure of the handler
+     */
+    public void reject(EventWrapper<?> eventWrapper, Throwable cause) {
+        rabbitTemplate.convertAndSend(
+                eventProperties.getRabbit().getQueue().getError().getExchange(),
+                eventProperties.getRabbit().getQueue().getError().getName(),
+                eventWrapper,
+                headers(eventWrapper, 0, 0, cause)
+        );
+    }
+
+    /**
+     * Method used to get the exchange receiving the retries.
+     *
+     * @return the targeted retry exchange if <b>events.rabbit.queue.retry.targeted</b> is enabled, the retry exchange
+     * otherwise
+     */
+    static String retryExchange(EventProperties eventProperties) {
+        var retry = eventProperties.getRabbit().getQueue().getRetry();
+        return retry.isTargeted() ? retry.getTargetedName() : retry.getExchange();
+    }
+
+    /**
+     * Method used to get the routing key of a retry.
+     *
+     * @param queueName Name of the queue the retry must be delivered to once expired
+     * @return the queue name if <b>events.rabbit.queue.retry.targeted</b> is enabled, the retry queue name otherwise
+     */
+    static String retryRoutingKey(EventProperties eventProperties, String queueName) {
+        var retry = eventProperties.getRabbit().getQueue().getRetry();
+        return retry.isTargeted() ? queueName : retry.getName();
+    }
+
+    private void sendToRetry(EventWrapper<?> eventWrapper, MessagePostProcessor headers) {
+        if (eventProperties.getRabbit().getOrdering().isEnabled() && eventWrapper.getOrderingKey() != null) {
+            rabbitTemplate.convertAndSend(
+                    eventProperties.getRabbit().getQueue().getMain().getDirectExchange(),
+                    queueNameResolver.getOrderedRetryQueueName(),
+                    eventWrapper,
+                    headers
+            );
+        } else {
+            rabbitTemplate.convertAndSend(
+                    retryExchange(eventProperties),
+                    retryRoutingKey(eventProperties, queueNameResolver.getWorkerQueueName()),
+                    eventWrapper,
+                    headers
+            );
+        }
+    }
+
+    private MessagePostProcessor headers(EventWrapper<?> eventWrapper, int retryLeft, int deferrals, Throwable cause) {
+        return m -> {
+            if (deferrals > 0) {
+                m.getMessageProperties().setHeader(AMQP_DEFERRALS_HEADER, deferrals);
+            }
+            if (eventWrapper.getOrderingKey() != null) {
+                m.getMessageProperties().setHeader(AMQP_ORDERING_KEY_HEADER, eventWrapper.getOrderingKey());
+            }
+            m.getMessageProperties().setHeader(AMQP_RETRY_LEFT_HEADER, retryLeft);
+            m.getMessageProperties().setHeader(AMQP_REASON_HEADER, ExceptionUtils.getStackTrace(cause));
+            m.getMessageProperties().setReplyTo(queueNameResolver.getWorkerQueueName());
+            return m;
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.annotation.EventType;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Routing.Mode;
+import fr.fezlight.eventsystem.models.Event;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.HeadersExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.modulith.events.RoutingTarget;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.util.StringUtils.hasLength;
+
+/**
+ * Routing of the events published to the main queues of the applications.
+ * <p>
+ * With the {@link Mode#FANOUT} mode (default), every event is published to the main fanout exchange and received by
+ * every application. With the {@link Mode#TOPIC} and {@link Mode#HEADERS} modes, the type alias of the event (see
+ * {@link EventType}) is used to route it, and each application only binds its main queue to the event types of its
+ * registry :
+ * <p>- {@link Mode#TOPIC} uses the type alias as routing key, so a handler only receives events whose concrete type
+ * is bound
+ * <p>- {@link Mode#HEADERS} adds a header for each event type the event is assignable to, so a handler registered for a
+ * supertype or an interface also receives its subtypes
+ * <p>
+ * All applications sharing events must use the same mode.
+ *
+ * @author FezLight
+ */
+public class EventRouting {
+    public static final String AMQP_EVENT_TYPE_HEADER = "event_type";
+
+    private static final ClassValue<String> TYPE_ALIASES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            var eventType = type.getAnnotation(EventType.class);
+            return eventType != null && hasLength(eventType.value()) ? eventType.value() : type.getName();
+        }
+    };
+
+    private static final ClassValue<Map<String, Object>> TYPE_HEADERS = new ClassValue<>() {
+        @Override
+        protected Map<String, Object> computeValue(Class<?> type) {
+            Map<String, Object> headers = new LinkedHashMap<>();
+            headers.put(AMQP_EVENT_TYPE_HEADER, typeAlias(type));
+            resolveEventTypes(type).forEach(eventType -> headers.put(typeHeader(eventType), true));
+
+            return Map.copyOf(headers);
+        }
+    };
+
+    private final Mode mode;
+    private final String exchange;
+    private final String mainExchange;
+    private final QueueNameResolver queueNameResolver;
+
+    public EventRouting(EventProperties eventProperties, QueueNameResolver queueNameResolver) {
+        var routing = eventProperties.getRabbit().getRouting();
+
+        this.mode = routing.getMode();
+        this.exchange = hasLength(routing.getExchange())
+                ? routing.getExchange()
+                : "events." + mode.name().toLowerCase();
+        this.mainExchange = eventProperties.getRabbit().getQueue().getMain().getExchange();
+        this.queueNameResolver = queueNameResolver;
+    }
+
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * Method used to retrieve the name of the exchange events are published to.
+     *
+     * @return the main fanout exchange in {@link Mode#FANOUT} mode, the routing exchange otherwise
+     */
+    public String getExchange() {
+        return mode == Mode.FANOUT ? mainExchange : exchange;
+    }
+
+    /**
+     * Method used to create the exchange events are published to, when routed by type.
+     *
+     * @return the topic or headers exchange
+     * @throws IllegalStateException in {@link Mode#FANOUT} mode
+     */
+    public Exchange createExchange() {
+        return switch (mode) {
+            case TOPIC -> new TopicExchange(exchange);
+            case HEADERS -> new HeadersExchange(exchange);
+            case FANOUT -> throw new IllegalStateException("No routing exchange in " + mode + " mode");
+        };
+    }
+
+    /**
+     * Method used to create the binding of a queue to an event type.
+     *
+     * @param queue Queue receiving the events
+     * @param event Event related class
+     * @return the binding to the routing exchange
+     * @throws IllegalStateException in {@link Mode#FANOUT} mode
+     */
+    public Binding createBinding(Queue queue, Class<? extends Event> event) {
+        return createBinding(BindingBuilder.bind(queue), event);
+    }
+
+    /**
+     * Method used to create the binding of an exchange to an event type.
+     *
+     * @param destination Exchange receiving the events, such as the exchange of the main queue partitions
+     * @param event       Event related class
+     * @return the binding to the routing exchange
+     * @throws IllegalStateException in {@link Mode#FANOUT} mode
+     */
+    public Binding createBinding(Exchange destination, Class<? extends Event> event) {
+        return createBinding(BindingBuilder.bind(destination), event);
+    }
+
+    private Binding createBinding(BindingBuilder.DestinationConfigurer destination, Class<? extends Event> event) {
+        return switch (mode) {
+            case TOPIC -> destination
+                    .to(new TopicExchange(exchange))
+                    .with(event == Event.class ? "#" : typeAlias(event));
+            case HEADERS -> destination
+                    .to(new HeadersExchange(exchange))
+                    .where(typeHeader(event))
+                    .exists();
+            case FANOUT -> throw new IllegalStateException("No routing binding in " + mode + " mode");
+        };
+    }
+
+    /**
+     * Method used to resolve where an event is published.
+     *
+     * @param event Event about to be published
+     * @return the routing target of the event
+     */
+    public RoutingTarget getRoutingTarget(Event event) {
+        if (mode == Mode.FANOUT) {
+            return RoutingTarget.forTarget(mainExchange).andKey(queueNameResolver.getMainQueueName());
+        }
+
+        return RoutingTarget.forTarget(exchange).andKey(typeAlias(event.getClass()));
+    }
+
+    /**
+     * Method used to resolve the headers of a published event.
+     *
+     * @param event Event about to be published
+     * @return the type headers of the event, resolved once per event type
+     */
+    public Map<String, Object> getHeaders(Event event) {
+        return TYPE_HEADERS.get(event.getClass());
+    }
+
+    /**
+     * Method used to resolve the type alias of an event type.
+     *
+     * @param event Event related class
+     * @return value of {@link EventType} if present, the fully qualified class name otherwise
+     */
+    public static String typeAlias(Class<?> event) {
+        return TYPE_ALIASES.get(event);
+    }
+
+    private static String typeHeader(Class<?> event) {
+        return AMQP_EVENT_TYPE_HEADER + "." + typeAlias(event);
+    }
+
+    private static Set<Class<?>> resolveEventTypes(Class<?> event) {
+        Set<Class<?>> eventTypes = new LinkedHashSet<>();
+        for (Class<?> type = event; type != null; type = type.getSuperclass()) {
+            if (Event.class.isAssignableFrom(type)) {
+                eventTypes.add(type);
+            }
+        }
+
+        ClassUtils.getAllInterfacesForClassAsSet(event).stream()
+                .filter(Event.class::isAssignableFrom)
+                .forEach(eventTypes::add);
+
+        return eventTypes;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.EventRegistryListener;
+import fr.fezlight.eventsystem.models.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.function.Function;
+
+/**
+ * Listener of the registry binding the main queue, or the exchange of its partitions, to the event types registered at
+ * runtime, when events are routed by type.
+ * <p>
+ * Bindings of the event types registered at startup are declared with the main queue. The binding of an event type
+ * is removed when its last handler is unregistered.
+ *
+ * @author FezLight
+ * @see EventRouting
+ */
+public class EventRoutingBinder implements EventRegistryListener {
+    private static final Logger log = LoggerFactory.getLogger(EventRoutingBinder.class);
+
+    private final ObjectProvider<AmqpAdmin> amqpAdmin;
+    private final String destination;
+    private final Function<Class<? extends Event>, Binding> bindingFactory;
+
+    public EventRoutingBinder(ObjectProvider<AmqpAdmin> amqpAdmin, EventRouting eventRouting, Queue queue) {
+        this(amqpAdmin, queue.getName(), event -> eventRouting.createBinding(queue, event));
+    }
+
+    public EventRoutingBinder(ObjectProvider<AmqpAdmin> amqpAdmin, EventRouting eventRouting, Exchange exchange) {
+        this(amqpAdmin, exchange.getName(), event -> eventRouting.createBinding(exchange, event));
+    }
+
+    private EventRoutingBinder(ObjectProvider<AmqpAdmin> amqpAdmin, String destination,
+                               Function<Class<? extends Event>, Binding> bindingFactory) {
+        this.amqpAdmin = amqpAdmin;
+        this.destination = destination;
+        this.bindingFactory = bindingFactory;
+    }
+
+    @Override
+    public void onEventTypeRegistered(Class<? extends Event> event) {
+        amqpAdmin.ifAvailable(admin -> {
+            log.debug("Binding '{}' to event type '{}'", destination, EventRouting.typeAlias(event));
+            admin.declareBinding(bindingFactory.apply(event));
+        });
+    }
+
+    @Override
+    public void onEventTypeUnregistered(Class<? extends Event> event) {
+        amqpAdmin.ifAvailable(admin -> {
+            log.debug("Unbinding '{}' from event type '{}'", destination, EventRouting.typeAlias(event));
+            admin.removeBinding(bindingFactory.apply(event));
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import org.springframework.amqp.AmqpException;
+
+/**
+ * Exception thrown when the broker does not confirm all the {@link fr.fezlight.eventsystem.models.EventWrapper}
+ * published for an event.
+ * <p>
+ * The event consumed from the main queue is then requeued, instead of being rejected to the error queue.
+ *
+ * @author FezLight
+ * @see ConfirmedFanOutPublisher
+ */
+public class FanOutNotConfirmedException extends AmqpException {
+
+    public FanOutNotConfirmedException(String message) {
+        super(message);
+    }
+
+    public FanOutNotConfirmedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
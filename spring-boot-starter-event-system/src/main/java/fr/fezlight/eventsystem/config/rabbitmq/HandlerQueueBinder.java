@@ -0,0 +1,68 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.EventRegistryListener;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+
+/**
+ * Listener of the registry keeping the handler queues in line with the handlers registered at runtime.
+ * <p>
+ * The queue of a registered handler is declared and bound if queues are autoconfigured, then consumed. The queue of an
+ * unregistered handler is no longer consumed, and deleted if queues are autoconfigured.
+ *
+ * @author FezLight
+ * @see HandlerQueueTopology
+ */
+public class HandlerQueueBinder implements EventRegistryListener {
+    private static final Logger log = LoggerFactory.getLogger(HandlerQueueBinder.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final HandlerQueueTopology handlerQueueTopology;
+    private final AbstractMessageListenerContainer container;
+
+    /**
+     * @param amqpAdmin            Admin used to declare the queues, null if queues are not autoconfigured
+     * @param handlerQueueTopology Topology of the handler queues
+     * @param container            Container consuming the handler queues
+     */
+    public HandlerQueueBinder(AmqpAdmin amqpAdmin, HandlerQueueTopology handlerQueueTopology,
+                              AbstractMessageListenerContainer container) {
+        this.amqpAdmin = amqpAdmin;
+        this.handlerQueueTopology = handlerQueueTopology;
+        this.container = container;
+    }
+
+    @Override
+    public void onEventTypeRegistered(Class<? extends Event> event) {
+        // Handler queues are bound per handler
+    }
+
+    @Override
+    public void onHandlerRegistered(Class<? extends Event> event, Handler<?> handler) {
+        var queue = handlerQueueTopology.createQueue(handler);
+
+        if (amqpAdmin != null) {
+            log.debug("Declaring queue '{}' of handler '{}'", queue.getName(), handler.name());
+            amqpAdmin.declareQueue(queue);
+            amqpAdmin.declareBinding(handlerQueueTopology.createBinding(queue, event));
+        }
+
+        container.addQueueNames(queue.getName());
+    }
+
+    @Override
+    public void onHandlerUnregistered(Class<? extends Event> event, Handler<?> handler) {
+        var queueName = handlerQueueTopology.getQueueName(handler);
+
+        container.removeQueueNames(queueName);
+
+        if (amqpAdmin != null) {
+            log.debug("Deleting queue '{}' of handler '{}'", queueName, handler.name());
+            amqpAdmin.deleteQueue(queueName);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.HandlerQueueListener;
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+/**
+ * Configuration of the handler queues, enabled by <b>events.rabbit.handler-queues.enabled</b>.
+ * <p>
+ * Handler queues are consumed by a {@link DirectMessageListenerContainer}, so queues of handlers registered or
+ * unregistered at runtime are added to or removed from the container without restarting it.
+ *
+ * @author FezLight
+ * @see HandlerQueueTopology
+ */
+@ConditionalOnProperty(
+        value = "events.rabbit.handler-queues.enabled",
+        havingValue = "true"
+)
+public class HandlerQueueConfig {
+
+    @Bean
+    HandlerQueueTopology handlerQueueTopology(EventProperties eventProperties, QueueNameResolver queueNameResolver,
+                                              EventRouting eventRouting) {
+        return new HandlerQueueTopology(eventProperties, queueNameResolver, eventRouting);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "eventsHandlers")
+    Declarables eventsHandlers(EventProperties eventProperties, EventRegistryConfig eventRegistryConfig,
+                               HandlerQueueTopology handlerQueueTopology) {
+        if (!eventProperties.getRabbit().getQueue().isAutoconfigure()) {
+            return new Declarables(List.of());
+        }
+
+        return new Declarables(handlerQueueTopology.createDeclarables(eventRegistryConfig));
+    }
+
+    @Bean
+    HandlerQueueListener handlerQueueListener(EventRegistryConfig eventRegistryConfig,
+                                              HandlerQueueTopology handlerQueueTopology,
+                                              RabbitTemplate rabbitTemplate,
+                                              EventProperties eventProperties,
+                                              QueueNameResolver queueNameResolver) {
+        return new HandlerQueueListener(
+                eventRegistryConfig, handlerQueueTopology, rabbitTemplate, eventProperties, queueNameResolver
+        );
+    }
+
+    @Bean
+    DirectMessageListenerContainer handlerQueueListenerContainer(ConnectionFactory connectionFactory,
+                                                                 EventProperties eventProperties,
+                                                                 EventRegistryConfig eventRegistryConfig,
+                                                                 HandlerQueueTopology handlerQueueTopology,
+                                                                 HandlerQueueListener handlerQueueListener,
+                                                                 ObjectProvider<AmqpAdmin> amqpAdmin) {
+        var container = new DirectMessageListenerContainer(connectionFactory);
+        container.setQueueNames(handlerQueueTopology.getQueueNames(eventRegistryConfig).toArray(String[]::new));
+        container.setMessageListener(handlerQueueListener);
+        container.setDefaultRequeueRejected(false);
+
+        eventRegistryConfig.addListener(new HandlerQueueBinder(
+                eventProperties.getRabbit().getQueue().isAutoconfigure() ? amqpAdmin.getIfAvailable() : null,
+                handlerQueueTopology,
+                container
+        ));
+
+        return container;
+    }
+}
@@ -0,0 +1,108 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Routing.Mode;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Topology in which each registered handler has its own queue, bound to the event type of the handler.
+ * <p>
+ * The broker delivers a copy of each event to the queue of every handler of this event type, replacing the fan-out
+ * done by the main queue with one {@link fr.fezlight.eventsystem.models.EventWrapper} per handler. Handler queues are
+ * named <b>{main queue name}.{handler name}</b>, and require events to be routed by type (see {@link EventRouting}).
+ *
+ * @author FezLight
+ */
+public class HandlerQueueTopology {
+    private final EventProperties eventProperties;
+    private final QueueNameResolver queueNameResolver;
+    private final EventRouting eventRouting;
+
+    public HandlerQueueTopology(EventProperties eventProperties, QueueNameResolver queueNameResolver,
+                                EventRouting eventRouting) {
+        if (eventRouting.getMode() == Mode.FANOUT) {
+            throw new IllegalStateException("events.rabbit.handler-queues.enabled requires events.rabbit.routing.mode to be 'topic' or 'headers'");
+        }
+
+        this.eventProperties = eventProperties;
+        this.queueNameResolver = queueNameResolver;
+        this.eventRouting = eventRouting;
+    }
+
+    /**
+     * Method used to retrieve the queue name of a handler.
+     *
+     * @param handler Handler related
+     * @return the queue name of the handler
+     */
+    public String getQueueName(Handler<?> handler) {
+        return getQueuePrefix() + handler.name();
+    }
+
+    /**
+     * Method used to retrieve the handler name from the queue name of a handler.
+     *
+     * @param queueName Queue name of the handler
+     * @return the handler name, null if the queue is not a handler queue
+     */
+    public String getHandlerName(String queueName) {
+        var prefix = getQueuePrefix();
+        return queueName != null && queueName.startsWith(prefix) ? queueName.substring(prefix.length()) : null;
+    }
+
+    /**
+     * Method used to retrieve the queue names of all handlers of the registry.
+     *
+     * @param eventRegistryConfig Registry containing the handlers
+     * @return queue names, in registration order
+     */
+    public List<String> getQueueNames(EventRegistryConfig eventRegistryConfig) {
+        List<String> queueNames = new ArrayList<>();
+        eventRegistryConfig.getRegisteredHandlers().forEach((event, handlers) ->
+                handlers.forEach(handler -> queueNames.add(getQueueName(handler))));
+
+        return queueNames;
+    }
+
+    /**
+     * Method used to create the queue and the binding of all handlers of the registry.
+     *
+     * @param eventRegistryConfig Registry containing the handlers
+     * @return queues and bindings, in registration order
+     */
+    public List<Declarable> createDeclarables(EventRegistryConfig eventRegistryConfig) {
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(eventRouting.createExchange());
+        eventRegistryConfig.getRegisteredHandlers().forEach((event, handlers) -> handlers.forEach(handler -> {
+            var queue = createQueue(handler);
+            declarables.add(queue);
+            declarables.add(createBinding(queue, event));
+        }));
+
+        return declarables;
+    }
+
+    public Queue createQueue(Handler<?> handler) {
+        return QueueBuilder.durable(getQueueName(handler))
+                .deadLetterExchange(eventProperties.getRabbit().getQueue().getError().getExchange())
+                .deadLetterRoutingKey(eventProperties.getRabbit().getQueue().getError().getName())
+                .build();
+    }
+
+    public Binding createBinding(Queue queue, Class<? extends Event> event) {
+        return eventRouting.createBinding(queue, event);
+    }
+
+    private String getQueuePrefix() {
+        return queueNameResolver.getMainQueueName() + ".";
+    }
+}
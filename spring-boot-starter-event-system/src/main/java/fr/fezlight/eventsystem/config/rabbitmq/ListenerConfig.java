@@ -0,0 +1,104 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Listener.Container;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.Arrays;
+
+/**
+ * Configuration of the listener containers of the main and worker queues.
+ * <p>
+ * Containers are configured by <b>spring.rabbitmq.listener.simple.*</b>, then by
+ * <b>events.rabbit.listener.{main,worker}.*</b> when set. With <b>events.execution.mode=virtual-threads</b>, their
+ * consumers, and so the handlers called from <b>processEvent</b>, run on virtual threads.
+ *
+ * @author FezLight
+ */
+public class ListenerConfig {
+    public static final String MAIN_CONTAINER_FACTORY = "eventsMainListenerContainerFactory";
+    public static final String WORKER_CONTAINER_FACTORY = "eventsWorkerListenerContainerFactory";
+    public static final String WORKER_LISTENER_ID = "events-worker";
+
+    @Bean(MAIN_CONTAINER_FACTORY)
+    @ConditionalOnMissingBean(name = MAIN_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory eventsMainListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            EventProperties eventProperties
+    ) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        configure(factory, eventProperties.getRabbit().getListener().getMain());
+        configure(factory, eventProperties.getExecution().getMode(), "event-main-");
+
+        return factory;
+    }
+
+    @Bean(WORKER_CONTAINER_FACTORY)
+    @ConditionalOnMissingBean(name = WORKER_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory eventsWorkerListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            EventProperties eventProperties,
+            ObjectProvider<AdaptiveConcurrencyScaler> adaptiveConcurrencyScaler
+    ) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        configure(factory, eventProperties.getRabbit().getListener().getWorker());
+        configure(factory, eventProperties.getExecution().getMode(), "event-worker-");
+
+        adaptiveConcurrencyScaler.ifAvailable(scaler -> {
+            // Consumers are scaled by the adaptive scaler only, not by the container itself
+            factory.setMaxConcurrentConsumers(null);
+            // Appended, so the retry advice set by the configurer is kept
+            var adviceChain = factory.getAdviceChain();
+            if (adviceChain == null) {
+                factory.setAdviceChain(scaler.latencyRecorder());
+            } else {
+                var chain = Arrays.copyOf(adviceChain, adviceChain.length + 1);
+                chain[adviceChain.length] = scaler.latencyRecorder();
+                factory.setAdviceChain(chain);
+            }
+        });
+
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "events.rabbit.listener.worker.adaptive.enabled", havingValue = "true")
+    AdaptiveConcurrencyScaler adaptiveConcurrencyScaler(ObjectProvider<RabbitListenerEndpointRegistry> registry,
+                                                        ObjectProvider<AmqpAdmin> amqpAdmin,
+                                                        QueueNameResolver queueNameResolver,
+                                                        EventProperties eventProperties) {
+        return new AdaptiveConcurrencyScaler(registry, amqpAdmin, queueNameResolver, eventProperties);
+    }
+
+    static void configure(SimpleRabbitListenerContainerFactory factory, Container container) {
+        if (container.getConcurrency() != null) {
+            factory.setConcurrentConsumers(container.getConcurrency());
+        }
+        if (container.getMaxConcurrency() != null) {
+            factory.setMaxConcurrentConsumers(container.getMaxConcurrency());
+        }
+        if (container.getPrefetch() != null) {
+            factory.setPrefetchCount(container.getPrefetch());
+        }
+    }
+
+    static void configure(SimpleRabbitListenerContainerFactory factory, Mode mode, String prefix) {
+        if (mode == Mode.VIRTUAL_THREADS) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor(prefix));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.EventListeners;
+import fr.fezlight.eventsystem.EventThreads;
+import fr.fezlight.eventsystem.KeyedEventExecutor;
+import fr.fezlight.eventsystem.OrderedWorkerListener;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.FanOut.Mode;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration of the ordered worker queue, enabled by <b>events.rabbit.ordering.enabled</b>.
+ * <p>
+ * The fan-out must publish the wrappers of an event before consuming the next one, so this requires
+ * <b>events.rabbit.fan-out.mode=confirmed</b>.
+ *
+ * @author FezLight
+ * @see OrderedWorkerListener
+ */
+@ConditionalOnProperty(
+        value = "events.rabbit.ordering.enabled",
+        havingValue = "true"
+)
+public class OrderingConfig {
+
+    @Bean
+    KeyedEventExecutor keyedEventExecutor(EventProperties eventProperties) {
+        if (eventProperties.getRabbit().getFanOut().getMode() != Mode.CONFIRMED) {
+            throw new IllegalStateException("events.rabbit.ordering.enabled requires events.rabbit.fan-out.mode=confirmed");
+        }
+
+        return new KeyedEventExecutor(
+                eventProperties.getRabbit().getOrdering().getParallelism(),
+                eventProperties.getRabbit().getOrdering().getKeyQueueCapacity(),
+                EventThreads.factory(eventProperties.getExecution().getMode(), "event-ordered-")
+        );
+    }
+
+    @Bean
+    OrderedWorkerListener orderedWorkerListener(EventListeners eventListeners,
+                                                KeyedEventExecutor keyedEventExecutor,
+                                                RabbitTemplate rabbitTemplate,
+                                                EventProperties eventProperties,
+                                                QueueNameResolver queueNameResolver) {
+        return new OrderedWorkerListener(
+                eventListeners,
+                keyedEventExecutor,
+                new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver),
+                rabbitTemplate
+        );
+    }
+
+    @Bean
+    RabbitListenerConfigurer eventsOrderedWorkerListenerConfigurer(
+            QueueNameResolver queueNameResolver,
+            OrderedWorkerListener orderedWorkerListener,
+            @Qualifier(ListenerConfig.WORKER_CONTAINER_FACTORY) RabbitListenerContainerFactory<?> containerFactory
+    ) {
+        return registrar -> {
+            var endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(queueNameResolver.getOrderedWorkerQueueName());
+            endpoint.setQueueNames(queueNameResolver.getOrderedWorkerQueueName());
+            endpoint.setAckMode(AcknowledgeMode.MANUAL);
+            endpoint.setMessageListener(orderedWorkerListener);
+            registrar.registerEndpoint(endpoint, containerFactory);
+        };
+    }
+}
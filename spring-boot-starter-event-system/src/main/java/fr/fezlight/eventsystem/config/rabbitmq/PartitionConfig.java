@@ -0,0 +1,44 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.EventListeners;
+import fr.fezlight.eventsystem.MainPartitionListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration of the main queue partitions, enabled by <b>events.rabbit.partitions.count</b> greater than 1.
+ * <p>
+ * Each partition is consumed by its own listener container, created by the container factory of the main queue, so
+ * partitions are fanned out in parallel and spread over the instances by their single active consumer.
+ *
+ * @author FezLight
+ * @see EventPartitioning
+ */
+@ConditionalOnExpression("${events.rabbit.partitions.count:1} > 1")
+public class PartitionConfig {
+
+    @Bean
+    MainPartitionListener mainPartitionListener(EventListeners eventListeners, RabbitTemplate rabbitTemplate) {
+        return new MainPartitionListener(eventListeners, rabbitTemplate);
+    }
+
+    @Bean
+    RabbitListenerConfigurer eventsPartitionListenerConfigurer(
+            EventPartitioning eventPartitioning,
+            MainPartitionListener mainPartitionListener,
+            @Qualifier(ListenerConfig.MAIN_CONTAINER_FACTORY) RabbitListenerContainerFactory<?> containerFactory
+    ) {
+        return registrar -> eventPartitioning.getQueueNames().forEach(queueName -> {
+            var endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(queueName);
+            endpoint.setQueueNames(queueName);
+            endpoint.setMessageListener(mainPartitionListener);
+            registrar.registerEndpoint(endpoint, containerFactory);
+        });
+    }
+}
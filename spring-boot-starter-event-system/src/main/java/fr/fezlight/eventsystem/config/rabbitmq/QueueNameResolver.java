@@ -6,6 +6,13 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+/**
+ * Resolver of the main and worker queue names of the application.
+ * <p>
+ * Queue names are resolved from the naming beans on first use, then kept for the lifetime of the application.
+ *
+ * @author FezLight
+ */
 public class QueueNameResolver {
     private final ObjectProvider<String> mainQueueName;
     private final ObjectProvider<Supplier<String>> mainQueueNameLegacy;
@@ -13,6 +20,9 @@ public class QueueNameResolver {
     private final ObjectProvider<String> workerQueueName;
     private final ObjectProvider<Supplier<String>> workerQueueNameLegacy;
 
+    private volatile String resolvedMainQueueName;
+    private volatile String resolvedWorkerQueueName;
+
     public QueueNameResolver(@Qualifier("defaultMainQueueName") ObjectProvider<String> mainQueueName,
                              @Qualifier("defaultMainQueueNaming") ObjectProvider<Supplier<String>> mainQueueNameLegacy,
                              @Qualifier("defaultWorkerQueueName") ObjectProvider<String> workerQueueName,
@@ -24,13 +34,47 @@ public class QueueNameResolver {
     }
 
     public String getMainQueueName() {
+        var name = resolvedMainQueueName;
+        if (name == null) {
+            name = resolveMainQueueName();
+            resolvedMainQueueName = name;
+        }
+
+        return name;
+    }
+
+    public String getWorkerQueueName() {
+        var name = resolvedWorkerQueueName;
+        if (name == null) {
+            name = resolveWorkerQueueName();
+            resolvedWorkerQueueName = name;
+        }
+
+        return name;
+    }
+
+    /**
+     * @return name of the worker queue receiving the events with an ordering key, derived from the worker queue name
+     */
+    public String getOrderedWorkerQueueName() {
+        return getWorkerQueueName() + ".ordered";
+    }
+
+    /**
+     * @return name of the queue delaying the retries of the ordered worker queue, derived from its name
+     */
+    public String getOrderedRetryQueueName() {
+        return getOrderedWorkerQueueName() + ".retry";
+    }
+
+    private String resolveMainQueueName() {
         return Optional.ofNullable(mainQueueNameLegacy.getIfAvailable())
                 .map(Supplier::get)
                 .or(() -> Optional.ofNullable(mainQueueName.getIfAvailable()))
                 .orElseThrow(() -> new IllegalStateException("No main queue naming bean available"));
     }
 
-    public String getWorkerQueueName() {
+    private String resolveWorkerQueueName() {
         return Optional.ofNullable(workerQueueNameLegacy.getIfAvailable())
                 .map(Supplier::get)
                 .or(() -> Optional.ofNullable(workerQueueName.getIfAvailable()))
@@ -2,6 +2,7 @@ package fr.fezlight.eventsystem.config.rabbitmq;
 
 import com.rabbitmq.client.Channel;
 import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
 import fr.fezlight.eventsystem.models.EventWrapper;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jspecify.annotations.NonNull;
@@ -16,6 +17,7 @@ import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
 
 import java.util.Objects;
 
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_DEFERRALS_HEADER;
 import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_REASON_HEADER;
 import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_RETRY_LEFT_HEADER;
 
@@ -35,23 +37,42 @@ public class RabbitListenerCustomErrorHandler implements RabbitListenerErrorHand
                               Channel channel,
                               org.springframework.messaging.Message<?> message,
                               @NonNull ListenerExecutionFailedException exception) {
+        if (ExceptionUtils.indexOfThrowable(exception, FanOutNotConfirmedException.class) >= 0) {
+            log.debug("Requeue message, fan-out not confirmed");
+            throw exception;
+        }
+
         if (message == null || !(message.getPayload() instanceof EventWrapper<?> eventWrapper)) {
             throw new AmqpRejectAndDontRequeueException("Unable to handle message", exception.getCause());
         }
 
         Integer retryLeftHeader = message.getHeaders().get(AMQP_RETRY_LEFT_HEADER, Integer.class);
         int retryLeft = Objects.requireNonNullElse(retryLeftHeader, eventWrapper.getRetryLeft());
+        boolean deferred = ExceptionUtils.indexOfThrowable(exception, BulkheadFullException.class) >= 0;
+        int deferrals = Objects.requireNonNullElse(message.getHeaders().get(AMQP_DEFERRALS_HEADER, Integer.class), 0);
+
+        if (deferred && deferrals >= eventProperties.getRabbit().getQueue().getRetry().getMaxDeferrals()) {
+            throw new AmqpRejectAndDontRequeueException("Rejecting message no deferrals left", exception.getCause());
+        }
 
-        if (retryLeft > 0) {
-            log.debug("Retry attempts left = {}", retryLeft);
+        if (deferred || retryLeft > 0) {
+            if (deferred) {
+                log.debug("Handler bulkhead full, deferring message");
+            } else {
+                log.debug("Retry attempts left = {}", retryLeft);
+            }
+            int nextRetryLeft = deferred ? retryLeft : retryLeft - 1;
+            int nextDeferrals = deferred ? deferrals + 1 : deferrals;
+            String consumerQueue = Objects.requireNonNull(amqpMessage.getMessageProperties().getConsumerQueue());
             rabbitTemplate.convertAndSend(
-                    eventProperties.getRabbit().getQueue().getRetry().getExchange(),
-                    eventProperties.getRabbit().getQueue().getRetry().getName(),
+                    EventRetryPublisher.retryExchange(eventProperties),
+                    EventRetryPublisher.retryRoutingKey(eventProperties, consumerQueue),
                     eventWrapper,
                     m -> MessageBuilder.fromMessage(amqpMessage)
-                            .setHeader(AMQP_RETRY_LEFT_HEADER, retryLeft - 1)
+                            .setHeader(AMQP_RETRY_LEFT_HEADER, nextRetryLeft)
+                            .setHeader(AMQP_DEFERRALS_HEADER, nextDeferrals)
                             .setHeader(AMQP_REASON_HEADER, ExceptionUtils.getStackTrace(exception))
-                            .setReplyTo(Objects.requireNonNull(amqpMessage.getMessageProperties().getConsumerQueue()))
+                            .setReplyTo(consumerQueue)
                             .build()
             );
         } else {
@@ -0,0 +1,35 @@
+package fr.fezlight.eventsystem.models;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Interface used to implement an event handler completing asynchronously.
+ * <p>
+ * Events of an async handler are sent to the async worker queue, whose messages are acknowledged once the future
+ * returned by {@link AsyncEventHandler#handleAsync(Event)} is completed. When the handler is called outside this queue
+ * (retries, grouped handlers, local dispatch, handler queues), the calling thread waits for the future, a checked
+ * failure being wrapped in an {@link UndeclaredThrowableException}.
+ *
+ * @author FezLight
+ */
+public interface AsyncEventHandler<E extends Event> extends EventHandler<E> {
+    CompletableFuture<Void> handleAsync(E event);
+
+    @Override
+    default void handle(E event) {
+        try {
+            handleAsync(event).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(cause);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fr.fezlight.eventsystem.models;
+
+import java.util.List;
+
+/**
+ * Interface used to implement an event handler receiving events by batch.
+ * <p>
+ * Events of a batch handler are sent to its own queue and given by batch of up to
+ * {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#batchSize()} events. When the handler is called with a
+ * single event, outside its queue (retries, local dispatch, handler queues), it receives a batch of one event.
+ *
+ * @author FezLight
+ */
+public interface BatchEventHandler<E extends Event> extends EventHandler<E> {
+    void handleBatch(List<E> events);
+
+    @Override
+    default void handle(E event) {
+        handleBatch(List.of(event));
+    }
+}
@@ -0,0 +1,176 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link EventHandler} isolating a handler in a bulkhead.
+ * <p>
+ * At most {@link SubscribeEvent#maxConcurrency()} calls of the handler run at once, a call beyond is refused at once
+ * with a {@link BulkheadFullException} instead of waiting, as a call refused by the executor. With an executor, the
+ * handler runs on it and the caller waits up to the timeout, the handler being interrupted with a
+ * {@link HandlerTimeoutException} beyond. The call keeps its permit until the handler actually completes, so a
+ * handler ignoring the interruption still counts.
+ *
+ * @author FezLight
+ */
+public class BulkheadEventHandler<E extends Event> implements EventHandler<E> {
+    private final EventHandler<E> eventHandler;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final Executor executor;
+    private final Duration timeout;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * @param eventHandler   Handler isolated
+     * @param maxConcurrency Maximum concurrent calls, 0 if unbounded
+     * @param executor       Executor running the handler, null to run it on the calling thread
+     * @param timeout        Maximum duration of a call, null if none
+     * @throws IllegalArgumentException if the max concurrency is negative, or if a timeout is given without executor
+     */
+    public BulkheadEventHandler(EventHandler<E> eventHandler, int maxConcurrency, Executor executor, Duration timeout) {
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("'maxConcurrency' must be positive");
+        }
+        if (timeout != null && executor == null) {
+            throw new IllegalArgumentException("A 'timeout' requires an executor");
+        }
+
+        this.eventHandler = eventHandler;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void handle(E event) {
+        if (permits != null && !permits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new BulkheadFullException("Bulkhead full, " + maxConcurrency + " calls in progress");
+        }
+        activeCount.incrementAndGet();
+
+        if (executor == null) {
+            try {
+                eventHandler.handle(event);
+            } finally {
+                release();
+            }
+            return;
+        }
+
+        // The permit is released once, by the handler when it completes, or by the task cancelled before it started
+        var claimed = new AtomicBoolean();
+        var task = new FutureTask<Void>(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                eventHandler.handle(event);
+            } finally {
+                release();
+            }
+            return null;
+        }) {
+            @Override
+            protected void done() {
+                if (isCancelled() && claimed.compareAndSet(false, true)) {
+                    release();
+                }
+            }
+        };
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.cancel(false);
+            rejectedCount.incrementAndGet();
+            throw new BulkheadFullException("Handler refused by its executor", e);
+        }
+
+        await(task);
+    }
+
+    private void await(FutureTask<Void> task) {
+        try {
+            if (timeout == null) {
+                task.get();
+            } else {
+                task.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            timeoutCount.incrementAndGet();
+            task.cancel(true);
+            throw new HandlerTimeoutException("Handler not completed within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for the handler", e);
+        } catch (ExecutionException e) {
+            ExceptionUtils.rethrow(e.getCause());
+        }
+    }
+
+    private void release() {
+        activeCount.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    @Override
+    public SubscribeEvent getSubscribeEvent() {
+        return eventHandler.getSubscribeEvent();
+    }
+
+    /**
+     * @return maximum concurrent calls, 0 if unbounded
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return calls in progress
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * @return ratio of the calls in progress to the maximum concurrent calls, 0 if unbounded
+     */
+    public double getSaturation() {
+        return maxConcurrency > 0 ? (double) activeCount.get() / maxConcurrency : 0;
+    }
+
+    /**
+     * @return calls refused because the bulkhead was full or the executor refused them
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return calls not completed within the timeout
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+}
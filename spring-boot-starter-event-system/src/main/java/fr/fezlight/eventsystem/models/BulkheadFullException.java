@@ -0,0 +1,21 @@
+package fr.fezlight.eventsystem.models;
+
+/**
+ * Exception thrown when a handler is called while its bulkhead is full (see
+ * {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#maxConcurrency()}), or refused by its executor.
+ * <p>
+ * The event is then deferred through the retry queue, without using a retry of the handler.
+ *
+ * @author FezLight
+ * @see BulkheadEventHandler
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+
+    public BulkheadFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,24 +1,55 @@
 package fr.fezlight.eventsystem.models;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.modulith.events.Externalized;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
 
+/**
+ * Message sent to the worker queue to call a handler, or several for a grouped envelope, with an event.
+ * <p>
+ * When built with the JSON of the event already encoded (see {@link EventWrapperBuilder#eventJson(String)}), this JSON
+ * is written as is in the wrapper, so fanning out an event to N handlers does not encode it N times.
+ *
+ * @param <T> Event related class type
+ * @author FezLight
+ */
 @Externalized
 public class EventWrapper<T extends Event> {
     private final T event;
+    private final String eventJson;
     private final String handlerName;
+    private List<String> handlerNames;
+    private final String orderingKey;
     private Integer retryLeft;
 
     @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
     EventWrapper(@JsonProperty("event") T event,
                  @JsonProperty("handlerName") String handlerName,
+                 @JsonProperty("handlerNames") List<String> handlerNames,
+                 @JsonProperty("orderingKey") String orderingKey,
                  @JsonProperty("retryLeft") Integer retryLeft) {
+        this(event, null, handlerName, handlerNames, orderingKey, retryLeft);
+    }
+
+    private EventWrapper(T event, String eventJson, String handlerName, List<String> handlerNames, String orderingKey,
+                         Integer retryLeft) {
         this.event = Objects.requireNonNull(event, "event cannot be null");
-        this.handlerName = Objects.requireNonNull(handlerName, "handlerName cannot be null");
+        this.eventJson = eventJson;
+        this.handlerNames = handlerNames == null || handlerNames.isEmpty() ? null : List.copyOf(handlerNames);
+        this.handlerName = this.handlerNames == null
+                ? Objects.requireNonNull(handlerName, "handlerName cannot be null")
+                : handlerName;
+        this.orderingKey = orderingKey;
         this.retryLeft = retryLeft;
     }
 
@@ -31,18 +62,59 @@ public class EventWrapper<T extends Event> {
         return new StringJoiner(", ", EventWrapper.class.getSimpleName() + "[", "]")
                 .add("event=" + event)
                 .add("handlerName='" + handlerName + "'")
+                .add("handlerNames=" + handlerNames)
+                .add("orderingKey='" + orderingKey + "'")
                 .add("retryLeft=" + retryLeft)
                 .toString();
     }
 
+    @JsonIgnore
     public T getEvent() {
         return this.event;
     }
 
+    @JsonProperty("event")
+    @JsonSerialize(using = SerializedEventSerializer.class)
+    SerializedEvent getSerializedEvent() {
+        return new SerializedEvent(this.event, this.eventJson);
+    }
+
     public String getHandlerName() {
         return this.handlerName;
     }
 
+    /**
+     * @return names of the handlers to call with the event when this wrapper is a grouped envelope, null otherwise
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<String> getHandlerNames() {
+        return this.handlerNames;
+    }
+
+    /**
+     * @param handlerNames names of the handlers left to call with the event, copied
+     */
+    public void setHandlerNames(List<String> handlerNames) {
+        this.handlerNames = List.copyOf(handlerNames);
+    }
+
+    /**
+     * @return true if this wrapper carries the event for several handlers (see {@link #getHandlerNames()})
+     */
+    @JsonIgnore
+    public boolean isGrouped() {
+        return this.handlerNames != null;
+    }
+
+    /**
+     * @return key of the event (see {@link fr.fezlight.eventsystem.annotation.PartitionKey}), handled in order with the
+     * other events of the same key on the ordered worker queue, null if the event has no key
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getOrderingKey() {
+        return this.orderingKey;
+    }
+
     public Integer getRetryLeft() {
         return this.retryLeft;
     }
@@ -53,7 +125,10 @@ public class EventWrapper<T extends Event> {
 
     public static class EventWrapperBuilder<T extends Event> {
         private T event;
+        private String eventJson;
         private String handlerName;
+        private List<String> handlerNames;
+        private String orderingKey;
         private Integer retryLeft;
 
         EventWrapperBuilder() {
@@ -64,18 +139,55 @@ public class EventWrapper<T extends Event> {
             return this;
         }
 
+        /**
+         * @param eventJson JSON of the event, with its type id, to write as is instead of encoding the event
+         */
+        public EventWrapperBuilder<T> eventJson(String eventJson) {
+            this.eventJson = eventJson;
+            return this;
+        }
+
         public EventWrapperBuilder<T> handlerName(String handlerName) {
             this.handlerName = handlerName;
             return this;
         }
 
+        public EventWrapperBuilder<T> handlerNames(List<String> handlerNames) {
+            this.handlerNames = handlerNames;
+            return this;
+        }
+
+        public EventWrapperBuilder<T> orderingKey(String orderingKey) {
+            this.orderingKey = orderingKey;
+            return this;
+        }
+
         public EventWrapperBuilder<T> retryLeft(Integer retryLeft) {
             this.retryLeft = retryLeft;
             return this;
         }
 
         public EventWrapper<T> build() {
-            return new EventWrapper<>(this.event, this.handlerName, this.retryLeft);
+            return new EventWrapper<>(this.event, this.eventJson, this.handlerName, this.handlerNames,
+                    this.orderingKey, this.retryLeft);
+        }
+    }
+
+    record SerializedEvent(Event event, String json) {
+    }
+
+    /**
+     * Serializer writing the JSON of the event as is when already encoded, or encoding the event otherwise.
+     */
+    static class SerializedEventSerializer extends ValueSerializer<SerializedEvent> {
+
+        @Override
+        public void serialize(SerializedEvent value, JsonGenerator gen, SerializationContext ctxt) {
+            if (value.json() != null) {
+                gen.writeRawValue(value.json());
+            } else {
+                ctxt.writeValue(gen, value.event());
+            }
         }
     }
 }
@@ -1,27 +1,164 @@
 package fr.fezlight.eventsystem.models;
 
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.condition.ConditionExpression;
+import fr.fezlight.eventsystem.condition.ConditionIndex;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
 import static org.springframework.util.StringUtils.hasLength;
 
-public record Handler<T extends Event>(String name, EventHandler<T> eventHandler) {
-    public String condition() {
-        return eventHandler.getSubscribeEvent().condition();
+/**
+ * Descriptor of a registered handler.
+ * <p>
+ * The name, number of retries and condition are resolved once from {@link SubscribeEvent} when the descriptor is
+ * created, so they are not read again from the annotation on every consumed event.
+ *
+ * @param name                Name of the handler ({@link SubscribeEvent#customName()} if defined)
+ * @param eventHandler        Invoker of the handler
+ * @param retry               Number of retries permitted
+ * @param condition           Condition to handle event (Spring Expression Language (SpEL) expression)
+ * @param conditionExpression Parsed condition, null if not parsed or no condition defined
+ * @param predicate           Condition to handle event as a predicate, null if not defined
+ * @param <T>                 Event related class type
+ * @author FezLight
+ */
+public record Handler<T extends Event>(String name, EventHandler<T> eventHandler, int retry, String condition,
+                                       ConditionExpression conditionExpression, Predicate<? super T> predicate) {
+
+    public Handler(String name, EventHandler<T> eventHandler) {
+        this(name, eventHandler, null);
+    }
+
+    /**
+     * Create a handler descriptor with a predicate condition.
+     *
+     * @param name         Name of the handler, if no custom name is defined
+     * @param eventHandler Invoker of the handler
+     * @param predicate    Predicate resolved from {@link SubscribeEvent#conditionBean()} or
+     *                     {@link SubscribeEvent#conditionClass()}, or provided manually
+     * @throws IllegalArgumentException if more than one condition is defined, or if the annotation declares a predicate
+     *                                  that is not provided
+     */
+    public Handler(String name, EventHandler<T> eventHandler, Predicate<? super T> predicate) {
+        this(name, eventHandler, eventHandler.getSubscribeEvent(), predicate);
     }
 
-    public int retry() {
-        return eventHandler.getSubscribeEvent().retry();
+    private Handler(String name, EventHandler<T> eventHandler, SubscribeEvent subscribeEvent,
+                    Predicate<? super T> predicate) {
+        this(
+                resolveName(name, subscribeEvent),
+                eventHandler,
+                subscribeEvent.retry(),
+                subscribeEvent.condition(),
+                null,
+                Handler.<T>checkPredicate(resolveName(name, subscribeEvent), subscribeEvent, predicate)
+        );
+    }
+
+    /**
+     * Method used to create a copy of this handler with its parsed condition.
+     *
+     * @param conditionExpression Parsed condition
+     * @return the handler with the parsed condition
+     */
+    public Handler<T> withConditionExpression(ConditionExpression conditionExpression) {
+        return new Handler<>(name, eventHandler, retry, condition, conditionExpression, predicate);
+    }
+
+    /**
+     * Method used to check if an event matches the condition of this handler.
+     * <p>
+     * Used when the handler is called alone, conditions of all handlers of an event type are evaluated together by
+     * {@link ConditionIndex}.
+     *
+     * @param event Event about to be handled
+     * @return true if the handler has no condition or if its condition matches
+     */
+    public boolean matches(T event) {
+        if (predicate != null) {
+            return predicate.test(event);
+        }
+
+        if (conditionExpression != null) {
+            return conditionExpression.matches(ConditionIndex.evaluationContext(event));
+        }
+
+        return true;
     }
 
     public void handle(T event) {
         eventHandler.handle(event);
     }
 
-    @Override
-    public String name() {
-        var customName = eventHandler.getSubscribeEvent().customName();
-        if (hasLength(customName)) {
-            return customName;
+    /**
+     * @return true if the handler receives events by batch (see {@link BatchEventHandler})
+     */
+    public boolean isBatch() {
+        return eventHandler instanceof BatchEventHandler;
+    }
+
+    /**
+     * Method used to call a batch handler with several events at once.
+     *
+     * @param events Events to handle
+     * @throws IllegalStateException if the handler is not a batch handler
+     */
+    public void handleBatch(List<T> events) {
+        if (!(eventHandler instanceof BatchEventHandler<T> batchEventHandler)) {
+            throw new IllegalStateException("Handler with name " + name + " is not a batch handler");
+        }
+
+        batchEventHandler.handleBatch(events);
+    }
+
+    /**
+     * @return true if the handler completes asynchronously (see {@link AsyncEventHandler})
+     */
+    public boolean isAsync() {
+        return eventHandler instanceof AsyncEventHandler;
+    }
+
+    /**
+     * Method used to call a handler without waiting for an async handler to complete.
+     *
+     * @param event Event to handle
+     * @return the future of an async handler, or a completed future once any other handler is done
+     */
+    public CompletableFuture<Void> handleAsync(T event) {
+        if (eventHandler instanceof AsyncEventHandler<T> asyncEventHandler) {
+            return asyncEventHandler.handleAsync(event);
+        }
+
+        eventHandler.handle(event);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static String resolveName(String name, SubscribeEvent subscribeEvent) {
+        return hasLength(subscribeEvent.customName()) ? subscribeEvent.customName() : name;
+    }
+
+    private static <T> Predicate<? super T> checkPredicate(String name, SubscribeEvent subscribeEvent,
+                                                           Predicate<? super T> predicate) {
+        boolean hasCondition = hasLength(subscribeEvent.condition());
+        boolean hasConditionBean = hasLength(subscribeEvent.conditionBean());
+        boolean hasConditionClass = subscribeEvent.conditionClass() != null
+                                    && subscribeEvent.conditionClass() != Predicate.class;
+
+        if ((hasCondition ? 1 : 0) + (hasConditionBean ? 1 : 0) + (hasConditionClass ? 1 : 0) > 1) {
+            throw new IllegalArgumentException("Handler with name " + name + " must define only one of 'condition', 'conditionBean' or 'conditionClass'");
+        }
+
+        if (predicate == null && (hasConditionBean || hasConditionClass)) {
+            throw new IllegalArgumentException("Handler with name " + name + " declares a predicate condition that has not been resolved");
+        }
+
+        if (predicate != null && hasCondition) {
+            throw new IllegalArgumentException("Handler with name " + name + " cannot define both a predicate and a 'condition'");
         }
 
-        return name;
+        return predicate;
     }
 }
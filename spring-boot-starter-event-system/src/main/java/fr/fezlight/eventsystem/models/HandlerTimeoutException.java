@@ -0,0 +1,17 @@
+package fr.fezlight.eventsystem.models;
+
+/**
+ * Exception thrown when a handler does not complete within its timeout (see
+ * {@link fr.fezlight.eventsystem.annotation.SubscribeEvent#timeout()}).
+ * <p>
+ * The event is then retried or rejected as any handler failure.
+ *
+ * @author FezLight
+ * @see BulkheadEventHandler
+ */
+public class HandlerTimeoutException extends RuntimeException {
+
+    public HandlerTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package fr.fezlight.eventsystem.models;
+
+import java.util.Objects;
+
+/**
+ * Application event used to call a handler in the instance that fanned out the event, instead of sending its
+ * {@link EventWrapper} to the worker queue.
+ * <p>
+ * Not externalized, it is only stored in the event publication registry until the handler is done.
+ *
+ * @param eventWrapper Wrapper of the handler to call
+ * @param <T>          Event related class type
+ * @author FezLight
+ */
+public record LocalEventWrapper<T extends Event>(EventWrapper<T> eventWrapper) {
+
+    public LocalEventWrapper {
+        Objects.requireNonNull(eventWrapper, "eventWrapper cannot be null");
+    }
+}
@@ -0,0 +1,103 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Implementation of {@link AsyncEventHandler} calling a method annotated with {@link SubscribeEvent} returning a
+ * {@link CompletionStage} (as {@link CompletableFuture}) or a Reactor {@code Mono}.
+ * <p>
+ * As {@link MethodEventHandler}, the method is bound once to its bean as a {@link MethodHandle}. An exception thrown by
+ * the method, or a null result, completes the future exceptionally.
+ *
+ * @author FezLight
+ */
+public class MethodAsyncEventHandler<E extends Event> implements AsyncEventHandler<E> {
+    private static final MethodType HANDLE_ASYNC_TYPE = MethodType.methodType(Object.class, Event.class);
+    private static final String MONO_CLASS_NAME = "reactor.core.publisher.Mono";
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent(
+            MONO_CLASS_NAME, MethodAsyncEventHandler.class.getClassLoader()
+    );
+
+    private final Method method;
+    private final MethodHandle methodHandle;
+    private final SubscribeEvent subscribeEvent;
+
+    public MethodAsyncEventHandler(Object bean, Method method) {
+        var invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+        ReflectionUtils.makeAccessible(invocableMethod);
+
+        try {
+            this.methodHandle = MethodHandles.lookup()
+                    .unreflect(invocableMethod)
+                    .bindTo(bean)
+                    .asType(HANDLE_ASYNC_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access method " + method, e);
+        }
+        this.method = method;
+        this.subscribeEvent = method.getAnnotation(SubscribeEvent.class);
+    }
+
+    @Override
+    public CompletableFuture<Void> handleAsync(E event) {
+        Object result;
+        try {
+            result = (Object) methodHandle.invokeExact((Event) event);
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (result instanceof CompletionStage<?> completionStage) {
+            return completionStage.toCompletableFuture().thenAccept(value -> {
+            });
+        }
+
+        if (result != null && REACTOR_PRESENT && ReactorAdapter.isMono(result)) {
+            return ReactorAdapter.toFuture(result);
+        }
+
+        return CompletableFuture.failedFuture(new IllegalStateException("Method " + method + " returned " + result));
+    }
+
+    @Override
+    public SubscribeEvent getSubscribeEvent() {
+        return subscribeEvent;
+    }
+
+    /**
+     * Method used to check if a method annotated with {@link SubscribeEvent} is an async handler.
+     *
+     * @param method Method annotated
+     * @return true if it returns a {@link CompletionStage} or a Reactor {@code Mono}
+     */
+    public static boolean isAsync(Method method) {
+        var returnType = method.getReturnType();
+        return CompletionStage.class.isAssignableFrom(returnType) || MONO_CLASS_NAME.equals(returnType.getName());
+    }
+
+    /**
+     * Reactor is optional, this class is only loaded when it is present.
+     */
+    private static final class ReactorAdapter {
+
+        static boolean isMono(Object result) {
+            return result instanceof Mono<?>;
+        }
+
+        static CompletableFuture<Void> toFuture(Object result) {
+            return ((Mono<?>) result).toFuture().thenAccept(value -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Implementation of {@link BatchEventHandler} calling a method annotated with {@link SubscribeEvent} whose parameter
+ * is a {@link List} of events.
+ * <p>
+ * As {@link MethodEventHandler}, the method is bound once to its bean as a {@link MethodHandle}.
+ *
+ * @author FezLight
+ */
+public class MethodBatchEventHandler<E extends Event> implements BatchEventHandler<E> {
+    private static final MethodType HANDLE_BATCH_TYPE = MethodType.methodType(void.class, List.class);
+
+    private final MethodHandle methodHandle;
+    private final SubscribeEvent subscribeEvent;
+
+    /**
+     * @throws IllegalArgumentException if the batch size or the batch timeout of the method is invalid
+     */
+    public MethodBatchEventHandler(Object bean, Method method) {
+        this.subscribeEvent = method.getAnnotation(SubscribeEvent.class);
+        if (subscribeEvent.batchSize() < 1) {
+            throw new IllegalArgumentException("Method " + method + " must have a 'batchSize' greater than 0");
+        }
+        getBatchTimeout(subscribeEvent);
+
+        var invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+        ReflectionUtils.makeAccessible(invocableMethod);
+
+        try {
+            this.methodHandle = MethodHandles.lookup()
+                    .unreflect(invocableMethod)
+                    .bindTo(bean)
+                    .asType(HANDLE_BATCH_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access method " + method, e);
+        }
+    }
+
+    @Override
+    public void handleBatch(List<E> events) {
+        try {
+            methodHandle.invokeExact(events);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    @Override
+    public SubscribeEvent getSubscribeEvent() {
+        return subscribeEvent;
+    }
+
+    /**
+     * Method used to check if a method annotated with {@link SubscribeEvent} is a batch handler.
+     *
+     * @param method Method annotated
+     * @return true if its only parameter is a {@link List}
+     */
+    public static boolean isBatch(Method method) {
+        return method.getParameterCount() == 1 && List.class.equals(method.getParameterTypes()[0]);
+    }
+
+    /**
+     * Method used to get the event type handled by a method annotated with {@link SubscribeEvent}.
+     *
+     * @param method Method annotated, with exactly one parameter
+     * @return the type of the elements of the list for a batch handler, the type of the parameter otherwise
+     * @throws IllegalArgumentException if the list of a batch handler has no event type
+     */
+    public static Class<?> getEventType(Method method) {
+        if (!isBatch(method)) {
+            return method.getParameterTypes()[0];
+        }
+
+        var eventType = ResolvableType.forMethodParameter(method, 0).asCollection().resolveGeneric(0);
+        if (eventType == null || !Event.class.isAssignableFrom(eventType)) {
+            throw new IllegalArgumentException("Method " + method + " must take a List of a type implementing Event");
+        }
+
+        return eventType;
+    }
+
+    /**
+     * Method used to parse the batch timeout of a handler.
+     *
+     * @return the batch timeout
+     * @throws IllegalArgumentException if {@link SubscribeEvent#batchTimeout()} is not a duration
+     */
+    public static Duration getBatchTimeout(SubscribeEvent subscribeEvent) {
+        try {
+            return DurationStyle.detectAndParse(subscribeEvent.batchTimeout());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid 'batchTimeout' " + subscribeEvent.batchTimeout(), e);
+        }
+    }
+}
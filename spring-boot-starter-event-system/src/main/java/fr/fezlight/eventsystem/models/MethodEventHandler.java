@@ -0,0 +1,58 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Implementation of {@link EventHandler} calling a method annotated with {@link SubscribeEvent} on a bean.
+ * <p>
+ * The method is bound once to its bean as a {@link MethodHandle}, so handling an event involves neither a reflective
+ * call nor an argument array allocation. Unchecked exceptions thrown by the method are propagated as is, checked
+ * ones are wrapped in an {@link UndeclaredThrowableException}.
+ *
+ * @author FezLight
+ */
+public class MethodEventHandler<E extends Event> implements EventHandler<E> {
+    private static final MethodType HANDLE_TYPE = MethodType.methodType(void.class, Event.class);
+
+    private final MethodHandle methodHandle;
+    private final SubscribeEvent subscribeEvent;
+
+    public MethodEventHandler(Object bean, Method method) {
+        var invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+        ReflectionUtils.makeAccessible(invocableMethod);
+
+        try {
+            this.methodHandle = MethodHandles.lookup()
+                    .unreflect(invocableMethod)
+                    .bindTo(bean)
+                    .asType(HANDLE_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access method " + method, e);
+        }
+        this.subscribeEvent = method.getAnnotation(SubscribeEvent.class);
+    }
+
+    @Override
+    public void handle(E event) {
+        try {
+            methodHandle.invokeExact((Event) event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    @Override
+    public SubscribeEvent getSubscribeEvent() {
+        return subscribeEvent;
+    }
+}
@@ -0,0 +1,166 @@
+package fr.fezlight.eventsystem;
+
+import com.rabbitmq.client.Channel;
+import fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncWorkerListenerTest {
+
+    @Mock
+    private EventListeners eventListeners;
+
+    @Mock
+    private EventRetryPublisher eventRetryPublisher;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private Channel channel;
+
+    @Test
+    void givenPendingHandler_whenOnMessage_ThenAcknowledgedOnceCompleted() throws Exception {
+        var eventWrapper = wrapper(0);
+        var message = message(eventWrapper, properties());
+        var future = new CompletableFuture<Void>();
+        when(eventListeners.processEventAsync(null, eventWrapper)).thenReturn(future);
+
+        listener().onMessage(message, channel);
+
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        future.complete(null);
+        verify(channel).basicAck(7L, false);
+        verifyNoInteractions(eventRetryPublisher);
+    }
+
+    @Test
+    void givenHandlerCompletedExceptionallyWithRetry_whenOnMessage_ThenSentToRetryAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(2);
+        var message = message(eventWrapper, properties());
+        var failure = new IllegalStateException("failure");
+        when(eventListeners.processEventAsync(null, eventWrapper)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        listener().onMessage(message, channel);
+
+        verify(eventRetryPublisher).retry(eventWrapper, failure);
+        verify(channel).basicAck(7L, false);
+        assertThat(eventWrapper.getRetryLeft()).isEqualTo(2);
+    }
+
+    @Test
+    void givenHandlerThrowingWithRetryLeftHeader_whenOnMessage_ThenRetryLeftFromHeader() throws Exception {
+        var eventWrapper = wrapper(3);
+        var properties = properties();
+        properties.setHeader(EventQueueConfig.AMQP_RETRY_LEFT_HEADER, 1);
+        var message = message(eventWrapper, properties);
+        var failure = new IllegalStateException("failure");
+        when(eventListeners.processEventAsync(null, eventWrapper)).thenThrow(failure);
+
+        listener().onMessage(message, channel);
+
+        verify(eventRetryPublisher).retry(eventWrapper, failure);
+        verify(channel).basicAck(7L, false);
+        assertThat(eventWrapper.getRetryLeft()).isEqualTo(1);
+    }
+
+    @Test
+    void givenBulkheadFullWithDeferralsHeader_whenOnMessage_ThenDeferredWithDeferralsAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(0);
+        var properties = properties();
+        properties.setHeader(EventQueueConfig.AMQP_DEFERRALS_HEADER, 2);
+        var message = message(eventWrapper, properties);
+        var failure = new BulkheadFullException("full");
+        when(eventListeners.processEventAsync(null, eventWrapper)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        listener().onMessage(message, channel);
+
+        verify(eventRetryPublisher).defer(eventWrapper, 2, failure);
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void givenHandlerCompletedExceptionallyWithoutRetry_whenOnMessage_ThenSentToErrorAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(0);
+        var message = message(eventWrapper, properties());
+        var failure = new IllegalStateException("failure");
+        when(eventListeners.processEventAsync(null, eventWrapper)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        listener().onMessage(message, channel);
+
+        verify(eventRetryPublisher).reject(eventWrapper, failure);
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void givenNotAWrapper_whenOnMessage_ThenRejected() throws Exception {
+        var message = new Message(new byte[0], properties());
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(message)).thenReturn("not a wrapper");
+
+        listener().onMessage(message, channel);
+
+        verify(channel).basicReject(7L, false);
+        verifyNoInteractions(eventListeners);
+    }
+
+    @Test
+    void givenUnconvertibleMessage_whenOnMessage_ThenRejected() throws Exception {
+        var message = new Message(new byte[0], properties());
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(message)).thenThrow(new MessageConversionException("invalid"));
+
+        listener().onMessage(message, channel);
+
+        verify(channel).basicReject(7L, false);
+        verifyNoInteractions(eventListeners);
+    }
+
+    private AsyncWorkerListener listener() {
+        return new AsyncWorkerListener(eventListeners, eventRetryPublisher, rabbitTemplate);
+    }
+
+    private Message message(EventWrapper<?> eventWrapper, MessageProperties properties) {
+        var message = new Message(new byte[0], properties);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(message)).thenReturn(eventWrapper);
+        return message;
+    }
+
+    private static MessageProperties properties() {
+        var properties = new MessageProperties();
+        properties.setDeliveryTag(7L);
+        return properties;
+    }
+
+    private static EventWrapper<TestAsyncEvent> wrapper(int retryLeft) {
+        return EventWrapper.<TestAsyncEvent>builder()
+                .event(new TestAsyncEvent("test"))
+                .handlerName("handler")
+                .retryLeft(retryLeft)
+                .build();
+    }
+
+    public record TestAsyncEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,168 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.BatchEventHandler;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchHandlerListenerTest {
+
+    @Mock
+    private EventRegistryConfig eventRegistryConfig;
+
+    @Mock
+    private EventRetryPublisher eventRetryPublisher;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    private final EventProperties eventProperties = new EventProperties();
+
+    private final List<List<Event>> batches = new ArrayList<>();
+
+    @Test
+    void given3Wrappers_whenOnMessageBatch_ThenHandlerCalledOnceWithEvents() {
+        var events = List.<Event>of(new TestBatchEvent("a"), new TestBatchEvent("b"), new TestBatchEvent("c"));
+        register(handler(null, 0));
+
+        listener().onMessageBatch(messages(events));
+
+        assertThat(batches).containsExactly(events);
+        verifyNoInteractions(eventRetryPublisher);
+    }
+
+    @Test
+    void givenFailingEvent_whenOnMessageBatch_ThenBatchSplitAndOnlyOffenderSentToRetryPath() {
+        var offender = new TestBatchEvent("offender");
+        var events = List.<Event>of(new TestBatchEvent("a"), new TestBatchEvent("b"), offender, new TestBatchEvent("c"));
+        var handler = register(handler(offender, 3));
+
+        listener().onMessageBatch(messages(events));
+
+        verify(eventRetryPublisher).onHandlerFailure(eq(handler), eq(offender), any(IllegalStateException.class));
+        verifyNoMoreInteractions(eventRetryPublisher);
+        assertThat(batches).containsExactly(
+                List.of(new TestBatchEvent("a"), new TestBatchEvent("b")),
+                List.of(new TestBatchEvent("c"))
+        );
+    }
+
+    @Test
+    void givenEventFailingWithCheckedException_whenOnMessageBatch_ThenBatchSplitAndOnlyOffenderSentToRetryPath() {
+        var offender = new TestBatchEvent("offender");
+        var events = List.<Event>of(new TestBatchEvent("a"), offender, new TestBatchEvent("b"));
+        var handler = register(handler(offender, new IOException("failure"), 3));
+
+        listener().onMessageBatch(messages(events));
+
+        verify(eventRetryPublisher).onHandlerFailure(eq(handler), eq(offender), any(IOException.class));
+        verifyNoMoreInteractions(eventRetryPublisher);
+        assertThat(batches).containsExactly(List.of(new TestBatchEvent("a")), List.of(new TestBatchEvent("b")));
+    }
+
+    @Test
+    void givenMessageNotWrapper_whenOnMessageBatch_ThenSentToErrorQueueAndOthersHandled() {
+        var event = new TestBatchEvent("a");
+        register(handler(null, 0));
+        var invalid = new Message(new byte[0], new MessageProperties());
+        var valid = new Message(new byte[0], new MessageProperties());
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(invalid)).thenReturn("invalid");
+        when(messageConverter.fromMessage(valid)).thenReturn(wrapper(event));
+
+        listener().onMessageBatch(List.of(invalid, valid));
+
+        verify(rabbitTemplate).send("events.error", "events.error", invalid);
+        assertThat(batches).containsExactly(List.of(event));
+    }
+
+    @Test
+    void givenUnknownHandler_whenOnMessageBatch_ThenNothingHandled() {
+        when(eventRegistryConfig.getByHandlerName("batch")).thenReturn(Optional.empty());
+
+        listener().onMessageBatch(List.of(new Message(new byte[0], new MessageProperties())));
+
+        verifyNoInteractions(rabbitTemplate, eventRetryPublisher);
+    }
+
+    private BatchHandlerListener listener() {
+        return new BatchHandlerListener("batch", eventRegistryConfig, eventRetryPublisher, rabbitTemplate, eventProperties);
+    }
+
+    private Handler<Event> register(Handler<Event> handler) {
+        doReturn(Optional.of(handler)).when(eventRegistryConfig).getByHandlerName("batch");
+        return handler;
+    }
+
+    /**
+     * @param offender Event failing the batches containing it, null if none
+     */
+    private Handler<Event> handler(Event offender, int retry) {
+        return handler(offender, new IllegalStateException("failure"), retry);
+    }
+
+    /**
+     * @param offender Event failing the batches containing it
+     * @param failure  Failure thrown by the batches containing the offender
+     */
+    private Handler<Event> handler(Event offender, Exception failure, int retry) {
+        BatchEventHandler<Event> batchEventHandler = mock(BatchEventHandler.class);
+        lenient().doAnswer(invocation -> {
+            List<Event> events = invocation.getArgument(0);
+            if (events.contains(offender)) {
+                throw failure;
+            }
+            batches.add(List.copyOf(events));
+            return null;
+        }).when(batchEventHandler).handleBatch(any());
+
+        return new Handler<>("batch", batchEventHandler, retry, "", null, null);
+    }
+
+    private List<Message> messages(List<Event> events) {
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        List<Message> messages = new ArrayList<>();
+        for (Event event : events) {
+            var message = new Message(new byte[0], new MessageProperties());
+            when(messageConverter.fromMessage(message)).thenReturn(wrapper(event));
+            messages.add(message);
+        }
+
+        return messages;
+    }
+
+    private EventWrapper<Event> wrapper(Event event) {
+        return EventWrapper.builder()
+                .event(event)
+                .handlerName("batch")
+                .retryLeft(0)
+                .build();
+    }
+
+    public record TestBatchEvent(String name) implements Event {
+    }
+}
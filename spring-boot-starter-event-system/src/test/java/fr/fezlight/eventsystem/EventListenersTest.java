@@ -1,22 +1,36 @@
 package fr.fezlight.eventsystem;
 
+import fr.fezlight.eventsystem.annotation.PartitionKey;
 import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.condition.ConditionExpressionCache;
+import fr.fezlight.eventsystem.condition.ConditionIndex;
 import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.ConfirmedFanOutPublisher;
 import fr.fezlight.eventsystem.config.rabbitmq.QueueNameResolver;
+import fr.fezlight.eventsystem.models.AsyncEventHandler;
+import fr.fezlight.eventsystem.models.BatchEventHandler;
 import fr.fezlight.eventsystem.models.Event;
 import fr.fezlight.eventsystem.models.EventHandler;
 import fr.fezlight.eventsystem.models.EventWrapper;
 import fr.fezlight.eventsystem.models.Handler;
+import fr.fezlight.eventsystem.models.LocalEventWrapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.context.ApplicationEventPublisher;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,7 +39,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class EventListenersTest {
 
-    @InjectMocks
     private EventListeners eventListeners;
 
     @Mock
@@ -37,6 +50,11 @@ class EventListenersTest {
     @Mock
     private QueueNameResolver queueNameResolver;
 
+    @BeforeEach
+    void setUp() {
+        eventListeners = new EventListeners(eventRegistryConfig, applicationEventPublisher, queueNameResolver);
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void given1EventWith3Handler_whenProcess_Then3HandlerFound() {
@@ -46,23 +64,252 @@ class EventListenersTest {
 
         when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
         when(subscribeEvent.condition()).thenReturn("");
-        when(eventRegistryConfig.getHandlers(TestEventListeners.class))
-                .thenReturn(List.of(
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
                         new Handler<>("handler1", eventHandler),
                         new Handler<>("handler2", eventHandler),
                         new Handler<>("handler3", eventHandler)
-                ));
+                ), new ConditionExpressionCache()));
 
         eventListeners.process(event);
 
         verify(applicationEventPublisher, times(3)).publishEvent(any(EventWrapper.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void given1EventWith2HandlerAndConfirmedFanOut_whenProcess_ThenWrappersPublishedWithConfirms() {
+        var confirmedFanOutPublisher = mock(ConfirmedFanOutPublisher.class);
+        var listeners = new EventListeners(eventRegistryConfig, queueNameResolver, confirmedFanOutPublisher, null);
+        var event = new TestEventListeners("test");
+        EventHandler<TestEventListeners> eventHandler = mock(EventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        new Handler<>("handler2", eventHandler)
+                ), new ConditionExpressionCache()));
+
+        listeners.process(event);
+
+        ArgumentCaptor<List<EventWrapper<TestEventListeners>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(confirmedFanOutPublisher).publish(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(EventWrapper::getHandlerName)
+                .containsExactly("handler1", "handler2");
+        verify(applicationEventPublisher, never()).publishEvent(any(EventWrapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void given1EventWith2HandlerAndGrouping_whenProcess_ThenSingleEnvelopePublished() {
+        var listeners = new EventListeners(
+                eventRegistryConfig, queueNameResolver, EventFanOut.outbox(applicationEventPublisher),
+                mock(GroupedHandlerInvoker.class)
+        );
+        var event = new TestEventListeners("test");
+        EventHandler<TestEventListeners> eventHandler = mock(EventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        new Handler<>("handler2", eventHandler)
+                ), new ConditionExpressionCache()));
+
+        listeners.process(event);
+
+        ArgumentCaptor<EventWrapper<TestEventListeners>> captor = ArgumentCaptor.forClass(EventWrapper.class);
+        verify(applicationEventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().isGrouped()).isTrue();
+        assertThat(captor.getValue().getHandlerNames()).containsExactly("handler1", "handler2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void given2HandlerAnd1BatchHandlerAndGrouping_whenProcess_ThenEnvelopeAndBatchWrapperPublished() {
+        var listeners = new EventListeners(
+                eventRegistryConfig, queueNameResolver, EventFanOut.outbox(applicationEventPublisher),
+                mock(GroupedHandlerInvoker.class)
+        );
+        var event = new TestEventListeners("test");
+        EventHandler<TestEventListeners> eventHandler = mock(EventHandler.class);
+        BatchEventHandler<TestEventListeners> batchEventHandler = mock(BatchEventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(batchEventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        new Handler<>("batch", batchEventHandler),
+                        new Handler<>("handler2", eventHandler)
+                ), new ConditionExpressionCache()));
+
+        listeners.process(event);
+
+        ArgumentCaptor<EventWrapper<TestEventListeners>> captor = ArgumentCaptor.forClass(EventWrapper.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues().get(0).isGrouped()).isTrue();
+        assertThat(captor.getAllValues().get(0).getHandlerNames()).containsExactly("handler1", "handler2");
+        assertThat(captor.getAllValues().get(1).isGrouped()).isFalse();
+        assertThat(captor.getAllValues().get(1).getHandlerName()).isEqualTo("batch");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void given1EventWith2HandlerAndLocalDispatch_whenProcess_ThenLocalWrappersPublished() {
+        var listeners = new EventListeners(
+                eventRegistryConfig, queueNameResolver, EventFanOut.local(applicationEventPublisher, eventRegistryConfig),
+                mock(GroupedHandlerInvoker.class)
+        );
+        var event = new TestEventListeners("test");
+        EventHandler<TestEventListeners> eventHandler = mock(EventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        new Handler<>("handler2", eventHandler)
+                ), new ConditionExpressionCache()));
+
+        listeners.process(event);
+
+        ArgumentCaptor<LocalEventWrapper<TestEventListeners>> captor = ArgumentCaptor.forClass(LocalEventWrapper.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(localEventWrapper -> localEventWrapper.eventWrapper().getHandlerName())
+                .containsExactly("handler1", "handler2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenHandlerAndBatchHandlerAndLocalDispatch_whenProcess_ThenBatchWrapperKeptOnBrokerPath() {
+        var listeners = new EventListeners(
+                eventRegistryConfig, queueNameResolver, EventFanOut.local(applicationEventPublisher, eventRegistryConfig),
+                null
+        );
+        var event = new TestEventListeners("test");
+        EventHandler<TestEventListeners> eventHandler = mock(EventHandler.class);
+        BatchEventHandler<TestEventListeners> batchEventHandler = mock(BatchEventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+        var batchHandler = new Handler<>("batch", batchEventHandler);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(batchEventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        batchHandler
+                ), new ConditionExpressionCache()));
+        doReturn(Optional.of(batchHandler)).when(eventRegistryConfig).getByHandlerName("batch");
+
+        listeners.process(event);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues().get(0)).isInstanceOf(LocalEventWrapper.class);
+        assertThat(captor.getAllValues().get(1)).isInstanceOfSatisfying(EventWrapper.class,
+                eventWrapper -> assertThat(eventWrapper.getHandlerName()).isEqualTo("batch"));
+    }
+
+    @Test
+    void givenGroupedEnvelope_whenProcessEvent_ThenInvokedByGroupedHandlerInvoker() {
+        var groupedHandlerInvoker = mock(GroupedHandlerInvoker.class);
+        var listeners = new EventListeners(
+                eventRegistryConfig, queueNameResolver, EventFanOut.outbox(applicationEventPublisher),
+                groupedHandlerInvoker
+        );
+        var envelope = EventWrapper.<TestEventListeners>builder()
+                .event(new TestEventListeners("test"))
+                .handlerNames(List.of("handler1", "handler2"))
+                .retryLeft(0)
+                .build();
+
+        listeners.processEvent(null, envelope);
+
+        verify(groupedHandlerInvoker).invoke(envelope);
+        verify(eventRegistryConfig, never()).getByHandlerName(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void given1EventFromJsonMessage_whenProcess_ThenWrappersCarryMessageJson() {
+        var event = new TestEventListeners("test");
+        var json = "{\"@class\":\"" + TestEventListeners.class.getName() + "\",\"eventName\":\"test\"}";
+        EventHandler<TestEventListeners> eventHandler = mock(EventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        new Handler<>("handler2", eventHandler)
+                ), new ConditionExpressionCache()));
+
+        eventListeners.process(event, jsonMessage(json));
+
+        ArgumentCaptor<EventWrapper<TestEventListeners>> captor = ArgumentCaptor.forClass(EventWrapper.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        var jsonMapper = JsonMapper.builder().build();
+        assertThat(captor.getAllValues())
+                .extracting(jsonMapper::writeValueAsString)
+                .allSatisfy(wrapperJson -> assertThat(wrapperJson).contains("\"event\":" + json));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void given1EventWithPartitionKey_whenProcess_ThenWrappersCarryOrderingKey() {
+        var event = new TestKeyedEventListeners("order-1");
+        EventHandler<TestKeyedEventListeners> eventHandler = mock(EventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+
+        when(eventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.condition()).thenReturn("");
+        when(eventRegistryConfig.getConditionIndex(TestKeyedEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestKeyedEventListeners.class, List.of(
+                        new Handler<>("handler1", eventHandler),
+                        new Handler<>("handler2", eventHandler)
+                ), new ConditionExpressionCache()));
+
+        eventListeners.process(event);
+
+        ArgumentCaptor<EventWrapper<TestKeyedEventListeners>> captor = ArgumentCaptor.forClass(EventWrapper.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(EventWrapper::getOrderingKey)
+                .containsOnly("order-1");
+    }
+
+    @Test
+    void givenMessageNotJson_whenGetEventJson_ThenNull() {
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_BYTES);
+
+        assertThat(EventListeners.getEventJson(new Message("{\"@class\":\"x\"}".getBytes(), properties))).isNull();
+        assertThat(EventListeners.getEventJson(null)).isNull();
+    }
+
+    @Test
+    void givenJsonMessageWithoutTypeId_whenGetEventJson_ThenNull() {
+        assertThat(EventListeners.getEventJson(jsonMessage("{\"eventName\":\"test\"}"))).isNull();
+    }
+
     @Test
     void given1EventWithNoHandler_whenProcess_ThenNoHandlerFoundNoError() {
         var event = new TestEventListeners("test");
-        when(eventRegistryConfig.getHandlers(TestEventListeners.class))
-                .thenReturn(List.of());
+        when(eventRegistryConfig.getConditionIndex(TestEventListeners.class))
+                .thenReturn(ConditionIndex.of(TestEventListeners.class, List.of(), new ConditionExpressionCache()));
 
         eventListeners.process(event);
 
@@ -99,6 +346,42 @@ class EventListenersTest {
             public String condition() {
                 return "";
             }
+
+            @Override
+            public String conditionBean() {
+                return "";
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Class<? extends Predicate> conditionClass() {
+                return Predicate.class;
+            }
+
+            @Override
+            public int batchSize() {
+                return 100;
+            }
+
+            @Override
+            public String batchTimeout() {
+                return "1s";
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return 0;
+            }
+
+            @Override
+            public String executor() {
+                return "";
+            }
+
+            @Override
+            public String timeout() {
+                return "";
+            }
         });
         when(eventRegistryConfig.<TestEventListeners>getByHandlerName("test"))
                 .thenReturn(Optional.of(new Handler<>("test", eventHandler)));
@@ -140,6 +423,30 @@ class EventListenersTest {
         verify(eventRegistryConfig, never()).getByHandlerName(anyString());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void given1EventWithAsyncHandler_whenProcessEventAsync_ThenHandlerFutureReturned() {
+        var eventWrapper = EventWrapper.<TestEventListeners>builder()
+                .event(new TestEventListeners("test"))
+                .handlerName("test")
+                .build();
+        AsyncEventHandler<TestEventListeners> asyncEventHandler = mock(AsyncEventHandler.class);
+        SubscribeEvent subscribeEvent = mock(SubscribeEvent.class);
+        var future = new CompletableFuture<Void>();
+
+        when(asyncEventHandler.getSubscribeEvent()).thenReturn(subscribeEvent);
+        when(subscribeEvent.retry()).thenReturn(2);
+        when(asyncEventHandler.handleAsync(eventWrapper.getEvent())).thenReturn(future);
+        when(eventRegistryConfig.<TestEventListeners>getByHandlerName("test"))
+                .thenReturn(Optional.of(new Handler<>("test", asyncEventHandler)));
+
+        var result = eventListeners.processEventAsync(null, eventWrapper);
+
+        assertThat(result).isSameAs(future);
+        assertThat(eventWrapper.getRetryLeft()).isEqualTo(2);
+        verify(asyncEventHandler, never()).handle(any());
+    }
+
     @Test
     void given1EventWithReplyToValid_whenProcessEvent_ThenConsuming() {
         var event = new TestEventListeners("test");
@@ -157,6 +464,16 @@ class EventListenersTest {
         verify(eventRegistryConfig, times(1)).getByHandlerName(anyString());
     }
 
+    private Message jsonMessage(String json) {
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding("UTF-8");
+        return new Message(json.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
     public record TestEventListeners(String eventName) implements Event {
     }
+
+    public record TestKeyedEventListeners(@PartitionKey String orderId) implements Event {
+    }
 }
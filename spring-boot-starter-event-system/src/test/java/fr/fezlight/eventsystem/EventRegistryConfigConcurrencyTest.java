@@ -0,0 +1,153 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRegistryConfigConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 500;
+
+    private final EventRegistryConfig eventRegistryConfig = new EventRegistryConfig();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(THREADS * 2);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void givenConcurrentRegistrations_whenGetHandlers_thenAllHandlersRegistered() throws Exception {
+        var start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    eventRegistryConfig.registerHandler(TestConcurrentEvent.class, e -> {
+                    }, 0, "");
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        var handlers = eventRegistryConfig.getHandlers(TestConcurrentEvent.class);
+        assertThat(handlers).hasSize(THREADS * ITERATIONS);
+        assertThat(handlers.stream().map(Handler::name).distinct()).hasSize(THREADS * ITERATIONS);
+        handlers.forEach(handler -> assertThat(eventRegistryConfig.getByHandlerName(handler.name())).isPresent());
+    }
+
+    @Test
+    void givenRegisterAndUnregisterUnderLoad_whenDispatching_thenReadersAlwaysSeeConsistentRegistry() throws Exception {
+        var stableHandler = eventRegistryConfig.registerHandler(TestConcurrentEvent.class, e -> {
+        }, 0, "#event.name == 'stable'");
+        var running = new AtomicBoolean(true);
+        var reads = new AtomicLong();
+        Set<String> unregistered = ConcurrentHashMap.newKeySet();
+        List<Future<?>> readers = new ArrayList<>();
+        List<Future<?>> writers = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            readers.add(executorService.submit(() -> {
+                var context = new StandardEvaluationContext();
+                context.setVariable("event", new TestConcurrentEvent("stable"));
+                while (running.get()) {
+                    var selected = eventRegistryConfig.getConditionIndex(TestConcurrentEvent.class).select(context);
+
+                    assertThat(selected).contains(stableHandler);
+                    assertThat(selected).doesNotHaveDuplicates();
+                    assertThat(eventRegistryConfig.getByHandlerName(stableHandler.name())).isPresent();
+                    reads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            writers.add(executorService.submit(() -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    var handler = eventRegistryConfig.registerHandler(TestConcurrentEvent.class, e -> {
+                    }, 0, i % 2 == 0 ? "" : "#event.name == 'stable'");
+                    eventRegistryConfig.unregisterHandler(TestConcurrentEvent.class, handler.name());
+                    unregistered.add(handler.name());
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(reads).hasPositiveValue();
+        assertThat(unregistered).hasSize(THREADS * ITERATIONS);
+        assertThat(eventRegistryConfig.getHandlers(TestConcurrentEvent.class)).containsExactly(stableHandler);
+        unregistered.forEach(name -> assertThat(eventRegistryConfig.getByHandlerName(name)).isEmpty());
+    }
+
+    @Test
+    void givenConcurrentRegistrationsOnSupertype_whenGetHandlersOfSubtype_thenAllHandlersResolved() throws Exception {
+        var start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            var supertype = thread % 2 == 0;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (supertype) {
+                        eventRegistryConfig.registerHandler(TestConcurrentSuperEvent.class, e -> {
+                        }, 0, "");
+                    } else {
+                        eventRegistryConfig.registerHandler(TestConcurrentEvent.class, e -> {
+                        }, 0, "");
+                    }
+                    eventRegistryConfig.getHandlers(TestConcurrentEvent.class);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(eventRegistryConfig.getHandlers(TestConcurrentEvent.class)).hasSize(THREADS * ITERATIONS);
+        assertThat(eventRegistryConfig.getHandlers(TestConcurrentSuperEvent.class)).hasSize(THREADS * ITERATIONS / 2);
+    }
+
+    public interface TestConcurrentSuperEvent extends Event {
+    }
+
+    public record TestConcurrentEvent(String name) implements TestConcurrentSuperEvent {
+    }
+}
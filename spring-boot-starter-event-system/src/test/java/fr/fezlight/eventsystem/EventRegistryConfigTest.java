@@ -2,6 +2,7 @@ package fr.fezlight.eventsystem;
 
 import fr.fezlight.eventsystem.annotation.SubscribeEvent;
 import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.EventRegistryListener;
 import fr.fezlight.eventsystem.models.Event;
 import fr.fezlight.eventsystem.models.EventHandler;
 import fr.fezlight.eventsystem.models.Handler;
@@ -11,9 +12,16 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class EventRegistryConfigTest {
@@ -42,6 +50,42 @@ public class EventRegistryConfigTest {
         public String condition() {
             return "";
         }
+
+        @Override
+        public String conditionBean() {
+            return "";
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Class<? extends Predicate> conditionClass() {
+            return Predicate.class;
+        }
+
+        @Override
+        public int batchSize() {
+            return 100;
+        }
+
+        @Override
+        public String batchTimeout() {
+            return "1s";
+        }
+
+        @Override
+        public int maxConcurrency() {
+            return 0;
+        }
+
+        @Override
+        public String executor() {
+            return "";
+        }
+
+        @Override
+        public String timeout() {
+            return "";
+        }
     };
 
     @Test
@@ -173,6 +217,32 @@ public class EventRegistryConfigTest {
         assertThat(eventRegistryConfig.getHandlers(TestEventRegistry.class)).isEmpty();
     }
 
+    @Test
+    void givenLastHandlerOfCondition_whenUnregisterHandler_thenConditionEvicted() {
+        var handler = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "#event.eventName == 'test'");
+        var cache = eventRegistryConfig.getConditionExpressionCache();
+        var expression = cache.register(TestEventRegistry.class, "#event.eventName == 'test'");
+
+        eventRegistryConfig.unregisterHandler(TestEventRegistry.class, handler.name());
+
+        assertThat(cache.register(TestEventRegistry.class, "#event.eventName == 'test'")).isNotSameAs(expression);
+    }
+
+    @Test
+    void givenConditionSharedByAnotherHandler_whenUnregisterHandler_thenConditionKept() {
+        var handler = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "#event.eventName == 'test'");
+        eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "#event.eventName == 'test'");
+        var cache = eventRegistryConfig.getConditionExpressionCache();
+        var expression = cache.register(TestEventRegistry.class, "#event.eventName == 'test'");
+
+        eventRegistryConfig.unregisterHandler(TestEventRegistry.class, handler.name());
+
+        assertThat(cache.register(TestEventRegistry.class, "#event.eventName == 'test'")).isSameAs(expression);
+    }
+
     @Test
     void givenNoRegisteredEventHandler_whenUnregisterHandler_thenOnlyLog() {
         eventRegistryConfig.unregisterHandler(TestEventRegistry.class, "test");
@@ -181,6 +251,348 @@ public class EventRegistryConfigTest {
         assertThat(eventRegistryConfig.getHandlers(TestEventRegistry.class)).isEmpty();
     }
 
+    @Test
+    void givenRegisteredEventHandler_whenUnregisterHandlerOfOtherEvent_thenHandlerStillFound() {
+        var handler = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        eventRegistryConfig.registerHandler(TestOtherEventRegistry.class, e -> {
+        }, 0, "");
+
+        eventRegistryConfig.unregisterHandler(TestOtherEventRegistry.class, handler.name());
+
+        assertThat(eventRegistryConfig.getByHandlerName(handler.name())).isPresent();
+    }
+
+    @Test
+    void givenRegisteredEventHandler_whenClear_thenHandlerNotFound() {
+        var handler = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+
+        eventRegistryConfig.clear();
+
+        assertThat(eventRegistryConfig.getByHandlerName(handler.name())).isEmpty();
+        assertThat(eventRegistryConfig.getHandlers(TestEventRegistry.class)).isEmpty();
+    }
+
+    @Test
+    void givenHandlerRegisteredForSupertype_whenGetHandlersOfSubtype_thenReturnSupertypeHandler() {
+        var subtypeHandler = eventRegistryConfig.registerHandler(TestSubEventRegistry.class, e -> {
+        }, 0, "");
+        var supertypeHandler = eventRegistryConfig.registerHandler(TestSuperEventRegistry.class, e -> {
+        }, 0, "");
+
+        assertThat(eventRegistryConfig.getHandlers(TestSubEventRegistry.class))
+                .containsExactly(subtypeHandler, supertypeHandler);
+        assertThat(eventRegistryConfig.getHandlers(TestEventRegistry.class)).isEmpty();
+    }
+
+    @Test
+    void givenResolvedHandlers_whenRegisterHandlerForSupertype_thenResolvedAgain() {
+        assertThat(eventRegistryConfig.getHandlers(TestSubEventRegistry.class)).isEmpty();
+
+        var handler = eventRegistryConfig.registerHandler(TestSuperEventRegistry.class, e -> {
+        }, 0, "");
+
+        assertThat(eventRegistryConfig.getHandlers(TestSubEventRegistry.class)).containsExactly(handler);
+
+        eventRegistryConfig.unregisterHandler(TestSuperEventRegistry.class, handler.name());
+
+        assertThat(eventRegistryConfig.getHandlers(TestSubEventRegistry.class)).isEmpty();
+    }
+
+    @Test
+    void givenEventHandlerWithInvalidCondition_whenRegisterHandler_thenThrowException() {
+        var e = assertThrows(IllegalArgumentException.class,
+                () -> eventRegistryConfig.registerHandler(TestEventRegistry.class, event -> {
+                }, 0, "#event.eventName =="));
+
+        assertThat(e).hasMessageContaining("has an invalid condition '#event.eventName =='");
+    }
+
+    @Test
+    void givenEventHandlerWithCustomName_whenRegisterHandler_thenDescriptorResolvedOnce() {
+        var calls = new AtomicInteger();
+        var customSubscribeEvent = new SubscribeEvent() {
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return SubscribeEvent.class;
+            }
+
+            @Override
+            public String customName() {
+                return "custom";
+            }
+
+            @Override
+            public int retry() {
+                return 3;
+            }
+
+            @Override
+            public String condition() {
+                return "#event.eventName == 'test'";
+            }
+
+            @Override
+            public String conditionBean() {
+                return "";
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Class<? extends Predicate> conditionClass() {
+                return Predicate.class;
+            }
+
+            @Override
+            public int batchSize() {
+                return 100;
+            }
+
+            @Override
+            public String batchTimeout() {
+                return "1s";
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return 0;
+            }
+
+            @Override
+            public String executor() {
+                return "";
+            }
+
+            @Override
+            public String timeout() {
+                return "";
+            }
+        };
+
+        var handler = eventRegistryConfig.registerHandler("test", TestEventRegistry.class, new EventHandler<>() {
+            @Override
+            public void handle(TestEventRegistry event) {
+                // Nothing
+            }
+
+            @Override
+            public SubscribeEvent getSubscribeEvent() {
+                calls.incrementAndGet();
+                return customSubscribeEvent;
+            }
+        });
+
+        assertThat(handler.name()).isEqualTo("custom");
+        assertThat(handler.retry()).isEqualTo(3);
+        assertThat(handler.condition()).isEqualTo("#event.eventName == 'test'");
+        assertThat(handler.conditionExpression()).isNotNull();
+        assertThat(eventRegistryConfig.getByHandlerName("custom")).get().isSameAs(handler);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void givenEventHandlerConsumerWithPredicate_whenSelect_thenOnlyMatchingHandlerSelected() {
+        var matching = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, (Predicate<TestEventRegistry>) event -> event.eventName().equals("test"));
+        eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, (Predicate<TestEventRegistry>) event -> event.eventName().equals("other"));
+
+        var result = eventRegistryConfig.getConditionIndex(TestEventRegistry.class).select(new TestEventRegistry("test"));
+
+        assertThat(result).containsExactly(matching);
+        assertThat(matching.predicate()).isNotNull();
+    }
+
+    @Test
+    void givenEventHandlerDeclaringUnresolvedPredicate_whenRegisterHandler_thenThrowException() {
+        var predicateSubscribeEvent = new SubscribeEvent() {
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return SubscribeEvent.class;
+            }
+
+            @Override
+            public String customName() {
+                return "";
+            }
+
+            @Override
+            public int retry() {
+                return 0;
+            }
+
+            @Override
+            public String condition() {
+                return "";
+            }
+
+            @Override
+            public String conditionBean() {
+                return "predicate";
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Class<? extends Predicate> conditionClass() {
+                return Predicate.class;
+            }
+
+            @Override
+            public int batchSize() {
+                return 100;
+            }
+
+            @Override
+            public String batchTimeout() {
+                return "1s";
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return 0;
+            }
+
+            @Override
+            public String executor() {
+                return "";
+            }
+
+            @Override
+            public String timeout() {
+                return "";
+            }
+        };
+
+        var e = assertThrows(IllegalArgumentException.class,
+                () -> eventRegistryConfig.registerHandler("test", TestEventRegistry.class, new EventHandler<>() {
+                    @Override
+                    public void handle(TestEventRegistry event) {
+                        // Nothing
+                    }
+
+                    @Override
+                    public SubscribeEvent getSubscribeEvent() {
+                        return predicateSubscribeEvent;
+                    }
+                }));
+
+        assertThat(e).hasMessage("Handler with name test declares a predicate condition that has not been resolved");
+    }
+
+    @Test
+    void givenListener_whenRegisterHandlers_thenNotifiedOncePerEventType() {
+        var listener = mock(EventRegistryListener.class);
+        eventRegistryConfig.addListener(listener);
+
+        eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        eventRegistryConfig.registerHandler(TestOtherEventRegistry.class, e -> {
+        }, 0, "");
+
+        verify(listener).onEventTypeRegistered(TestEventRegistry.class);
+        verify(listener).onEventTypeRegistered(TestOtherEventRegistry.class);
+        assertThat(eventRegistryConfig.getEventTypes())
+                .containsExactly(TestEventRegistry.class, TestOtherEventRegistry.class);
+    }
+
+    @Test
+    void givenListener_whenUnregisterLastHandler_thenNotified() {
+        var listener = mock(EventRegistryListener.class);
+        var first = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        var second = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        eventRegistryConfig.addListener(listener);
+
+        eventRegistryConfig.unregisterHandler(TestEventRegistry.class, first.name());
+
+        verify(listener, never()).onEventTypeUnregistered(TestEventRegistry.class);
+
+        eventRegistryConfig.unregisterHandler(TestEventRegistry.class, second.name());
+
+        verify(listener).onEventTypeUnregistered(TestEventRegistry.class);
+        assertThat(eventRegistryConfig.getEventTypes()).isEmpty();
+    }
+
+    @Test
+    void givenListener_whenClear_thenNotifiedOfEveryHandlerAndEventType() {
+        var listener = mock(EventRegistryListener.class);
+        var first = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        var second = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        var other = eventRegistryConfig.registerHandler(TestOtherEventRegistry.class, e -> {
+        }, 0, "");
+        eventRegistryConfig.addListener(listener);
+
+        eventRegistryConfig.clear();
+
+        verify(listener).onHandlerUnregistered(TestEventRegistry.class, first);
+        verify(listener).onHandlerUnregistered(TestEventRegistry.class, second);
+        verify(listener).onHandlerUnregistered(TestOtherEventRegistry.class, other);
+        verify(listener).onEventTypeUnregistered(TestEventRegistry.class);
+        verify(listener).onEventTypeUnregistered(TestOtherEventRegistry.class);
+        assertThat(eventRegistryConfig.getEventTypes()).isEmpty();
+    }
+
+    @Test
+    void givenListener_whenRegisterAndUnregisterHandler_thenNotifiedWithHandler() {
+        var listener = mock(EventRegistryListener.class);
+        eventRegistryConfig.addListener(listener);
+
+        var handler = eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+        eventRegistryConfig.unregisterHandler(TestEventRegistry.class, handler.name());
+
+        verify(listener).onHandlerRegistered(TestEventRegistry.class, handler);
+        verify(listener).onHandlerUnregistered(TestEventRegistry.class, handler);
+        assertThat(eventRegistryConfig.getRegisteredHandlers()).containsEntry(TestEventRegistry.class, List.of());
+    }
+
+    @Test
+    void givenListener_whenRegisterHandler_thenHandlerVisibleWhenNotified() {
+        List<Boolean> found = new ArrayList<>();
+        eventRegistryConfig.addListener(new EventRegistryListener() {
+            @Override
+            public void onEventTypeRegistered(Class<? extends Event> event) {
+            }
+
+            @Override
+            public void onHandlerRegistered(Class<? extends Event> event, Handler<?> handler) {
+                found.add(eventRegistryConfig.getByHandlerName(handler.name()).isPresent());
+            }
+        });
+
+        eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, "");
+
+        assertThat(found).containsExactly(true);
+    }
+
+    @Test
+    void givenFailingListener_whenRegisterHandler_thenHandlerNotRegistered() {
+        eventRegistryConfig.addListener(event -> {
+            throw new IllegalStateException("Broker unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, () -> eventRegistryConfig.registerHandler(TestEventRegistry.class, e -> {
+        }, 0, ""));
+
+        assertThat(eventRegistryConfig.getHandlers(TestEventRegistry.class)).isEmpty();
+    }
+
     public record TestEventRegistry(String eventName) implements Event {
     }
+
+    public record TestOtherEventRegistry(String eventName) implements Event {
+    }
+
+    public interface TestSuperEventRegistry extends Event {
+    }
+
+    public record TestSubEventRegistry(String eventName) implements TestSuperEventRegistry {
+    }
 }
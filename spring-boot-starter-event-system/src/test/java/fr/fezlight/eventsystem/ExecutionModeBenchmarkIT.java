@@ -0,0 +1,110 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventHandler;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Handlers per second called by a {@link GroupedHandlerInvoker} on platform and on virtual threads, for handlers
+ * blocking 10 ms and 100, 1 000 and 10 000 handlers called at the same time.
+ * <p>
+ * Run with <b>-Dbenchmark=true</b> on Java 21 or later.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExecutionModeBenchmarkIT {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeBenchmarkIT.class);
+
+    private static final int ROUNDS = 10;
+    private static final long BLOCKING_MILLIS = 10;
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    void givenBlockingHandlers_whenInvoke_ThenReportHandlersPerSecond(int concurrency) {
+        var platform = run(Mode.PLATFORM, concurrency);
+        var virtual = run(Mode.VIRTUAL_THREADS, concurrency);
+
+        log.info("Concurrency {} : {} handlers/s on platform threads, {} handlers/s on virtual threads",
+                concurrency, platform, virtual);
+    }
+
+    private long run(Mode mode, int concurrency) {
+        var eventRegistryConfig = mock(EventRegistryConfig.class);
+        var eventRetryPublisher = mock(EventRetryPublisher.class);
+        var handled = new LongAdder();
+
+        List<String> handlerNames = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            var name = "handler" + i;
+            handlerNames.add(name);
+            doReturn(Optional.of(new Handler<>(name, blocking(handled), 0, "", null, null)))
+                    .when(eventRegistryConfig).getByHandlerName(name);
+        }
+
+        var envelope = EventWrapper.<BenchmarkEvent>builder()
+                .event(new BenchmarkEvent("benchmark"))
+                .handlerNames(handlerNames)
+                .retryLeft(0)
+                .build();
+
+        long start;
+        long end;
+        try (var invoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, concurrency,
+                EventThreads.factory(mode, "event-benchmark-"))) {
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                invoker.invoke(envelope);
+            }
+            end = System.nanoTime();
+        }
+
+        assertThat(handled.sum()).isEqualTo((long) ROUNDS * concurrency);
+        verifyNoInteractions(eventRetryPublisher);
+        return ROUNDS * concurrency * 1_000_000_000L / (end - start);
+    }
+
+    private static EventHandler<BenchmarkEvent> blocking(LongAdder handled) {
+        return new EventHandler<>() {
+            @Override
+            public void handle(BenchmarkEvent event) {
+                try {
+                    Thread.sleep(BLOCKING_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                handled.increment();
+            }
+
+            @Override
+            public SubscribeEvent getSubscribeEvent() {
+                return null;
+            }
+        };
+    }
+
+    public record BenchmarkEvent(String name) implements Event {
+    }
+}
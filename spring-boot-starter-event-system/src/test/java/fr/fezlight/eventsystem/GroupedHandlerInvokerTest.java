@@ -0,0 +1,200 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventHandler;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupedHandlerInvokerTest {
+
+    @Mock
+    private EventRegistryConfig eventRegistryConfig;
+
+    @Mock
+    private EventRetryPublisher eventRetryPublisher;
+
+    @Mock
+    private EventHandler<TestGroupedEvent> handler1;
+
+    @Mock
+    private EventHandler<TestGroupedEvent> handler2;
+
+    private GroupedHandlerInvoker groupedHandlerInvoker;
+
+    @AfterEach
+    void tearDown() {
+        if (groupedHandlerInvoker != null) {
+            groupedHandlerInvoker.close();
+        }
+    }
+
+    @Test
+    void givenParallelismZero_whenCreateInvoker_ThenThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 0));
+    }
+
+    @Test
+    void given2Handlers_whenInvoke_ThenHandledConcurrently() throws InterruptedException {
+        var event = new TestGroupedEvent("test");
+        var bothStarted = new CountDownLatch(2);
+        doAnswer(invocation -> awaitOther(bothStarted)).when(handler1).handle(event);
+        doAnswer(invocation -> awaitOther(bothStarted)).when(handler2).handle(event);
+        register(handler("handler1", handler1, 0), handler("handler2", handler2, 0));
+        groupedHandlerInvoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 2);
+
+        groupedHandlerInvoker.invoke(envelope(event));
+
+        assertThat(bothStarted.await(0, TimeUnit.SECONDS)).isTrue();
+        verifyNoInteractions(eventRetryPublisher);
+    }
+
+    @Test
+    void givenFailingHandler_whenInvoke_ThenOnlyFailedHandlerSplitToRetryPath() {
+        var event = new TestGroupedEvent("test");
+        var failure = new IllegalStateException("failure");
+        doThrow(failure).when(handler2).handle(event);
+        var failingHandler = handler("handler2", handler2, 3);
+        register(handler("handler1", handler1, 0), failingHandler);
+        groupedHandlerInvoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 2);
+
+        groupedHandlerInvoker.invoke(envelope(event));
+
+        verify(eventRetryPublisher).onHandlerFailure(failingHandler, event, failure);
+        verifyNoMoreInteractions(eventRetryPublisher);
+        verify(handler1).handle(event);
+    }
+
+    @Test
+    void givenFailureNotSent_whenInvoke_ThenOtherFailuresSentAndEnvelopeNarrowed() {
+        var event = new TestGroupedEvent("test");
+        var failure1 = new IllegalStateException("failure1");
+        var failure2 = new IllegalStateException("failure2");
+        doThrow(failure1).when(handler1).handle(event);
+        doThrow(failure2).when(handler2).handle(event);
+        var failingHandler1 = handler("handler1", handler1, 2);
+        var failingHandler2 = handler("handler2", handler2, 3);
+        register(failingHandler1, failingHandler2);
+        doThrow(new AmqpConnectException(new IOException("broker down")))
+                .when(eventRetryPublisher).onHandlerFailure(failingHandler1, event, failure1);
+        groupedHandlerInvoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 2);
+        var envelope = envelope(event);
+
+        assertThrows(IllegalStateException.class, () -> groupedHandlerInvoker.invoke(envelope));
+
+        verify(eventRetryPublisher).onHandlerFailure(failingHandler2, event, failure2);
+        assertThat(envelope.getHandlerNames()).containsExactly("handler1");
+        assertThat(envelope.getRetryLeft()).isEqualTo(2);
+    }
+
+    @Test
+    void givenNarrowedEnvelope_whenRetried_ThenOnlyHandlersOfUnsentFailuresCalled() {
+        var event = new TestGroupedEvent("test");
+        var failure = new IllegalStateException("failure");
+        doThrow(failure).doNothing().when(handler1).handle(event);
+        var failingHandler = handler("handler1", handler1, 2);
+        register(failingHandler, handler("handler2", handler2, 3));
+        doThrow(new AmqpConnectException(new IOException("broker down")))
+                .when(eventRetryPublisher).onHandlerFailure(failingHandler, event, failure);
+        groupedHandlerInvoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 2);
+        var envelope = envelope(event);
+        assertThrows(IllegalStateException.class, () -> groupedHandlerInvoker.invoke(envelope));
+
+        var jsonMapper = JsonMapper.builder().build();
+        EventWrapper<TestGroupedEvent> retried = jsonMapper.readValue(jsonMapper.writeValueAsString(envelope),
+                new TypeReference<>() {
+                });
+        groupedHandlerInvoker.invoke(retried);
+
+        assertThat(retried.getHandlerNames()).containsExactly("handler1");
+        verify(handler1, times(2)).handle(event);
+        verify(handler2).handle(event);
+    }
+
+    @Test
+    void givenUnknownHandler_whenInvoke_ThenOtherHandlersCalled() {
+        var event = new TestGroupedEvent("test");
+        doReturn(Optional.empty()).when(eventRegistryConfig).getByHandlerName("unknown");
+        register(handler("handler1", handler1, 0));
+        groupedHandlerInvoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 2);
+
+        groupedHandlerInvoker.invoke(EventWrapper.<TestGroupedEvent>builder()
+                .event(event)
+                .handlerNames(List.of("unknown", "handler1"))
+                .retryLeft(0)
+                .build());
+
+        verify(handler1).handle(event);
+        verifyNoInteractions(eventRetryPublisher);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void givenVirtualThreadsMode_whenInvoke_ThenHandledOnVirtualThreads() {
+        var event = new TestGroupedEvent("test");
+        var threadNames = new ConcurrentLinkedQueue<String>();
+        doAnswer(invocation -> threadNames.add(Thread.currentThread().getName())).when(handler1).handle(event);
+        doAnswer(invocation -> threadNames.add(Thread.currentThread().getName())).when(handler2).handle(event);
+        register(handler("handler1", handler1, 0), handler("handler2", handler2, 0));
+        groupedHandlerInvoker = new GroupedHandlerInvoker(eventRegistryConfig, eventRetryPublisher, 2,
+                EventThreads.factory(Mode.VIRTUAL_THREADS, "event-grouped-"));
+
+        groupedHandlerInvoker.invoke(envelope(event));
+
+        assertThat(threadNames).hasSize(2).allMatch(name -> name.startsWith("event-grouped-"));
+        verifyNoInteractions(eventRetryPublisher);
+    }
+
+    private Object awaitOther(CountDownLatch bothStarted) throws InterruptedException {
+        bothStarted.countDown();
+        assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return null;
+    }
+
+    @SafeVarargs
+    private void register(Handler<TestGroupedEvent>... handlers) {
+        for (Handler<TestGroupedEvent> handler : handlers) {
+            doReturn(Optional.of(handler)).when(eventRegistryConfig).getByHandlerName(handler.name());
+        }
+    }
+
+    private Handler<TestGroupedEvent> handler(String name, EventHandler<TestGroupedEvent> eventHandler, int retry) {
+        return new Handler<>(name, eventHandler, retry, "", null, null);
+    }
+
+    private EventWrapper<TestGroupedEvent> envelope(TestGroupedEvent event) {
+        return EventWrapper.<TestGroupedEvent>builder()
+                .event(event)
+                .handlerNames(List.of("handler1", "handler2"))
+                .retryLeft(0)
+                .build();
+    }
+
+    public record TestGroupedEvent(String name) implements Event {
+    }
+}
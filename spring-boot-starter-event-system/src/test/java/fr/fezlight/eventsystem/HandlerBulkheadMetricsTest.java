@@ -0,0 +1,65 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.models.BulkheadEventHandler;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandlerBulkheadMetricsTest {
+    private final EventRegistryConfig eventRegistryConfig = new EventRegistryConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void givenBulkheadRegisteredBeforeBinding_whenBindTo_ThenMetersRegistered() throws NoSuchMethodException {
+        eventRegistryConfig.registerHandler("bulkhead", TestMetricsEvent.class, bulkhead());
+
+        new HandlerBulkheadMetrics(eventRegistryConfig).bindTo(meterRegistry);
+
+        assertThat(meterRegistry.find("events.handler.bulkhead.active").tag("handler", "bulkhead").gauge()).isNotNull();
+    }
+
+    @Test
+    void givenBulkheadRegisteredAfterBinding_whenRegisterAndUnregister_ThenMetersRegisteredThenRemoved()
+            throws NoSuchMethodException {
+        new HandlerBulkheadMetrics(eventRegistryConfig).bindTo(meterRegistry);
+
+        eventRegistryConfig.registerHandler("bulkhead", TestMetricsEvent.class, bulkhead());
+
+        assertThat(meterRegistry.find("events.handler.bulkhead.active").tag("handler", "bulkhead").gauge()).isNotNull();
+        assertThat(meterRegistry.find("events.handler.bulkhead.rejected").tag("handler", "bulkhead").functionCounter())
+                .isNotNull();
+
+        eventRegistryConfig.unregisterHandler(TestMetricsEvent.class, "bulkhead");
+
+        assertThat(meterRegistry.find("events.handler.bulkhead.active").meters()).isEmpty();
+        assertThat(meterRegistry.find("events.handler.bulkhead.rejected").meters()).isEmpty();
+    }
+
+    @SubscribeEvent(maxConcurrency = 1)
+    void handle(TestMetricsEvent event) {
+    }
+
+    private BulkheadEventHandler<TestMetricsEvent> bulkhead() throws NoSuchMethodException {
+        var subscribeEvent = getClass().getDeclaredMethod("handle", TestMetricsEvent.class)
+                .getAnnotation(SubscribeEvent.class);
+
+        return new BulkheadEventHandler<>(new EventHandler<>() {
+            @Override
+            public void handle(TestMetricsEvent event) {
+            }
+
+            @Override
+            public SubscribeEvent getSubscribeEvent() {
+                return subscribeEvent;
+            }
+        }, subscribeEvent.maxConcurrency(), null, null);
+    }
+
+    public record TestMetricsEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,163 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.rabbitmq.HandlerQueueTopology;
+import fr.fezlight.eventsystem.config.rabbitmq.QueueNameResolver;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventHandler;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HandlerQueueListenerTest {
+
+    @Mock
+    private EventRegistryConfig eventRegistryConfig;
+
+    @Mock
+    private HandlerQueueTopology handlerQueueTopology;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    @Mock
+    private EventHandler<Event> eventHandler;
+
+    private HandlerQueueListener handlerQueueListener() {
+        return handlerQueueListener(new EventProperties());
+    }
+
+    private HandlerQueueListener handlerQueueListener(EventProperties eventProperties) {
+        return new HandlerQueueListener(
+                eventRegistryConfig, handlerQueueTopology, rabbitTemplate, eventProperties, queueNameResolver
+        );
+    }
+
+    @Test
+    void givenMatchingCondition_whenProcess_ThenHandle() {
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 0, "", null, e -> true);
+
+        handlerQueueListener().process(handler, event);
+
+        verify(eventHandler).handle(event);
+    }
+
+    @Test
+    void givenNotMatchingCondition_whenProcess_ThenNotHandled() {
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 0, "", null, e -> false);
+
+        handlerQueueListener().process(handler, event);
+
+        verify(eventHandler, never()).handle(any());
+    }
+
+    @Test
+    void givenFailingHandlerWithoutRetry_whenProcess_ThenReject() {
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 0, "", null, null);
+        doThrow(new IllegalStateException("failure")).when(eventHandler).handle(event);
+
+        assertThrows(AmqpRejectAndDontRequeueException.class, () -> handlerQueueListener().process(handler, event));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenFailingHandlerWithRetry_whenProcess_ThenSendToRetryQueue() {
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 2, "", null, null);
+        doThrow(new IllegalStateException("failure")).when(eventHandler).handle(event);
+
+        handlerQueueListener().process(handler, event);
+
+        ArgumentCaptor<EventWrapper<Event>> captor = ArgumentCaptor.forClass(EventWrapper.class);
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.retry"), captor.capture(),
+                any(MessagePostProcessor.class));
+        assertThat(captor.getValue().getHandlerName()).isEqualTo("handler");
+        assertThat(captor.getValue().getEvent()).isEqualTo(event);
+        assertThat(captor.getValue().getRetryLeft()).isEqualTo(2);
+    }
+
+    @Test
+    void givenHandlerFailingWithCheckedExceptionWithRetry_whenProcess_ThenSendToRetryQueue() {
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 2, "", null, null);
+        doAnswer(invocation -> {
+            throw new IOException("failure");
+        }).when(eventHandler).handle(event);
+
+        handlerQueueListener().process(handler, event);
+
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.retry"), any(EventWrapper.class),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void givenBulkheadFull_whenProcess_ThenDeferredToRetryQueue() {
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 0, "", null, null);
+        doThrow(new BulkheadFullException("full")).when(eventHandler).handle(event);
+
+        handlerQueueListener().process(handler, event);
+
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.retry"), any(EventWrapper.class),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void givenBulkheadFullAndNoDeferralAllowed_whenProcess_ThenSentToErrorQueue() {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getQueue().getRetry().setMaxDeferrals(0);
+        var event = new TestHandlerQueueEvent("test");
+        var handler = new Handler<>("handler", eventHandler, 0, "", null, null);
+        doThrow(new BulkheadFullException("full")).when(eventHandler).handle(event);
+
+        handlerQueueListener(eventProperties).process(handler, event);
+
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.error"), any(EventWrapper.class),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void givenUnknownHandler_whenOnMessage_ThenReject() {
+        var properties = new MessageProperties();
+        properties.setConsumerQueue("events.test.handler");
+        when(handlerQueueTopology.getHandlerName("events.test.handler")).thenReturn("handler");
+        when(eventRegistryConfig.getByHandlerName("handler")).thenReturn(Optional.empty());
+
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+                () -> handlerQueueListener().onMessage(new Message(new byte[0], properties)));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    public record TestHandlerQueueEvent(String name) implements Event {
+    }
+}
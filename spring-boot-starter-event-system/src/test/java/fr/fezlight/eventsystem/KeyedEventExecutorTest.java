@@ -0,0 +1,129 @@
+package fr.fezlight.eventsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyedEventExecutorTest {
+    private static final int KEYS = 16;
+    private static final int TASKS_PER_KEY = 500;
+
+    private final KeyedEventExecutor keyedEventExecutor = new KeyedEventExecutor(8, 10);
+    private final ExecutorService producers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        keyedEventExecutor.close();
+        producers.shutdownNow();
+        assertThat(producers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void givenConcurrentProducers_whenSubmit_ThenTasksOfAKeyRunInOrderAndNeverOverlap() throws Exception {
+        Map<String, List<Integer>> executions = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        var overlaps = new AtomicInteger();
+        var maxParallelKeys = new AtomicInteger();
+        var parallelKeys = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        List<Future<List<CompletableFuture<Void>>>> submissions = new ArrayList<>();
+
+        // Each producer owns a set of keys, so the submission order of a key is well defined
+        for (int producer = 0; producer < 4; producer++) {
+            int index = producer;
+            var keys = IntStream.range(0, KEYS).filter(key -> key % 4 == index).mapToObj(key -> "key-" + key).toList();
+            submissions.add(producers.submit(() -> {
+                start.await();
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int sequence = 0; sequence < TASKS_PER_KEY; sequence++) {
+                    for (String key : keys) {
+                        int value = sequence;
+                        futures.add(keyedEventExecutor.submit(key, () -> {
+                            if (running.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            maxParallelKeys.accumulateAndGet(parallelKeys.incrementAndGet(), Math::max);
+                            executions.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(value);
+                            LockSupport.parkNanos(1_000);
+                            parallelKeys.decrementAndGet();
+                            running.get(key).decrementAndGet();
+                        }));
+                    }
+                }
+                return futures;
+            }));
+        }
+
+        start.countDown();
+        for (Future<List<CompletableFuture<Void>>> submission : submissions) {
+            CompletableFuture.allOf(submission.get(30, TimeUnit.SECONDS).toArray(CompletableFuture[]::new))
+                    .get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(overlaps).hasValue(0);
+        assertThat(executions).hasSize(KEYS);
+        executions.values().forEach(values -> assertThat(values)
+                .containsExactlyElementsOf(IntStream.range(0, TASKS_PER_KEY).boxed().toList()));
+        assertThat(maxParallelKeys.get()).isGreaterThan(1);
+        assertThat(keyedEventExecutor.getActiveKeys()).isZero();
+    }
+
+    @Test
+    void givenFailedTask_whenSubmitNext_ThenNextTaskOfKeyRuns() throws Exception {
+        var failed = keyedEventExecutor.submit("key", () -> {
+            throw new IllegalStateException("failure");
+        });
+        var next = keyedEventExecutor.submit("key", () -> {
+        });
+
+        next.get(5, TimeUnit.SECONDS);
+        assertThat(failed).isCompletedExceptionally();
+    }
+
+    @Test
+    void givenFullKeyQueue_whenSubmit_ThenBlockedUntilTaskDone() throws Exception {
+        var release = new CountDownLatch(1);
+        for (int i = 0; i < 10; i++) {
+            keyedEventExecutor.submit("key", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        var blocked = producers.submit(() -> keyedEventExecutor.submit("key", () -> {
+        }));
+        var other = keyedEventExecutor.submit("other", () -> {
+        });
+
+        other.get(5, TimeUnit.SECONDS);
+        assertThat(blocked).isNotDone();
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void givenNoParallelism_whenCreate_ThenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyedEventExecutor(0, 10));
+    }
+}
@@ -0,0 +1,161 @@
+package fr.fezlight.eventsystem;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventHandler;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import fr.fezlight.eventsystem.models.LocalEventWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.modulith.events.EventExternalizationConfiguration;
+import org.springframework.modulith.events.RoutingTarget;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_ORDERING_KEY_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocalEventDispatcherTest {
+
+    @Mock
+    private EventRegistryConfig eventRegistryConfig;
+
+    @Mock
+    private EventRetryPublisher eventRetryPublisher;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private EventExternalizationConfiguration eventExternalizationConfiguration;
+
+    @Mock
+    private EventHandler<TestLocalEvent> eventHandler;
+
+    private final EventProperties eventProperties = new EventProperties();
+
+    private LocalEventDispatcher localEventDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        localEventDispatcher.close();
+    }
+
+    @Test
+    void givenLocalWrapper_whenDispatch_ThenHandledAndCompleted() {
+        var event = new TestLocalEvent("test");
+        register(0);
+        localEventDispatcher = dispatcher();
+
+        localEventDispatcher.dispatch(local(event)).join();
+
+        verify(eventHandler).handle(event);
+        verifyNoInteractions(eventRetryPublisher, rabbitTemplate);
+    }
+
+    @Test
+    void givenFailingHandler_whenDispatch_ThenSentToRetryPathAndCompleted() {
+        var event = new TestLocalEvent("test");
+        var failure = new IllegalStateException("failure");
+        var handler = register(2);
+        doThrow(failure).when(eventHandler).handle(event);
+        localEventDispatcher = dispatcher();
+
+        localEventDispatcher.dispatch(local(event)).join();
+
+        verify(eventRetryPublisher).onHandlerFailure(handler, event, failure);
+    }
+
+    @Test
+    void givenHandlerFailingWithCheckedException_whenDispatch_ThenSentToRetryPathAndCompleted() {
+        var event = new TestLocalEvent("test");
+        var failure = new IOException("failure");
+        var handler = register(2);
+        doAnswer(invocation -> {
+            throw failure;
+        }).when(eventHandler).handle(event);
+        localEventDispatcher = dispatcher();
+
+        localEventDispatcher.dispatch(local(event)).join();
+
+        verify(eventRetryPublisher).onHandlerFailure(handler, event, failure);
+    }
+
+    @Test
+    void givenSaturatedPool_whenDispatch_ThenSentWithExternalizationRoutingAndHeaders() throws InterruptedException {
+        var event = new TestLocalEvent("test");
+        var release = new CountDownLatch(1);
+        register(0);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(eventHandler).handle(event);
+        var rejectedWrapper = local(event, "order-1");
+        when(eventExternalizationConfiguration.determineTarget(rejectedWrapper.eventWrapper()))
+                .thenReturn(RoutingTarget.forTarget("events.direct").andKey("events.test.worker.async"));
+        when(eventExternalizationConfiguration.getHeadersFor(rejectedWrapper.eventWrapper()))
+                .thenReturn(Map.of(AMQP_ORDERING_KEY_HEADER, "order-1"));
+        eventProperties.getRabbit().getFanOut().getLocal().setParallelism(1);
+        eventProperties.getRabbit().getFanOut().getLocal().setQueueCapacity(1);
+        localEventDispatcher = dispatcher();
+
+        var running = localEventDispatcher.dispatch(local(event));
+        var queued = localEventDispatcher.dispatch(local(event));
+        var rejected = localEventDispatcher.dispatch(rejectedWrapper);
+
+        assertThat(rejected).isCompleted();
+        var postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.test.worker.async"),
+                eq(rejectedWrapper.eventWrapper()), postProcessor.capture());
+        var message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertThat((String) message.getMessageProperties().getHeader(AMQP_ORDERING_KEY_HEADER)).isEqualTo("order-1");
+
+        release.countDown();
+        running.join();
+        queued.join();
+        verify(eventHandler, times(2)).handle(event);
+    }
+
+    private LocalEventDispatcher dispatcher() {
+        return new LocalEventDispatcher(
+                eventRegistryConfig, eventRetryPublisher, rabbitTemplate, eventExternalizationConfiguration,
+                eventProperties
+        );
+    }
+
+    private Handler<TestLocalEvent> register(int retry) {
+        var handler = new Handler<>("handler", eventHandler, retry, "", null, null);
+        doReturn(Optional.of(handler)).when(eventRegistryConfig).getByHandlerName("handler");
+        return handler;
+    }
+
+    private LocalEventWrapper<TestLocalEvent> local(TestLocalEvent event) {
+        return local(event, null);
+    }
+
+    private LocalEventWrapper<TestLocalEvent> local(TestLocalEvent event, String orderingKey) {
+        return new LocalEventWrapper<>(EventWrapper.<TestLocalEvent>builder()
+                .event(event)
+                .handlerName("handler")
+                .orderingKey(orderingKey)
+                .retryLeft(0)
+                .build());
+    }
+
+    public record TestLocalEvent(String name) implements Event {
+    }
+}
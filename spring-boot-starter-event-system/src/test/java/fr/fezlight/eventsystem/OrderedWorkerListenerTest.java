@@ -0,0 +1,188 @@
+package fr.fezlight.eventsystem;
+
+import com.rabbitmq.client.Channel;
+import fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig;
+import fr.fezlight.eventsystem.config.rabbitmq.EventRetryPublisher;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderedWorkerListenerTest {
+
+    @Mock
+    private EventListeners eventListeners;
+
+    @Mock
+    private EventRetryPublisher eventRetryPublisher;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private Channel channel;
+
+    private final KeyedEventExecutor keyedEventExecutor = new KeyedEventExecutor(2, 10);
+
+    @AfterEach
+    void tearDown() {
+        keyedEventExecutor.close();
+    }
+
+    @Test
+    void givenWrapper_whenOnMessage_ThenProcessedAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(0);
+        var message = message(eventWrapper);
+
+        listener().onMessage(message, channel);
+
+        verify(channel, timeout(5000)).basicAck(7L, false);
+        verify(eventListeners).processEvent(null, eventWrapper);
+        verifyNoInteractions(eventRetryPublisher);
+    }
+
+    @Test
+    void givenFailingHandlerWithRetry_whenOnMessage_ThenSentToRetryAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(2);
+        var message = message(eventWrapper);
+        var failure = new IllegalStateException("failure");
+        doThrow(failure).when(eventListeners).processEvent(any(), any());
+
+        listener().onMessage(message, channel);
+
+        verify(channel, timeout(5000)).basicAck(7L, false);
+        verify(eventRetryPublisher).retry(eventWrapper, failure);
+        assertThat(eventWrapper.getRetryLeft()).isEqualTo(2);
+    }
+
+    @Test
+    void givenHandlerFailingWithCheckedExceptionWithRetry_whenOnMessage_ThenSentToRetryAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(2);
+        var message = message(eventWrapper);
+        var failure = new IOException("failure");
+        doAnswer(invocation -> {
+            throw failure;
+        }).when(eventListeners).processEvent(any(), any());
+
+        listener().onMessage(message, channel);
+
+        verify(channel, timeout(5000)).basicAck(7L, false);
+        verify(eventRetryPublisher).retry(eventWrapper, failure);
+    }
+
+    @Test
+    void givenBulkheadFullWithDeferralsHeader_whenOnMessage_ThenDeferredWithDeferralsAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(0);
+        var message = message(eventWrapper);
+        message.getMessageProperties().setHeader(EventQueueConfig.AMQP_DEFERRALS_HEADER, 2);
+        var failure = new BulkheadFullException("full");
+        doThrow(failure).when(eventListeners).processEvent(any(), any());
+
+        listener().onMessage(message, channel);
+
+        verify(channel, timeout(5000)).basicAck(7L, false);
+        verify(eventRetryPublisher).defer(eventWrapper, 2, failure);
+    }
+
+    @Test
+    void givenFailingHandlerWithoutRetry_whenOnMessage_ThenSentToErrorAndAcknowledged() throws Exception {
+        var eventWrapper = wrapper(0);
+        var message = message(eventWrapper);
+        var failure = new IllegalStateException("failure");
+        doThrow(failure).when(eventListeners).processEvent(any(), any());
+
+        listener().onMessage(message, channel);
+
+        verify(channel, timeout(5000)).basicAck(7L, false);
+        verify(eventRetryPublisher).reject(eventWrapper, failure);
+    }
+
+    @Test
+    void givenNotAWrapper_whenOnMessage_ThenRejected() throws Exception {
+        var message = new Message(new byte[0], properties());
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(message)).thenReturn("not a wrapper");
+
+        listener().onMessage(message, channel);
+
+        verify(channel).basicReject(7L, false);
+        verifyNoInteractions(eventListeners);
+    }
+
+    @Test
+    void givenUnconvertibleMessage_whenOnMessage_ThenRejected() throws Exception {
+        var message = new Message(new byte[0], properties());
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(message)).thenThrow(new MessageConversionException("invalid"));
+
+        listener().onMessage(message, channel);
+
+        verify(channel).basicReject(7L, false);
+        verifyNoInteractions(eventListeners);
+    }
+
+    @Test
+    void givenWrapperWithoutKey_whenOrderingKey_ThenHeaderOrDeliveryTag() {
+        var eventWrapper = EventWrapper.<TestOrderedEvent>builder()
+                .event(new TestOrderedEvent("test"))
+                .handlerName("handler")
+                .build();
+        var withHeader = properties();
+        withHeader.setHeader(EventQueueConfig.AMQP_ORDERING_KEY_HEADER, "order-2");
+
+        assertThat(OrderedWorkerListener.orderingKey(wrapper(0), new Message(new byte[0], properties())))
+                .isEqualTo("order-1");
+        assertThat(OrderedWorkerListener.orderingKey(eventWrapper, new Message(new byte[0], withHeader)))
+                .isEqualTo("order-2");
+        assertThat(OrderedWorkerListener.orderingKey(eventWrapper, new Message(new byte[0], properties())))
+                .isEqualTo("#7");
+    }
+
+    private OrderedWorkerListener listener() {
+        return new OrderedWorkerListener(eventListeners, keyedEventExecutor, eventRetryPublisher, rabbitTemplate);
+    }
+
+    private Message message(EventWrapper<?> eventWrapper) {
+        var message = new Message(new byte[0], properties());
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(message)).thenReturn(eventWrapper);
+        return message;
+    }
+
+    private static MessageProperties properties() {
+        var properties = new MessageProperties();
+        properties.setDeliveryTag(7L);
+        return properties;
+    }
+
+    private static EventWrapper<TestOrderedEvent> wrapper(int retryLeft) {
+        return EventWrapper.<TestOrderedEvent>builder()
+                .event(new TestOrderedEvent("test"))
+                .handlerName("handler")
+                .orderingKey("order-1")
+                .retryLeft(retryLeft)
+                .build();
+    }
+
+    public record TestOrderedEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,35 @@
+package fr.fezlight.eventsystem.aot;
+
+import fr.fezlight.eventsystem.config.SubscribeEventIndex;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.LocalEventWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRuntimeHintsTest {
+
+    @Test
+    void givenRegistrar_whenRegisterHints_ThenEventWrapperAndIndexRegistered() {
+        var hints = new RuntimeHints();
+
+        new EventRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(EventWrapper.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(EventRuntimeHints.EVENT_SERIALIZER)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(LocalEventWrapper.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource(SubscribeEventIndex.INDEX_LOCATION)).accepts(hints);
+    }
+
+    @Test
+    void givenAotFactories_whenLoadRegistrars_ThenEventRuntimeHintsFound() {
+        var registrars = SpringFactoriesLoader.forResourceLocation("META-INF/spring/aot.factories")
+                .load(RuntimeHintsRegistrar.class);
+
+        assertThat(registrars).hasAtLeastOneElementOfType(EventRuntimeHints.class);
+    }
+}
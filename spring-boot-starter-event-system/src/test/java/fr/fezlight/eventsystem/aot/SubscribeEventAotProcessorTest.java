@@ -0,0 +1,81 @@
+package fr.fezlight.eventsystem.aot;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.models.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.javapoet.ClassName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SubscribeEventAotProcessorTest {
+
+    private final SubscribeEventAotProcessor processor = new SubscribeEventAotProcessor();
+
+    @Test
+    void givenBeanWithSubscribeEvent_whenProcessAheadOfTime_ThenHandlerAndEventHintsRegistered() {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("testAotListeners", new RootBeanDefinition(TestAotListeners.class));
+
+        var generationContext = process(beanFactory);
+        var hints = generationContext.getRuntimeHints();
+
+        assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(TestAotListeners.class, "handleEvent"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TestAotEvent.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TestAotUnhandledEvent.class)).rejects(hints);
+    }
+
+    @Test
+    void givenAutoConfigurationPackage_whenProcessAheadOfTime_ThenEventImplementationsRegistered() {
+        var beanFactory = new DefaultListableBeanFactory();
+        AutoConfigurationPackages.register(beanFactory, SubscribeEventAotProcessorTest.class.getPackageName());
+
+        var generationContext = process(beanFactory);
+        var hints = generationContext.getRuntimeHints();
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(TestAotEvent.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TestAotUnhandledEvent.class)).accepts(hints);
+    }
+
+    @Test
+    void givenNoHandlerNorEvent_whenProcessAheadOfTime_ThenNoContribution() {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("other", new RootBeanDefinition(Object.class));
+
+        assertThat(processor.processAheadOfTime(beanFactory)).isNull();
+    }
+
+    private DefaultGenerationContext process(DefaultListableBeanFactory beanFactory) {
+        var generationContext = new DefaultGenerationContext(
+                new ClassNameGenerator(ClassName.get("com.example", "Test")), new InMemoryGeneratedFiles()
+        );
+        var contribution = processor.processAheadOfTime(beanFactory);
+
+        assertThat(contribution).isNotNull();
+        contribution.applyTo(generationContext, mock(BeanFactoryInitializationCode.class));
+
+        return generationContext;
+    }
+
+    public static class TestAotListeners {
+        @SubscribeEvent
+        public void handleEvent(TestAotEvent event) {
+            // Nothing
+        }
+    }
+
+    public record TestAotEvent(String name) implements Event {
+    }
+
+    public record TestAotUnhandledEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,85 @@
+package fr.fezlight.eventsystem.condition;
+
+import fr.fezlight.eventsystem.models.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConditionExpressionCacheTest {
+
+    @Test
+    void givenRegisteredCondition_whenRegisterAgain_ThenSameExpressionReturned() {
+        var cache = new ConditionExpressionCache();
+
+        var expression = cache.register(TestConditionEvent.class, "#event.name == 'test'");
+
+        assertThat(cache.register(TestConditionEvent.class, "#event.name == 'test'")).isSameAs(expression);
+    }
+
+    @Test
+    void givenRegisteredCondition_whenEvict_ThenExpressionParsedAgain() {
+        var cache = new ConditionExpressionCache();
+        var expression = cache.register(TestConditionEvent.class, "#event.name == 'test'");
+        var otherTypeExpression = cache.register(TestOtherConditionEvent.class, "#event.name == 'test'");
+        var otherExpression = cache.register(TestConditionEvent.class, "#event.name == 'other'");
+
+        cache.evict("#event.name == 'test'");
+
+        assertThat(cache.register(TestConditionEvent.class, "#event.name == 'test'")).isNotSameAs(expression);
+        assertThat(cache.register(TestOtherConditionEvent.class, "#event.name == 'test'"))
+                .isNotSameAs(otherTypeExpression);
+        assertThat(cache.register(TestConditionEvent.class, "#event.name == 'other'")).isSameAs(otherExpression);
+    }
+
+    @Test
+    void givenInvalidCondition_whenRegister_ThenThrowException() {
+        var cache = new ConditionExpressionCache();
+
+        assertThrows(ParseException.class, () -> cache.register(TestConditionEvent.class, "#event.name =="));
+    }
+
+    @Test
+    void givenCompiledMode_whenMatchesManyTimes_ThenSameResultAsInterpreted() {
+        var compiled = new ConditionExpressionCache(SpelCompilerMode.IMMEDIATE);
+        var interpreted = new ConditionExpressionCache(SpelCompilerMode.OFF);
+        var condition = "#event.name == 'test'";
+
+        for (int i = 0; i < 5; i++) {
+            for (String name : new String[]{"test", "other"}) {
+                var context = new StandardEvaluationContext();
+                context.setVariable("event", new TestConditionEvent(name));
+
+                assertThat(compiled.register(TestConditionEvent.class, condition).matches(context))
+                        .isEqualTo(interpreted.register(TestConditionEvent.class, condition).matches(context))
+                        .isEqualTo(name.equals("test"));
+            }
+        }
+    }
+
+    @Test
+    void givenCompiledMode_whenMatchesAnotherType_ThenFallbackToInterpreted() {
+        var cache = new ConditionExpressionCache(SpelCompilerMode.IMMEDIATE);
+        var condition = "#event.name() == 'test'";
+
+        for (int i = 0; i < 3; i++) {
+            var context = new StandardEvaluationContext();
+            context.setVariable("event", new TestConditionEvent("test"));
+            assertThat(cache.register(TestConditionEvent.class, condition).matches(context)).isTrue();
+        }
+
+        var context = new StandardEvaluationContext();
+        context.setVariable("event", new TestOtherConditionEvent("test"));
+
+        assertThat(cache.register(TestConditionEvent.class, condition).matches(context)).isTrue();
+    }
+
+    public record TestConditionEvent(String name) implements Event {
+    }
+
+    public record TestOtherConditionEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,129 @@
+package fr.fezlight.eventsystem.condition;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.util.StringUtils.hasLength;
+
+class ConditionIndexTest {
+
+    private static final List<String> CONDITIONS = List.of(
+            "",
+            "#event.type == 'a'",
+            "'b' == #event.type",
+            "#event.type eq 'c'",
+            "#event.type == 'a' or #event.type == 'c'",
+            "{'a', 'b'}.contains(#event.type)",
+            "{}.contains(#event.type)",
+            "#event.region == 'eu'",
+            "#event.region == 'us' or #event.region == 'eu' or #event.region == 'asia'",
+            "#event.nested.code == 'x'",
+            "#event.amount == '5'",
+            "#event.amount > 10",
+            "#event.type == 'a' and #event.region == 'eu'",
+            "#event.type == 'a' or #event.region == 'eu'",
+            "#event.amount >= 5 and #event.amount < 10"
+    );
+
+    @Test
+    void givenManyConditionalHandlers_whenSelect_ThenSameResultAsPerHandlerEvaluation() {
+        for (SpelCompilerMode compilerMode : SpelCompilerMode.values()) {
+            var cache = new ConditionExpressionCache(compilerMode);
+            var registry = new EventRegistryConfig(cache);
+            CONDITIONS.forEach(condition -> registry.registerHandler(TestIndexEvent.class, e -> {
+            }, 0, condition));
+            var index = registry.getConditionIndex(TestIndexEvent.class);
+
+            for (TestIndexEvent event : events()) {
+                var context = new StandardEvaluationContext();
+                context.setVariable("event", event);
+
+                List<Handler<?>> expected = index.handlers().stream()
+                        .filter(handler -> !hasLength(handler.condition())
+                                           || cache.register(TestIndexEvent.class, handler.condition())
+                                                   .matches(context))
+                        .toList();
+
+                assertThat(index.select(context))
+                        .as("Handlers selected for %s with compiler mode %s", event, compilerMode)
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void givenEqualityConditions_whenSelect_ThenOnlyMatchingBucketSelected() {
+        var cache = new ConditionExpressionCache();
+        var registry = new EventRegistryConfig(cache);
+        for (int i = 0; i < 50; i++) {
+            registry.registerHandler(TestIndexEvent.class, e -> {
+            }, 0, "#event.type == 'type" + i + "'");
+        }
+        var index = registry.getConditionIndex(TestIndexEvent.class);
+
+        var context = new StandardEvaluationContext();
+        context.setVariable("event", new TestIndexEvent("type42", "eu", 1, new Nested("x")));
+
+        assertThat(index.select(context))
+                .singleElement()
+                .extracting(Handler::condition)
+                .isEqualTo("#event.type == 'type42'");
+    }
+
+    @Test
+    void givenPredicateAndSpelConditions_whenSelect_ThenRegistrationOrderKept() {
+        var registry = new EventRegistryConfig();
+        var first = registry.registerHandler(TestIndexEvent.class, e -> {
+        }, 0, (Predicate<TestIndexEvent>) event -> "a".equals(event.type()));
+        var second = registry.registerHandler(TestIndexEvent.class, e -> {
+        }, 0, "#event.type == 'a'");
+        var third = registry.registerHandler(TestIndexEvent.class, e -> {
+        }, 0, (Predicate<TestIndexEvent>) event -> "b".equals(event.type()));
+        var fourth = registry.registerHandler(TestIndexEvent.class, e -> {
+        }, 0, "");
+        var index = registry.getConditionIndex(TestIndexEvent.class);
+
+        assertThat(index.select(new TestIndexEvent("a", "eu", 1, new Nested("x")))).containsExactly(first, second, fourth);
+        assertThat(index.select(new TestIndexEvent("b", "eu", 1, new Nested("x")))).containsExactly(third, fourth);
+        assertThat(index.select(ConditionIndex.evaluationContext(new TestIndexEvent("a", "eu", 1, new Nested("x")))))
+                .containsExactly(first, second, fourth);
+    }
+
+    @Test
+    void givenNoHandlers_whenSelect_ThenEmpty() {
+        var index = ConditionIndex.of(TestIndexEvent.class, List.of(), new ConditionExpressionCache());
+
+        assertThat(index.select(new StandardEvaluationContext())).isEmpty();
+    }
+
+    private static List<TestIndexEvent> events() {
+        List<TestIndexEvent> events = new ArrayList<>();
+        for (String type : new String[]{"a", "b", "c", "d", null}) {
+            for (String region : new String[]{"eu", "us", "asia", null}) {
+                for (Integer amount : new Integer[]{5, 15}) {
+                    for (String code : new String[]{"x", "y"}) {
+                        events.add(new TestIndexEvent(type, region, amount, new Nested(code)));
+                    }
+                }
+            }
+        }
+        // Repeat events so that compiled expressions are exercised too
+        events.addAll(List.copyOf(events));
+        return events;
+    }
+
+    public record TestIndexEvent(String type, String region, Integer amount, Nested nested) implements Event {
+    }
+
+    public record Nested(String code) {
+    }
+}
@@ -1,14 +1,27 @@
 package fr.fezlight.eventsystem.config;
 
 import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
 import fr.fezlight.eventsystem.models.Event;
 import fr.fezlight.eventsystem.models.Handler;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -19,13 +32,16 @@ public class EventAutoConfigurationTest {
     @InjectMocks
     private EventAutoConfiguration eventAutoConfiguration;
 
+    @TempDir
+    private Path indexDirectory;
+
     @Test
     void given1EventWith1Subscriber_whenEventRegistryConfigAutoconfigure_ThenEventRegistryContain1Handler() {
         GenericApplicationContext applicationContext = new GenericApplicationContext();
         applicationContext.registerBean(Test1Listeners.class, Test1Listeners::new);
         applicationContext.refresh();
 
-        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext);
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
 
         assertThat(eventRegistry).isNotNull();
         assertThat(eventRegistry.getHandlers(Test1Event.class).stream().map(Handler::name))
@@ -40,7 +56,7 @@ public class EventAutoConfigurationTest {
         applicationContext.registerBean(Test2Listeners.class, Test2Listeners::new);
         applicationContext.refresh();
 
-        var e = assertThrows(IllegalArgumentException.class, () -> eventAutoConfiguration.eventRegistryConfig(applicationContext));
+        var e = assertThrows(IllegalArgumentException.class, () -> eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties()));
 
         assertThat(e.getMessage()).isEqualTo("Handler with name Test2Listeners#handleEvent already registered, " +
                                              "use 'customName' properties to define an alternative name");
@@ -52,7 +68,7 @@ public class EventAutoConfigurationTest {
         applicationContext.registerBean(Test3Listeners.class, Test3Listeners::new);
         applicationContext.refresh();
 
-        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext);
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
 
         assertThat(eventRegistry).isNotNull();
         assertThat(eventRegistry.getHandlers(Test3Event.class).stream().map(Handler::name))
@@ -71,11 +87,167 @@ public class EventAutoConfigurationTest {
         applicationContext.registerBean(Test4Listeners.class, Test4Listeners::new);
         applicationContext.refresh();
 
-        var e = assertThrows(IllegalArgumentException.class, () -> eventAutoConfiguration.eventRegistryConfig(applicationContext));
+        var e = assertThrows(IllegalArgumentException.class, () -> eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties()));
 
         assertThat(e.getMessage()).isEqualTo("Method annotated with @SubscribeEvent must have exactly one parameter");
     }
 
+    @Test
+    void givenSubscriberThrowingException_whenHandle_ThenUncheckedPropagatedAndCheckedWrapped() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(Test5Listeners.class, Test5Listeners::new);
+        applicationContext.refresh();
+
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
+        var runtimeHandler = eventRegistry.<Test5Event>getByHandlerName("Test5Listeners#handleEvent").orElseThrow();
+        var checkedHandler = eventRegistry.<Test5AltEvent>getByHandlerName("Test5Listeners#handleEventChecked").orElseThrow();
+
+        var runtimeException = assertThrows(IllegalStateException.class, () -> runtimeHandler.handle(new Test5Event()));
+        var checkedException = assertThrows(UndeclaredThrowableException.class,
+                () -> checkedHandler.handle(new Test5AltEvent()));
+
+        assertThat(runtimeException).hasMessage("runtime");
+        assertThat(checkedException).hasCauseInstanceOf(IOException.class);
+        assertThat(checkedException.getCause()).hasMessage("checked");
+    }
+
+    @Test
+    void given1EventWith1Subscriber_whenHandle_ThenSubscriberCalled() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(Test6Listeners.class, Test6Listeners::new);
+        applicationContext.refresh();
+
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
+        var event = new Test6Event();
+
+        eventRegistry.<Test6Event>getByHandlerName("Test6Listeners#handleEvent").orElseThrow().handle(event);
+
+        assertThat(applicationContext.getBean(Test6Listeners.class).received).containsExactly(event);
+    }
+
+    @Test
+    void givenHandlerIndex_whenEventRegistryConfigAutoconfigure_ThenOnlyIndexedHandlersRegisteredForIndexedModule()
+            throws IOException {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setClassLoader(indexClassLoader(
+                List.of(Test3Listeners.class, Test6Listeners.class),
+                Test6Listeners.class.getName() + "#handleEvent(" + Test6Event.class.getName() + ")"
+        ));
+        applicationContext.registerBean(Test3Listeners.class, Test3Listeners::new);
+        applicationContext.registerBean(Test6Listeners.class, Test6Listeners::new);
+        applicationContext.refresh();
+
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
+
+        assertThat(eventRegistry.getByHandlerName("Test6Listeners#handleEvent")).isPresent();
+        assertThat(eventRegistry.getByHandlerName("Test3Listeners#handleEvent")).isEmpty();
+    }
+
+    @Test
+    void givenHandlerIndex_whenEventRegistryConfigAutoconfigure_ThenBeansOfModuleWithoutIndexScanned()
+            throws IOException {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setClassLoader(indexClassLoader(
+                List.of(Test6Listeners.class),
+                Test6Listeners.class.getName() + "#handleEvent(" + Test6Event.class.getName() + ")"
+        ));
+        applicationContext.registerBean(Test1Listeners.class, Test1Listeners::new);
+        applicationContext.registerBean(Test6Listeners.class, Test6Listeners::new);
+        applicationContext.refresh();
+
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
+
+        assertThat(eventRegistry.getByHandlerName("Test6Listeners#handleEvent")).isPresent();
+        assertThat(eventRegistry.getByHandlerName("Test1Listeners#handleEvent")).isPresent();
+    }
+
+    @Test
+    void givenHandlerIndexDisabled_whenEventRegistryConfigAutoconfigure_ThenAllBeansScanned() throws IOException {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setClassLoader(indexClassLoader(
+                Test6Listeners.class.getName() + "#handleEvent(" + Test6Event.class.getName() + ")"
+        ));
+        applicationContext.registerBean(Test1Listeners.class, Test1Listeners::new);
+        applicationContext.registerBean(Test6Listeners.class, Test6Listeners::new);
+        applicationContext.refresh();
+        var eventProperties = new EventProperties();
+        eventProperties.getHandlerIndex().setEnabled(false);
+
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, eventProperties);
+
+        assertThat(eventRegistry.getByHandlerName("Test6Listeners#handleEvent")).isPresent();
+        assertThat(eventRegistry.getByHandlerName("Test1Listeners#handleEvent")).isPresent();
+    }
+
+    @Test
+    void givenHandlerIndexWithUnknownClass_whenEventRegistryConfigAutoconfigure_ThenThrowException() throws IOException {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setClassLoader(indexClassLoader("com.example.Unknown#handleEvent(com.example.UnknownEvent)"));
+        applicationContext.refresh();
+
+        var e = assertThrows(IllegalStateException.class, () -> eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties()));
+
+        assertThat(e.getMessage()).isEqualTo("Unable to resolve class com.example.Unknown listed in " + SubscribeEventIndex.INDEX_LOCATION);
+    }
+
+    @Test
+    void givenSubscriberWithPredicateConditions_whenEventRegistryConfigAutoconfigure_ThenPredicatesResolved() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(Test7Listeners.class, Test7Listeners::new);
+        applicationContext.registerBean("test7Predicate", Predicate.class,
+                () -> (Predicate<Test7Event>) event -> event.name().equals("ok"));
+        applicationContext.refresh();
+
+        var eventRegistry = eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties());
+
+        assertThat(eventRegistry.getConditionIndex(Test7Event.class).select(new Test7Event("ok"))).hasSize(1);
+        assertThat(eventRegistry.getConditionIndex(Test7Event.class).select(new Test7Event("ko"))).isEmpty();
+        assertThat(eventRegistry.getConditionIndex(Test7AltEvent.class).select(new Test7AltEvent("ok"))).hasSize(1);
+        assertThat(eventRegistry.getConditionIndex(Test7AltEvent.class).select(new Test7AltEvent("ko"))).isEmpty();
+    }
+
+    @Test
+    void givenSubscriberWithSpelAndPredicateConditions_whenEventRegistryConfigAutoconfigure_ThenThrowException() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(Test8Listeners.class, Test8Listeners::new);
+        applicationContext.refresh();
+
+        var e = assertThrows(IllegalArgumentException.class, () -> eventAutoConfiguration.eventRegistryConfig(applicationContext, new EventProperties()));
+
+        assertThat(e.getMessage()).isEqualTo("Handler with name Test8Listeners#handleEvent must define only one of " +
+                                             "'condition', 'conditionBean' or 'conditionClass'");
+    }
+
+    private ClassLoader indexClassLoader(String... lines) throws IOException {
+        return indexClassLoader(List.of(), lines);
+    }
+
+    /**
+     * @param indexedClasses Classes whose class file is copied next to the index, as if built in the same module
+     */
+    private ClassLoader indexClassLoader(List<Class<?>> indexedClasses, String... lines) throws IOException {
+        var index = indexDirectory.resolve(SubscribeEventIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.write(index, List.of(lines));
+
+        for (Class<?> indexedClass : indexedClasses) {
+            var classFile = ClassUtils.convertClassNameToResourcePath(indexedClass.getName()) + ".class";
+            var target = indexDirectory.resolve(classFile);
+            Files.createDirectories(target.getParent());
+            try (var input = getClass().getClassLoader().getResourceAsStream(classFile)) {
+                Files.copy(input, target);
+            }
+        }
+
+        return new URLClassLoader(new URL[]{indexDirectory.toUri().toURL()}, getClass().getClassLoader()) {
+            @Override
+            public URL getResource(String name) {
+                var resource = findResource(name);
+                return resource != null ? resource : super.getResource(name);
+            }
+        };
+    }
+
     @Component
     public record Test1Listeners() {
         @SubscribeEvent
@@ -118,6 +290,57 @@ public class EventAutoConfigurationTest {
         }
     }
 
+    @Component
+    public record Test5Listeners() {
+        @SubscribeEvent
+        public void handleEvent(Test5Event event) {
+            throw new IllegalStateException("runtime");
+        }
+
+        @SubscribeEvent
+        public void handleEventChecked(Test5AltEvent event) throws IOException {
+            throw new IOException("checked");
+        }
+    }
+
+    @Component
+    public static class Test6Listeners {
+        private final List<Test6Event> received = new ArrayList<>();
+
+        @SubscribeEvent
+        public void handleEvent(Test6Event event) {
+            received.add(event);
+        }
+    }
+
+    @Component
+    public record Test7Listeners() {
+        @SubscribeEvent(conditionBean = "test7Predicate")
+        public void handleEvent(Test7Event event) {
+            // Nothing
+        }
+
+        @SubscribeEvent(conditionClass = Test7AltPredicate.class)
+        public void handleAltEvent(Test7AltEvent event) {
+            // Nothing
+        }
+    }
+
+    public static class Test7AltPredicate implements Predicate<Test7AltEvent> {
+        @Override
+        public boolean test(Test7AltEvent event) {
+            return event.name().equals("ok");
+        }
+    }
+
+    @Component
+    public record Test8Listeners() {
+        @SubscribeEvent(condition = "#event != null", conditionClass = Test7AltPredicate.class)
+        public void handleEvent(Test8Event event) {
+            // Nothing
+        }
+    }
+
     public record Test1Event() implements Event {
     }
 
@@ -135,4 +358,22 @@ public class EventAutoConfigurationTest {
 
     public record Test4Event() implements Event {
     }
+
+    public record Test5Event() implements Event {
+    }
+
+    public record Test5AltEvent() implements Event {
+    }
+
+    public record Test6Event() implements Event {
+    }
+
+    public record Test7Event(String name) implements Event {
+    }
+
+    public record Test7AltEvent(String name) implements Event {
+    }
+
+    public record Test8Event() implements Event {
+    }
 }
@@ -0,0 +1,61 @@
+package fr.fezlight.eventsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SubscribeEventIndexTest {
+
+    @TempDir
+    private Path firstDirectory;
+
+    @TempDir
+    private Path secondDirectory;
+
+    @Test
+    void givenNoIndex_whenLoad_ThenEmpty() {
+        var classLoader = new URLClassLoader(new URL[0], null);
+
+        assertThat(SubscribeEventIndex.load(classLoader)).isEmpty();
+    }
+
+    @Test
+    void givenTwoIndexes_whenLoad_ThenEntriesMerged() throws IOException {
+        write(firstDirectory, "com.example.OrderListeners#handleOrder(com.example.OrderEvent)", "");
+        write(secondDirectory, "com.example.Other$Nested#handle(com.example.OtherEvent,java.lang.String)");
+        var classLoader = new URLClassLoader(new URL[]{firstDirectory.toUri().toURL(), secondDirectory.toUri().toURL()}, null);
+
+        var index = SubscribeEventIndex.load(classLoader);
+
+        assertThat(index).isPresent();
+        assertThat(index.get().entries()).containsExactly(
+                new SubscribeEventIndex.Entry("com.example.OrderListeners", "handleOrder", List.of("com.example.OrderEvent")),
+                new SubscribeEventIndex.Entry("com.example.Other$Nested", "handle", List.of("com.example.OtherEvent", "java.lang.String"))
+        );
+    }
+
+    @Test
+    void givenInvalidLine_whenLoad_ThenThrowException() throws IOException {
+        write(firstDirectory, "com.example.OrderListeners.handleOrder");
+        var classLoader = new URLClassLoader(new URL[]{firstDirectory.toUri().toURL()}, null);
+
+        var e = assertThrows(IllegalStateException.class, () -> SubscribeEventIndex.load(classLoader));
+
+        assertThat(e.getMessage()).startsWith("Invalid line 'com.example.OrderListeners.handleOrder'");
+    }
+
+    private void write(Path directory, String... lines) throws IOException {
+        var index = directory.resolve(SubscribeEventIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.write(index, List.of(lines));
+    }
+}
@@ -0,0 +1,135 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveConcurrencyScalerTest {
+    private static final Duration DRAIN_TIME = Duration.ofSeconds(10);
+
+    @Mock
+    private ObjectProvider<RabbitListenerEndpointRegistry> registryProvider;
+
+    @Mock
+    private RabbitListenerEndpointRegistry registry;
+
+    @Mock
+    private ObjectProvider<AmqpAdmin> amqpAdminProvider;
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    @Mock
+    private SimpleMessageListenerContainer container;
+
+    private AdaptiveConcurrencyScaler scaler;
+
+    @AfterEach
+    void tearDown() {
+        if (scaler != null) {
+            scaler.close();
+        }
+    }
+
+    @Test
+    void givenBacklog_whenDesiredConsumers_ThenEnoughToDrainWithinTarget() {
+        // 1000 messages at 50 ms each take 50 s for one consumer, so 5 consumers drain them in 10 s
+        assertThat(AdaptiveConcurrencyScaler.desiredConsumers(1, 1000, Duration.ofMillis(50).toNanos(), DRAIN_TIME, 1, 10))
+                .isEqualTo(5);
+    }
+
+    @Test
+    void givenBacklogAboveMax_whenDesiredConsumers_ThenMax() {
+        assertThat(AdaptiveConcurrencyScaler.desiredConsumers(1, 100_000, Duration.ofMillis(50).toNanos(), DRAIN_TIME, 1, 10))
+                .isEqualTo(10);
+    }
+
+    @Test
+    void givenEmptyQueue_whenDesiredConsumers_ThenScaledDownByOne() {
+        assertThat(AdaptiveConcurrencyScaler.desiredConsumers(6, 0, Duration.ofMillis(50).toNanos(), DRAIN_TIME, 2, 10))
+                .isEqualTo(5);
+        assertThat(AdaptiveConcurrencyScaler.desiredConsumers(2, 0, Duration.ofMillis(50).toNanos(), DRAIN_TIME, 2, 10))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void givenUnknownLatency_whenDesiredConsumers_ThenScaledUpByOneOnBacklog() {
+        assertThat(AdaptiveConcurrencyScaler.desiredConsumers(2, 10, 0, DRAIN_TIME, 1, 10)).isEqualTo(3);
+        assertThat(AdaptiveConcurrencyScaler.desiredConsumers(2, 0, 0, DRAIN_TIME, 1, 10)).isEqualTo(1);
+    }
+
+    @Test
+    void givenRecordedLatencyAndBacklog_whenScale_ThenContainerScaledUp() throws Throwable {
+        scaler = scaler(1, 8);
+        when(registryProvider.getObject()).thenReturn(registry);
+        when(registry.getListenerContainer(ListenerConfig.WORKER_LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+        when(amqpAdminProvider.getObject()).thenReturn(amqpAdmin);
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        when(amqpAdmin.getQueueInfo("events.test.worker")).thenReturn(new QueueInformation("events.test.worker", 10_000, 1));
+        when(container.getActiveConsumerCount()).thenReturn(1);
+        scaler.latencyRecorder().invoke(mockInvocation());
+
+        scaler.scale();
+
+        verify(container).setConcurrentConsumers(anyInt());
+    }
+
+    @Test
+    void givenContainerStopped_whenScale_ThenNothing() {
+        scaler = scaler(1, 8);
+        when(registryProvider.getObject()).thenReturn(registry);
+        when(registry.getListenerContainer(ListenerConfig.WORKER_LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(false);
+
+        scaler.scale();
+
+        verify(container, never()).setConcurrentConsumers(anyInt());
+        verifyNoInteractions(amqpAdminProvider);
+    }
+
+    @Test
+    void givenMaxLowerThanMin_whenCreate_ThenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> scaler(4, 2));
+    }
+
+    private AdaptiveConcurrencyScaler scaler(int min, int max) {
+        var eventProperties = new EventProperties();
+        var worker = eventProperties.getRabbit().getListener().getWorker();
+        worker.setConcurrency(min);
+        worker.setMaxConcurrency(max);
+        worker.getAdaptive().setEnabled(true);
+        worker.getAdaptive().setInterval(Duration.ofHours(1));
+
+        return new AdaptiveConcurrencyScaler(registryProvider, amqpAdminProvider, queueNameResolver, eventProperties);
+    }
+
+    private static MethodInvocation mockInvocation() throws Throwable {
+        var invocation = mock(MethodInvocation.class);
+        when(invocation.proceed()).thenAnswer(i -> {
+            Thread.sleep(5);
+            return null;
+        });
+        return invocation;
+    }
+}
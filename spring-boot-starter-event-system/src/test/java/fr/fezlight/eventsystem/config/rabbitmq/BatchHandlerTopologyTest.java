@@ -0,0 +1,108 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.MethodBatchEventHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchHandlerTopologyTest {
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    @Test
+    void givenBatchHandler_whenGetRoutingKey_ThenBatchQueueReturned() throws NoSuchMethodException {
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        var registry = new EventRegistryConfig();
+        var batch = registry.registerHandler("batch", TestBatchEvent.class, batchHandler());
+        var single = registry.registerHandler(TestBatchEvent.class, e -> {
+        }, 0, "");
+        var topology = new BatchHandlerTopology(registry, new EventProperties(), queueNameResolver);
+
+        assertThat(topology.getHandlers()).containsExactly(batch);
+        assertThat(topology.getRoutingKey(wrapper(batch.name()), "events.test.worker"))
+                .isEqualTo("events.test.worker.batch.batch");
+        assertThat(topology.getRoutingKey(wrapper(single.name()), "events.test.worker"))
+                .isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenGroupedWrapper_whenGetRoutingKey_ThenDefaultRoutingKeyReturned() throws NoSuchMethodException {
+        var registry = new EventRegistryConfig();
+        registry.registerHandler("batch", TestBatchEvent.class, batchHandler());
+        var topology = new BatchHandlerTopology(registry, new EventProperties(), queueNameResolver);
+        var wrapper = EventWrapper.<TestBatchEvent>builder()
+                .event(new TestBatchEvent("test"))
+                .handlerNames(List.of("batch", "other"))
+                .retryLeft(0)
+                .build();
+
+        assertThat(topology.getRoutingKey(wrapper, "events.test.worker")).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenBatchHandler_whenCreateDeclarables_ThenQueueBoundToDirectExchange() throws NoSuchMethodException {
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        var registry = new EventRegistryConfig();
+        registry.registerHandler("batch", TestBatchEvent.class, batchHandler());
+        var topology = new BatchHandlerTopology(registry, new EventProperties(), queueNameResolver);
+
+        var declarables = topology.createDeclarables();
+
+        assertThat(declarables).hasSize(3);
+        assertThat(declarables.get(0)).isInstanceOf(DirectExchange.class);
+        assertThat(((Queue) declarables.get(1)).getName()).isEqualTo("events.test.worker.batch.batch");
+        assertThat(((Queue) declarables.get(1)).getArguments()).containsKey("x-dead-letter-exchange");
+        assertThat(((Binding) declarables.get(2)).getRoutingKey()).isEqualTo("events.test.worker.batch.batch");
+    }
+
+    @Test
+    void givenNoBatchHandler_whenCreateDeclarables_ThenNothingCreated() {
+        var registry = new EventRegistryConfig();
+        registry.registerHandler(TestBatchEvent.class, e -> {
+        }, 0, "");
+        var topology = new BatchHandlerTopology(registry, new EventProperties(), queueNameResolver);
+
+        assertThat(topology.createDeclarables()).isEmpty();
+        assertThat(topology.getHandlers()).isEmpty();
+    }
+
+    private MethodBatchEventHandler<TestBatchEvent> batchHandler() throws NoSuchMethodException {
+        return new MethodBatchEventHandler<>(
+                new TestBatchListeners(), TestBatchListeners.class.getMethod("onEvents", List.class)
+        );
+    }
+
+    private EventWrapper<TestBatchEvent> wrapper(String handlerName) {
+        return EventWrapper.<TestBatchEvent>builder()
+                .event(new TestBatchEvent("test"))
+                .handlerName(handlerName)
+                .retryLeft(0)
+                .build();
+    }
+
+    public record TestBatchEvent(String name) implements Event {
+    }
+
+    public static class TestBatchListeners {
+
+        @SubscribeEvent(batchSize = 500, batchTimeout = "200ms")
+        public void onEvents(List<TestBatchEvent> events) {
+        }
+    }
+}
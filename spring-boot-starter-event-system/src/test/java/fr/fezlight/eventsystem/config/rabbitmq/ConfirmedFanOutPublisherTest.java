@@ -0,0 +1,169 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfirmedFanOutPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    private final EventProperties eventProperties = new EventProperties();
+
+    @Test
+    void givenNoPublisherConfirms_whenCreatePublisher_ThenThrowException() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+
+        var e = assertThrows(IllegalStateException.class,
+                () -> new ConfirmedFanOutPublisher(rabbitTemplate, queueNameResolver, eventProperties));
+
+        assertThat(e).hasMessageContaining("spring.rabbitmq.publisher-confirm-type=correlated");
+    }
+
+    @Test
+    void givenNoPublisherReturns_whenCreatePublisher_ThenThrowException() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(connectionFactory.isPublisherReturns()).thenReturn(false);
+
+        var e = assertThrows(IllegalStateException.class,
+                () -> new ConfirmedFanOutPublisher(rabbitTemplate, queueNameResolver, eventProperties));
+
+        assertThat(e).hasMessageContaining("spring.rabbitmq.publisher-returns=true");
+    }
+
+    @Test
+    void givenAllWrappersAcked_whenPublish_ThenSentMandatoryToWorkerQueue() {
+        var publisher = publisher();
+        confirmWith(new CorrelationData.Confirm(true, null));
+
+        publisher.publish(List.of(wrapper("handler1"), wrapper("handler2")));
+
+        verify(rabbitTemplate).setMandatory(true);
+        verify(rabbitTemplate, times(2)).convertAndSend(eq("events.direct"), eq("events.test.worker"),
+                any(EventWrapper.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void givenOrderingEnabled_whenPublishKeyedWrapper_ThenSentToOrderedWorkerQueueWithKeyHeader() {
+        eventProperties.getRabbit().getOrdering().setEnabled(true);
+        var publisher = publisher();
+        when(queueNameResolver.getOrderedWorkerQueueName()).thenReturn("events.test.worker.ordered");
+        confirmWith(new CorrelationData.Confirm(true, null));
+        var keyed = EventWrapper.<TestFanOutEvent>builder()
+                .event(new TestFanOutEvent("test"))
+                .handlerName("handler2")
+                .orderingKey("order-1")
+                .retryLeft(0)
+                .build();
+
+        publisher.publish(List.of(wrapper("handler1"), keyed));
+
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.test.worker"),
+                any(EventWrapper.class), any(CorrelationData.class));
+        ArgumentCaptor<MessagePostProcessor> captor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.test.worker.ordered"),
+                eq(keyed), captor.capture(), any(CorrelationData.class));
+        var message = captor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertThat(message.getMessageProperties().<String>getHeader(EventQueueConfig.AMQP_ORDERING_KEY_HEADER))
+                .isEqualTo("order-1");
+    }
+
+    @Test
+    void givenWrapperNacked_whenPublish_ThenThrowException() {
+        var publisher = publisher();
+        confirmWith(new CorrelationData.Confirm(false, "queue full"));
+
+        var e = assertThrows(FanOutNotConfirmedException.class,
+                () -> publisher.publish(List.of(wrapper("handler1"))));
+
+        assertThat(e).hasMessageContaining("queue full");
+    }
+
+    @Test
+    void givenWrapperReturned_whenPublish_ThenThrowException() {
+        var publisher = publisher();
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                    312, "NO_ROUTE", "events.direct", "events.test.worker"));
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        var e = assertThrows(FanOutNotConfirmedException.class,
+                () -> publisher.publish(List.of(wrapper("handler1"))));
+
+        assertThat(e).hasMessageContaining("NO_ROUTE");
+    }
+
+    @Test
+    void givenWrapperNotConfirmed_whenPublish_ThenThrowException() {
+        eventProperties.getRabbit().getFanOut().setConfirmTimeout(Duration.ofMillis(10));
+        var publisher = publisher();
+
+        assertThrows(FanOutNotConfirmedException.class, () -> publisher.publish(List.of(wrapper("handler1"))));
+    }
+
+    private ConfirmedFanOutPublisher publisher() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(connectionFactory.isPublisherReturns()).thenReturn(true);
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+
+        return new ConfirmedFanOutPublisher(rabbitTemplate, queueNameResolver, eventProperties);
+    }
+
+    private void confirmWith(CorrelationData.Confirm confirm) {
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(confirm);
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        lenient().doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(4).getFuture().complete(confirm);
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private EventWrapper<TestFanOutEvent> wrapper(String handlerName) {
+        return EventWrapper.<TestFanOutEvent>builder()
+                .event(new TestFanOutEvent("test"))
+                .handlerName(handlerName)
+                .retryLeft(0)
+                .build();
+    }
+
+    public record TestFanOutEvent(String name) implements Event {
+    }
+}
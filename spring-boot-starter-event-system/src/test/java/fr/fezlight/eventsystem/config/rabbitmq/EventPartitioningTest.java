@@ -0,0 +1,151 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.annotation.PartitionKey;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.Event;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventPartitioningTest {
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    @Test
+    void givenRecordComponentKey_whenPartitionKey_ThenComponentValue() {
+        assertThat(EventPartitioning.partitionKey(new TestRecordPartitionEvent("order-1"))).isEqualTo("order-1");
+    }
+
+    @Test
+    void givenFieldKey_whenPartitionKey_ThenFieldValue() {
+        assertThat(EventPartitioning.partitionKey(new TestFieldPartitionEvent(42L))).isEqualTo("42");
+    }
+
+    @Test
+    void givenMethodKey_whenPartitionKey_ThenMethodValue() {
+        assertThat(EventPartitioning.partitionKey(new TestMethodPartitionEvent("customer", 7))).isEqualTo("customer-7");
+    }
+
+    @Test
+    void givenNoKey_whenGetHeaders_ThenRandomKey() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+        var partitioning = partitioning(4);
+
+        var headers = partitioning.getHeaders(new TestNoKeyPartitionEvent("test"));
+
+        assertThat(headers).containsOnlyKeys(EventPartitioning.AMQP_PARTITION_KEY_HEADER);
+        assertThat(EventPartitioning.partitionKey(new TestNoKeyPartitionEvent("test"))).isNull();
+    }
+
+    @Test
+    void givenKey_whenGetHeaders_ThenKey() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+        var partitioning = partitioning(4);
+
+        var headers = partitioning.getHeaders(new TestRecordPartitionEvent("order-1"));
+
+        assertThat(headers).containsOnly(Map.entry(EventPartitioning.AMQP_PARTITION_KEY_HEADER, "order-1"));
+    }
+
+    @Test
+    void givenCount_whenGetQueueNames_ThenOneQueuePerPartition() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+
+        assertThat(partitioning(1).isEnabled()).isFalse();
+        assertThat(partitioning(3).isEnabled()).isTrue();
+        assertThat(partitioning(3).getQueueNames())
+                .containsExactly("events.test.main.0", "events.test.main.1", "events.test.main.2");
+    }
+
+    @Test
+    void givenCount_whenCreateDeclarables_ThenConsistentHashTopology() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+        var partitioning = partitioning(2);
+
+        var declarables = partitioning.createDeclarables(new DirectExchange("events.direct"));
+
+        assertThat(declarables).filteredOn(CustomExchange.class::isInstance)
+                .singleElement()
+                .satisfies(declarable -> {
+                    var exchange = (CustomExchange) declarable;
+                    assertThat(exchange.getName()).isEqualTo("events.test.main.partitions");
+                    assertThat(exchange.getType()).isEqualTo(EventPartitioning.CONSISTENT_HASH_EXCHANGE_TYPE);
+                    assertThat(exchange.getArguments()).containsOnly(
+                            Map.entry("hash-header", EventPartitioning.AMQP_PARTITION_KEY_HEADER),
+                            Map.entry("alternate-exchange", "events.test.main.partitions.unkeyed")
+                    );
+                });
+        assertThat(declarables).filteredOn(Queue.class::isInstance)
+                .extracting(declarable -> (Queue) declarable)
+                .allSatisfy(queue -> assertThat(queue.getArguments()).containsEntry("x-single-active-consumer", true))
+                .extracting(Queue::getName)
+                .containsExactly("events.test.main.0", "events.test.main.1");
+        assertThat(declarables).filteredOn(Binding.class::isInstance)
+                .extracting(declarable -> (Binding) declarable)
+                .filteredOn(binding -> binding.getExchange().equals("events.test.main.partitions.unkeyed"))
+                .extracting(Binding::getDestination)
+                .containsExactly("events.test.main.0");
+    }
+
+    @Test
+    void givenMainExchange_whenCreateBinding_ThenPartitionsExchangeBound() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+
+        var binding = partitioning(2).createBinding(new FanoutExchange("events"));
+
+        assertThat(binding.getExchange()).isEqualTo("events");
+        assertThat(binding.getDestination()).isEqualTo("events.test.main.partitions");
+        assertThat(binding.getDestinationType()).isEqualTo(Binding.DestinationType.EXCHANGE);
+    }
+
+    @Test
+    void givenNoPartition_whenCreate_ThenThrowException() {
+        var e = assertThrows(IllegalArgumentException.class, () -> partitioning(0));
+
+        assertThat(e).hasMessageContaining("events.rabbit.partitions.count");
+    }
+
+    private EventPartitioning partitioning(int count) {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getPartitions().setCount(count);
+
+        return new EventPartitioning(eventProperties, queueNameResolver);
+    }
+
+    public record TestRecordPartitionEvent(@PartitionKey String orderId) implements Event {
+    }
+
+    public record TestNoKeyPartitionEvent(String name) implements Event {
+    }
+
+    public static class TestFieldPartitionEvent implements Event {
+        @PartitionKey
+        private final Long id;
+
+        public TestFieldPartitionEvent(Long id) {
+            this.id = id;
+        }
+    }
+
+    public record TestMethodPartitionEvent(String type, int id) implements Event {
+
+        @PartitionKey
+        public String key() {
+            return type + "-" + id;
+        }
+    }
+}
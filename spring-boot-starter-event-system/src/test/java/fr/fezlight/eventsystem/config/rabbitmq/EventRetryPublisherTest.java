@@ -0,0 +1,205 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventHandler;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import fr.fezlight.eventsystem.models.Handler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_DEFERRALS_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_ORDERING_KEY_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_RETRY_LEFT_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventRetryPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    @Test
+    void givenWrapperWithRetryLeft_whenRetry_ThenSentToRetryQueueAddressedToWorker() {
+        var eventWrapper = wrapper(2);
+
+        publisher().retry(eventWrapper, new IllegalStateException("failure"));
+
+        var message = sent("events.direct", "events.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(1);
+        assertThat(message.getMessageProperties().getReplyTo()).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenTargetedRetries_whenRetry_ThenSentToTargetedRetryExchangeWithWorkerQueueAsKey() {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getQueue().getRetry().setTargeted(true);
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        var eventWrapper = wrapper(2);
+
+        new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver)
+                .retry(eventWrapper, new IllegalStateException("failure"));
+
+        var message = sent("events.retry.targeted", "events.test.worker", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(1);
+    }
+
+    @Test
+    void givenWrapperRefusedByBulkhead_whenDefer_ThenSentToRetryQueueWithoutUsingRetry() {
+        var eventWrapper = wrapper(2);
+
+        publisher().defer(eventWrapper, new BulkheadFullException("full"));
+
+        var message = sent("events.direct", "events.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(2);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_DEFERRALS_HEADER)).isEqualTo(1);
+        assertThat(message.getMessageProperties().getReplyTo()).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenWrapperAlreadyDeferred_whenDefer_ThenDeferralsIncremented() {
+        var eventWrapper = wrapper(2);
+
+        publisher().defer(eventWrapper, 4, new BulkheadFullException("full"));
+
+        var message = sent("events.direct", "events.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_DEFERRALS_HEADER)).isEqualTo(5);
+    }
+
+    @Test
+    void givenWrapperDeferredMaxDeferralsTimes_whenDefer_ThenSentToErrorQueue() {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getQueue().getRetry().setMaxDeferrals(3);
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        var eventWrapper = wrapper(2);
+
+        new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver)
+                .defer(eventWrapper, 3, new BulkheadFullException("full"));
+
+        sent("events.direct", "events.error", eventWrapper);
+    }
+
+    @Test
+    void givenOrderingAndWrapperWithOrderingKey_whenRetry_ThenSentToOrderedRetryQueueWithOrderingKey() {
+        var eventWrapper = orderedWrapper(2);
+
+        orderedPublisher().retry(eventWrapper, new IllegalStateException("failure"));
+
+        var message = sent("events.direct", "events.test.worker.ordered.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(1);
+        assertThat((String) message.getMessageProperties().getHeader(AMQP_ORDERING_KEY_HEADER)).isEqualTo("order-1");
+        assertThat(message.getMessageProperties().getReplyTo()).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenOrderingAndWrapperWithOrderingKey_whenDefer_ThenSentToOrderedRetryQueueWithOrderingKey() {
+        var eventWrapper = orderedWrapper(2);
+
+        orderedPublisher().defer(eventWrapper, new BulkheadFullException("full"));
+
+        var message = sent("events.direct", "events.test.worker.ordered.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(2);
+        assertThat((String) message.getMessageProperties().getHeader(AMQP_ORDERING_KEY_HEADER)).isEqualTo("order-1");
+    }
+
+    @Test
+    void givenHandlerWithoutRetryRefusedByBulkhead_whenOnHandlerFailure_ThenDeferredToRetryQueue() {
+        publisher().onHandlerFailure(handler(0), new TestRetryEvent("test"), new BulkheadFullException("full"));
+
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.retry"), any(EventWrapper.class),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void givenWrapper_whenReject_ThenSentToErrorQueueAddressedToWorker() {
+        var eventWrapper = wrapper(0);
+
+        publisher().reject(eventWrapper, new IllegalStateException("failure"));
+
+        var message = sent("events.direct", "events.error", eventWrapper);
+        assertThat(message.getMessageProperties().getReplyTo()).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenFailedHandlerWithRetry_whenOnHandlerFailure_ThenSingleHandlerWrapperSentToRetryQueue() {
+        var event = new TestRetryEvent("test");
+
+        publisher().onHandlerFailure(handler(2), event, new IllegalStateException("failure"));
+
+        ArgumentCaptor<EventWrapper<TestRetryEvent>> captor = ArgumentCaptor.forClass(EventWrapper.class);
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.retry"), captor.capture(),
+                any(MessagePostProcessor.class));
+        assertThat(captor.getValue().getHandlerName()).isEqualTo("handler");
+        assertThat(captor.getValue().getEvent()).isEqualTo(event);
+        assertThat(captor.getValue().getRetryLeft()).isEqualTo(2);
+    }
+
+    @Test
+    void givenFailedHandlerWithoutRetry_whenOnHandlerFailure_ThenSentToErrorQueue() {
+        publisher().onHandlerFailure(handler(0), new TestRetryEvent("test"), new IllegalStateException("failure"));
+
+        verify(rabbitTemplate).convertAndSend(eq("events.direct"), eq("events.error"), any(EventWrapper.class),
+                any(MessagePostProcessor.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Handler<TestRetryEvent> handler(int retry) {
+        return new Handler<>("handler", mock(EventHandler.class), retry, "", null, null);
+    }
+
+    private EventRetryPublisher publisher() {
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        return new EventRetryPublisher(rabbitTemplate, new EventProperties(), queueNameResolver);
+    }
+
+    private EventRetryPublisher orderedPublisher() {
+        when(queueNameResolver.getWorkerQueueName()).thenReturn("events.test.worker");
+        when(queueNameResolver.getOrderedRetryQueueName()).thenReturn("events.test.worker.ordered.retry");
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getOrdering().setEnabled(true);
+        return new EventRetryPublisher(rabbitTemplate, eventProperties, queueNameResolver);
+    }
+
+    private EventWrapper<TestRetryEvent> orderedWrapper(int retryLeft) {
+        return EventWrapper.<TestRetryEvent>builder()
+                .event(new TestRetryEvent("test"))
+                .handlerName("handler")
+                .orderingKey("order-1")
+                .retryLeft(retryLeft)
+                .build();
+    }
+
+    private Message sent(String exchange, String routingKey, EventWrapper<?> eventWrapper) {
+        ArgumentCaptor<MessagePostProcessor> captor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(exchange), eq(routingKey), eq(eventWrapper), captor.capture());
+        return captor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+    }
+
+    private EventWrapper<TestRetryEvent> wrapper(int retryLeft) {
+        return EventWrapper.<TestRetryEvent>builder()
+                .event(new TestRetryEvent("test"))
+                .handlerName("handler")
+                .retryLeft(retryLeft)
+                .build();
+    }
+
+    public record TestRetryEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,136 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.annotation.EventType;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Routing.Mode;
+import fr.fezlight.eventsystem.models.Event;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.HeadersExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventRoutingTest {
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    private final Queue queue = new Queue("events.test.main");
+
+    @Test
+    void givenEventWithoutAlias_whenTypeAlias_ThenClassName() {
+        assertThat(EventRouting.typeAlias(TestRoutingEvent.class)).isEqualTo(TestRoutingEvent.class.getName());
+    }
+
+    @Test
+    void givenEventWithAlias_whenTypeAlias_ThenAlias() {
+        assertThat(EventRouting.typeAlias(TestAliasedRoutingEvent.class)).isEqualTo("order.validated");
+    }
+
+    @Test
+    void givenFanoutMode_whenGetRoutingTarget_ThenMainExchangeAndQueue() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+        var eventRouting = eventRouting(Mode.FANOUT, "");
+
+        var target = eventRouting.getRoutingTarget(new TestRoutingEvent("test"));
+
+        assertThat(target.getTarget()).isEqualTo("events");
+        assertThat(target.getKey()).isEqualTo("events.test.main");
+        assertThat(eventRouting.getExchange()).isEqualTo("events");
+        assertThrows(IllegalStateException.class, eventRouting::createExchange);
+    }
+
+    @Test
+    void givenTopicMode_whenGetRoutingTarget_ThenTopicExchangeAndTypeAlias() {
+        var eventRouting = eventRouting(Mode.TOPIC, "");
+
+        var target = eventRouting.getRoutingTarget(new TestAliasedRoutingEvent("test"));
+
+        assertThat(target.getTarget()).isEqualTo("events.topic");
+        assertThat(target.getKey()).isEqualTo("order.validated");
+        assertThat(eventRouting.createExchange()).isInstanceOf(TopicExchange.class);
+    }
+
+    @Test
+    void givenTopicMode_whenCreateBinding_ThenBoundWithTypeAlias() {
+        var eventRouting = eventRouting(Mode.TOPIC, "events.types");
+
+        var binding = eventRouting.createBinding(queue, TestAliasedRoutingEvent.class);
+
+        assertThat(binding.getExchange()).isEqualTo("events.types");
+        assertThat(binding.getDestination()).isEqualTo("events.test.main");
+        assertThat(binding.getRoutingKey()).isEqualTo("order.validated");
+        assertThat(eventRouting.createBinding(queue, Event.class).getRoutingKey()).isEqualTo("#");
+    }
+
+    @Test
+    void givenTopicMode_whenCreateExchangeBinding_ThenExchangeBoundWithTypeAlias() {
+        var eventRouting = eventRouting(Mode.TOPIC, "events.types");
+
+        var binding = eventRouting.createBinding(new FanoutExchange("events.test.main.partitions"),
+                TestAliasedRoutingEvent.class);
+
+        assertThat(binding.getExchange()).isEqualTo("events.types");
+        assertThat(binding.getDestination()).isEqualTo("events.test.main.partitions");
+        assertThat(binding.getDestinationType()).isEqualTo(Binding.DestinationType.EXCHANGE);
+        assertThat(binding.getRoutingKey()).isEqualTo("order.validated");
+    }
+
+    @Test
+    void givenHeadersMode_whenGetHeaders_ThenAllEventTypesPresent() {
+        var eventRouting = eventRouting(Mode.HEADERS, "");
+
+        var headers = eventRouting.getHeaders(new TestSubRoutingEvent("test"));
+
+        assertThat(headers).containsOnly(
+                Map.entry(EventRouting.AMQP_EVENT_TYPE_HEADER, TestSubRoutingEvent.class.getName()),
+                Map.entry("event_type." + TestSubRoutingEvent.class.getName(), true),
+                Map.entry("event_type.order", true),
+                Map.entry("event_type." + Event.class.getName(), true)
+        );
+        assertThat(eventRouting.createExchange()).isInstanceOf(HeadersExchange.class);
+    }
+
+    @Test
+    void givenHeadersMode_whenCreateBinding_ThenBoundOnTypeHeader() {
+        var eventRouting = eventRouting(Mode.HEADERS, "");
+
+        var binding = eventRouting.createBinding(queue, TestSuperRoutingEvent.class);
+
+        assertThat(binding.getExchange()).isEqualTo("events.headers");
+        assertThat(binding.getArguments()).containsKey("event_type.order");
+    }
+
+    private EventRouting eventRouting(Mode mode, String exchange) {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getRouting().setMode(mode);
+        eventProperties.getRabbit().getRouting().setExchange(exchange);
+
+        return new EventRouting(eventProperties, queueNameResolver);
+    }
+
+    public record TestRoutingEvent(String name) implements Event {
+    }
+
+    @EventType("order.validated")
+    public record TestAliasedRoutingEvent(String name) implements Event {
+    }
+
+    @EventType("order")
+    public interface TestSuperRoutingEvent extends Event {
+    }
+
+    public record TestSubRoutingEvent(String name) implements TestSuperRoutingEvent {
+    }
+}
@@ -0,0 +1,80 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.EventRegistryConfig;
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Rabbit.Routing.Mode;
+import fr.fezlight.eventsystem.models.Event;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HandlerQueueTopologyTest {
+
+    @Mock
+    private QueueNameResolver queueNameResolver;
+
+    @Test
+    void givenFanoutRouting_whenCreateTopology_ThenThrowException() {
+        var eventProperties = new EventProperties();
+
+        var e = assertThrows(IllegalStateException.class, () -> new HandlerQueueTopology(
+                eventProperties, queueNameResolver, new EventRouting(eventProperties, queueNameResolver)
+        ));
+
+        assertThat(e).hasMessageContaining("events.rabbit.routing.mode");
+    }
+
+    @Test
+    void givenRegisteredHandlers_whenCreateDeclarables_ThenOneQueuePerHandler() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+        var registry = new EventRegistryConfig();
+        var first = registry.registerHandler(TestTopologyEvent.class, e -> {
+        }, 0, "");
+        var second = registry.registerHandler(TestTopologyEvent.class, e -> {
+        }, 0, "");
+        var topology = topology();
+
+        var declarables = topology.createDeclarables(registry);
+
+        assertThat(declarables).hasSize(5);
+        assertThat(declarables.get(0)).isInstanceOf(TopicExchange.class);
+        assertThat(declarables).filteredOn(Queue.class::isInstance)
+                .extracting(declarable -> ((Queue) declarable).getName())
+                .containsExactly("events.test.main." + first.name(), "events.test.main." + second.name());
+        assertThat(declarables).filteredOn(Binding.class::isInstance)
+                .extracting(declarable -> ((Binding) declarable).getRoutingKey())
+                .containsOnly(TestTopologyEvent.class.getName());
+        assertThat(topology.getQueueNames(registry))
+                .containsExactly("events.test.main." + first.name(), "events.test.main." + second.name());
+    }
+
+    @Test
+    void givenHandlerQueueName_whenGetHandlerName_ThenHandlerNameReturned() {
+        when(queueNameResolver.getMainQueueName()).thenReturn("events.test.main");
+        var topology = topology();
+
+        assertThat(topology.getHandlerName("events.test.main.OrderListeners#handleOrder"))
+                .isEqualTo("OrderListeners#handleOrder");
+        assertThat(topology.getHandlerName("events.other.main.OrderListeners#handleOrder")).isNull();
+    }
+
+    private HandlerQueueTopology topology() {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getRouting().setMode(Mode.TOPIC);
+        eventProperties.getRabbit().getHandlerQueues().setEnabled(true);
+
+        return new HandlerQueueTopology(eventProperties, queueNameResolver, new EventRouting(eventProperties, queueNameResolver));
+    }
+
+    public record TestTopologyEvent(String name) implements Event {
+    }
+}
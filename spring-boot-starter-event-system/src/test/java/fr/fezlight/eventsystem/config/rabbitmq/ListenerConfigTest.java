@@ -0,0 +1,120 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.config.properties.EventProperties.Execution.Mode;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListenerConfigTest {
+
+    @Mock
+    private SimpleRabbitListenerContainerFactoryConfigurer configurer;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private ObjectProvider<AdaptiveConcurrencyScaler> adaptiveConcurrencyScaler;
+
+    private final ListenerConfig listenerConfig = new ListenerConfig();
+
+    @Test
+    void givenMainListenerProperties_whenCreateFactory_ThenApplied() {
+        var eventProperties = new EventProperties();
+        eventProperties.getRabbit().getListener().getMain().setPrefetch(10);
+
+        var factory = listenerConfig.eventsMainListenerContainerFactory(configurer, connectionFactory, eventProperties);
+
+        verify(configurer).configure(factory, connectionFactory);
+        assertThat(field(factory, "prefetchCount")).isEqualTo(10);
+        assertThat(field(factory, "concurrentConsumers")).isNull();
+    }
+
+    @Test
+    void givenWorkerListenerProperties_whenCreateFactory_ThenApplied() {
+        var eventProperties = new EventProperties();
+        var worker = eventProperties.getRabbit().getListener().getWorker();
+        worker.setConcurrency(2);
+        worker.setMaxConcurrency(8);
+        worker.setPrefetch(50);
+
+        var factory = listenerConfig.eventsWorkerListenerContainerFactory(
+                configurer, connectionFactory, eventProperties, adaptiveConcurrencyScaler
+        );
+
+        assertThat(field(factory, "concurrentConsumers")).isEqualTo(2);
+        assertThat(field(factory, "maxConcurrentConsumers")).isEqualTo(8);
+        assertThat(field(factory, "prefetchCount")).isEqualTo(50);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenAdaptiveScalerAndRetryAdvice_whenCreateWorkerFactory_ThenLatencyRecorderAppended() {
+        var retryAdvice = mock(MethodInterceptor.class);
+        var latencyRecorder = mock(MethodInterceptor.class);
+        var scaler = mock(AdaptiveConcurrencyScaler.class);
+        when(scaler.latencyRecorder()).thenReturn(latencyRecorder);
+        doAnswer(invocation -> {
+            invocation.<SimpleRabbitListenerContainerFactory>getArgument(0).setAdviceChain(retryAdvice);
+            return null;
+        }).when(configurer).configure(any(SimpleRabbitListenerContainerFactory.class), eq(connectionFactory));
+        doAnswer(invocation -> {
+            invocation.<Consumer<AdaptiveConcurrencyScaler>>getArgument(0).accept(scaler);
+            return null;
+        }).when(adaptiveConcurrencyScaler).ifAvailable(any());
+
+        var factory = listenerConfig.eventsWorkerListenerContainerFactory(
+                configurer, connectionFactory, new EventProperties(), adaptiveConcurrencyScaler
+        );
+
+        assertThat(factory.getAdviceChain()).containsExactly(retryAdvice, latencyRecorder);
+        assertThat(field(factory, "maxConcurrentConsumers")).isNull();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void givenVirtualThreadsMode_whenCreateFactories_ThenConsumersRunOnVirtualThreads() {
+        var eventProperties = new EventProperties();
+        eventProperties.getExecution().setMode(Mode.VIRTUAL_THREADS);
+
+        var main = listenerConfig.eventsMainListenerContainerFactory(configurer, connectionFactory, eventProperties);
+        var worker = listenerConfig.eventsWorkerListenerContainerFactory(
+                configurer, connectionFactory, eventProperties, adaptiveConcurrencyScaler
+        );
+
+        assertThat(field(main, "taskExecutor")).isInstanceOf(VirtualThreadTaskExecutor.class);
+        assertThat(field(worker, "taskExecutor")).isInstanceOf(VirtualThreadTaskExecutor.class);
+    }
+
+    @Test
+    void givenPlatformMode_whenCreateFactory_ThenTaskExecutorNotSet() {
+        var factory = listenerConfig.eventsMainListenerContainerFactory(
+                configurer, connectionFactory, new EventProperties()
+        );
+
+        assertThat(field(factory, "taskExecutor")).isNull();
+    }
+
+    private static Object field(SimpleRabbitListenerContainerFactory factory, String name) {
+        return new DirectFieldAccessor(factory).getPropertyValue(name);
+    }
+}
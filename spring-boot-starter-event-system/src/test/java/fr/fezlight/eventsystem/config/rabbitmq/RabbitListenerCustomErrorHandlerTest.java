@@ -0,0 +1,127 @@
+package fr.fezlight.eventsystem.config.rabbitmq;
+
+import fr.fezlight.eventsystem.config.properties.EventProperties;
+import fr.fezlight.eventsystem.models.BulkheadFullException;
+import fr.fezlight.eventsystem.models.Event;
+import fr.fezlight.eventsystem.models.EventWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.listener.ListenerExecutionFailedException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_DEFERRALS_HEADER;
+import static fr.fezlight.eventsystem.config.rabbitmq.EventQueueConfig.AMQP_RETRY_LEFT_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RabbitListenerCustomErrorHandlerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final EventProperties eventProperties = new EventProperties();
+
+    @Test
+    void givenWrapperWithRetryLeft_whenHandleError_ThenSentToRetryQueue() {
+        var eventWrapper = wrapper(2);
+        var amqpMessage = amqpMessage();
+
+        handler().handleError(amqpMessage, null, MessageBuilder.withPayload(eventWrapper).build(), failure(amqpMessage));
+
+        var message = sent("events.direct", "events.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(1);
+        assertThat(message.getMessageProperties().getReplyTo()).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenTargetedRetries_whenHandleError_ThenSentToTargetedRetryExchangeWithConsumerQueueAsKey() {
+        eventProperties.getRabbit().getQueue().getRetry().setTargeted(true);
+        var eventWrapper = wrapper(2);
+        var amqpMessage = amqpMessage();
+
+        handler().handleError(amqpMessage, null, MessageBuilder.withPayload(eventWrapper).build(), failure(amqpMessage));
+
+        var message = sent("events.retry.targeted", "events.test.worker", eventWrapper);
+        assertThat(message.getMessageProperties().getReplyTo()).isEqualTo("events.test.worker");
+    }
+
+    @Test
+    void givenWrapperWithoutRetryLeft_whenHandleError_ThenRejected() {
+        var amqpMessage = amqpMessage();
+        var message = MessageBuilder.withPayload(wrapper(0)).build();
+
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+                () -> handler().handleError(amqpMessage, null, message, failure(amqpMessage)));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void givenWrapperWithoutRetryLeftRefusedByBulkhead_whenHandleError_ThenDeferredToRetryQueue() {
+        var eventWrapper = wrapper(0);
+        var amqpMessage = amqpMessage();
+        var exception = new ListenerExecutionFailedException("failure", new BulkheadFullException("full"), amqpMessage);
+
+        handler().handleError(amqpMessage, null, MessageBuilder.withPayload(eventWrapper).build(), exception);
+
+        var message = sent("events.direct", "events.retry", eventWrapper);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_RETRY_LEFT_HEADER)).isEqualTo(0);
+        assertThat((Integer) message.getMessageProperties().getHeader(AMQP_DEFERRALS_HEADER)).isEqualTo(1);
+    }
+
+    @Test
+    void givenWrapperDeferredMaxDeferralsTimes_whenRefusedByBulkhead_ThenRejected() {
+        eventProperties.getRabbit().getQueue().getRetry().setMaxDeferrals(3);
+        var amqpMessage = amqpMessage();
+        var exception = new ListenerExecutionFailedException("failure", new BulkheadFullException("full"), amqpMessage);
+        var message = MessageBuilder.withPayload(wrapper(2)).setHeader(AMQP_DEFERRALS_HEADER, 3).build();
+
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+                () -> handler().handleError(amqpMessage, null, message, exception));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    private RabbitListenerCustomErrorHandler handler() {
+        return new RabbitListenerCustomErrorHandler(rabbitTemplate, eventProperties);
+    }
+
+    private Message sent(String exchange, String routingKey, EventWrapper<?> eventWrapper) {
+        ArgumentCaptor<MessagePostProcessor> captor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(exchange), eq(routingKey), eq(eventWrapper), captor.capture());
+        return captor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+    }
+
+    private static Message amqpMessage() {
+        var properties = new MessageProperties();
+        properties.setConsumerQueue("events.test.worker");
+        return new Message(new byte[0], properties);
+    }
+
+    private static ListenerExecutionFailedException failure(Message amqpMessage) {
+        return new ListenerExecutionFailedException("failure", new IllegalStateException("failure"), amqpMessage);
+    }
+
+    private static EventWrapper<TestErrorEvent> wrapper(int retryLeft) {
+        return EventWrapper.<TestErrorEvent>builder()
+                .event(new TestErrorEvent("test"))
+                .handlerName("handler")
+                .retryLeft(retryLeft)
+                .build();
+    }
+
+    public record TestErrorEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,167 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkheadEventHandlerTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenBulkheadFull_whenHandle_ThenThrowBulkheadFullException() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var bulkhead = new BulkheadEventHandler<>(blocking(started, release), 1, null, null);
+        executor.execute(() -> bulkhead.handle(new TestBulkheadEvent("first")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThrows(BulkheadFullException.class, () -> bulkhead.handle(new TestBulkheadEvent("second")));
+
+        assertThat(bulkhead.getActiveCount()).isEqualTo(1);
+        assertThat(bulkhead.getSaturation()).isEqualTo(1.0);
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void givenBulkheadWithExecutor_whenHandle_ThenHandlerRunOnExecutorAndPermitReleased() {
+        var thread = new AtomicReference<Thread>();
+        var bulkhead = new BulkheadEventHandler<>(
+                handler(event -> thread.set(Thread.currentThread())), 1, executor, null
+        );
+
+        bulkhead.handle(new TestBulkheadEvent("test"));
+        bulkhead.handle(new TestBulkheadEvent("test"));
+
+        assertThat(thread.get()).isNotEqualTo(Thread.currentThread());
+        assertThat(bulkhead.getActiveCount()).isZero();
+        assertThat(bulkhead.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void givenHandlerSlowerThanTimeout_whenHandle_ThenThrowHandlerTimeoutException() {
+        var bulkhead = new BulkheadEventHandler<>(
+                blocking(new CountDownLatch(1), new CountDownLatch(1)), 1, executor,
+                Duration.ofMillis(50)
+        );
+
+        assertThrows(HandlerTimeoutException.class, () -> bulkhead.handle(new TestBulkheadEvent("test")));
+
+        assertThat(bulkhead.getTimeoutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenHandlerIgnoringInterruption_whenTimeout_ThenPermitHeldUntilHandlerCompletes() {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var bulkhead = new BulkheadEventHandler<>(
+                uninterruptible(started, release), 1, executor, Duration.ofMillis(200)
+        );
+
+        assertThrows(HandlerTimeoutException.class, () -> bulkhead.handle(new TestBulkheadEvent("first")));
+        assertThat(started.getCount()).isZero();
+
+        assertThat(bulkhead.getActiveCount()).isEqualTo(1);
+        assertThrows(BulkheadFullException.class, () -> bulkhead.handle(new TestBulkheadEvent("second")));
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> bulkhead.getActiveCount() == 0);
+        bulkhead.handle(new TestBulkheadEvent("third"));
+    }
+
+    @Test
+    void givenFailingHandlerOnExecutor_whenHandle_ThenFailureRethrown() {
+        var bulkhead = new BulkheadEventHandler<>(handler(event -> {
+            throw new IllegalStateException("failure");
+        }), 1, executor, null);
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.handle(new TestBulkheadEvent("test")));
+
+        assertThat(bulkhead.getActiveCount()).isZero();
+    }
+
+    @Test
+    void givenExecutorRefusingHandler_whenHandle_ThenThrowBulkheadFullExceptionAndPermitReleased() {
+        var bulkhead = new BulkheadEventHandler<>(handler(event -> {
+        }), 1, command -> {
+            throw new RejectedExecutionException("full");
+        }, null);
+
+        var exception = assertThrows(BulkheadFullException.class, () -> bulkhead.handle(new TestBulkheadEvent("test")));
+
+        assertThat(exception).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(bulkhead.getActiveCount()).isZero();
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenTimeoutWithoutExecutor_whenCreate_ThenThrowException() {
+        var handler = handler(event -> {
+        });
+        var timeout = Duration.ofSeconds(1);
+
+        assertThrows(IllegalArgumentException.class, () -> new BulkheadEventHandler<>(handler, 1, null, timeout));
+    }
+
+    public record TestBulkheadEvent(String name) implements Event {
+    }
+
+    private static EventHandler<TestBulkheadEvent> handler(Consumer<TestBulkheadEvent> consumer) {
+        return new EventHandler<>() {
+            @Override
+            public void handle(TestBulkheadEvent event) {
+                consumer.accept(event);
+            }
+
+            @Override
+            public SubscribeEvent getSubscribeEvent() {
+                return null;
+            }
+        };
+    }
+
+    private static EventHandler<TestBulkheadEvent> uninterruptible(CountDownLatch started, CountDownLatch release) {
+        return handler(event -> {
+            if (started.getCount() == 0) {
+                return;
+            }
+            started.countDown();
+            while (true) {
+                try {
+                    release.await();
+                    return;
+                } catch (InterruptedException ignored) {
+                    // Interruption ignored on purpose
+                }
+            }
+        });
+    }
+
+    private static EventHandler<TestBulkheadEvent> blocking(CountDownLatch started, CountDownLatch release) {
+        return handler(event -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+}
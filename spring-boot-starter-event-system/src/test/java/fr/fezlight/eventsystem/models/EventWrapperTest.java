@@ -0,0 +1,80 @@
+package fr.fezlight.eventsystem.models;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventWrapperTest {
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void givenWrapperWithoutEventJson_whenSerialize_ThenEventEncodedWithTypeId() {
+        var eventWrapper = EventWrapper.<TestWrappedEvent>builder()
+                .event(new TestWrappedEvent("test"))
+                .handlerName("handler")
+                .retryLeft(0)
+                .build();
+
+        var json = jsonMapper.writeValueAsString(eventWrapper);
+
+        assertThat(json).contains("\"@class\":\"" + TestWrappedEvent.class.getName() + "\"");
+        assertThat(jsonMapper.readValue(json, EventWrapper.class).getEvent()).isEqualTo(new TestWrappedEvent("test"));
+    }
+
+    @Test
+    void givenWrapperWithEventJson_whenSerialize_ThenEventJsonWrittenAsIs() {
+        var eventJson = "{\"@class\":\"" + TestWrappedEvent.class.getName() + "\",\"name\":\"raw\"}";
+        var eventWrapper = EventWrapper.<TestWrappedEvent>builder()
+                .event(new TestWrappedEvent("test"))
+                .eventJson(eventJson)
+                .handlerName("handler")
+                .retryLeft(0)
+                .build();
+
+        var json = jsonMapper.writeValueAsString(eventWrapper);
+
+        assertThat(json).contains("\"event\":" + eventJson);
+        var read = jsonMapper.readValue(json, EventWrapper.class);
+        assertThat(read.getEvent()).isEqualTo(new TestWrappedEvent("raw"));
+        assertThat(read.getHandlerName()).isEqualTo("handler");
+    }
+
+    @Test
+    void givenGroupedWrapper_whenSetHandlerNames_ThenHandlerNamesCopied() {
+        var eventWrapper = EventWrapper.<TestWrappedEvent>builder()
+                .event(new TestWrappedEvent("test"))
+                .handlerNames(List.of("handler1", "handler2"))
+                .build();
+        var handlerNames = new ArrayList<>(List.of("handler1"));
+
+        eventWrapper.setHandlerNames(handlerNames);
+        handlerNames.add("handler2");
+
+        assertThat(eventWrapper.getHandlerNames()).containsExactly("handler1");
+    }
+
+    @Test
+    void givenWrapperWithOrderingKey_whenSerialize_ThenOrderingKeyKept() {
+        var eventWrapper = EventWrapper.<TestWrappedEvent>builder()
+                .event(new TestWrappedEvent("test"))
+                .handlerName("handler")
+                .orderingKey("order-1")
+                .retryLeft(0)
+                .build();
+
+        var json = jsonMapper.writeValueAsString(eventWrapper);
+
+        assertThat(jsonMapper.readValue(json, EventWrapper.class).getOrderingKey()).isEqualTo("order-1");
+        assertThat(jsonMapper.writeValueAsString(EventWrapper.<TestWrappedEvent>builder()
+                .event(new TestWrappedEvent("test"))
+                .handlerName("handler")
+                .build())).doesNotContain("orderingKey");
+    }
+
+    public record TestWrappedEvent(String name) implements Event {
+    }
+}
@@ -0,0 +1,118 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MethodAsyncEventHandlerTest {
+
+    @Test
+    void givenMethods_whenIsAsync_ThenOnlyAsyncReturnTypes() throws NoSuchMethodException {
+        assertThat(MethodAsyncEventHandler.isAsync(method("onFuture"))).isTrue();
+        assertThat(MethodAsyncEventHandler.isAsync(method("onStage"))).isTrue();
+        assertThat(MethodAsyncEventHandler.isAsync(method("onMono"))).isTrue();
+        assertThat(MethodAsyncEventHandler.isAsync(method("onEvent"))).isFalse();
+    }
+
+    @Test
+    void givenFutureMethod_whenHandleAsync_ThenFutureOfMethodReturned() throws NoSuchMethodException {
+        var listeners = new TestAsyncListeners();
+        var handler = new MethodAsyncEventHandler<TestAsyncEvent>(listeners, method("onFuture"));
+
+        var result = handler.handleAsync(new TestAsyncEvent("a"));
+
+        assertThat(result).isNotDone();
+        listeners.future.complete(null);
+        assertThat(result).isCompleted();
+        assertThat(listeners.events).containsExactly(new TestAsyncEvent("a"));
+    }
+
+    @Test
+    void givenMonoMethod_whenHandleAsync_ThenCompletedWithMono() throws NoSuchMethodException {
+        var listeners = new TestAsyncListeners();
+        var handler = new MethodAsyncEventHandler<TestAsyncEvent>(listeners, method("onMono"));
+
+        assertThat(handler.handleAsync(new TestAsyncEvent("a"))).isCompleted();
+        assertThat(handler.handleAsync(new TestAsyncEvent("fail"))).isCompletedExceptionally();
+    }
+
+    @Test
+    void givenThrowingOrNullMethod_whenHandleAsync_ThenCompletedExceptionally() throws NoSuchMethodException {
+        var listeners = new TestAsyncListeners();
+
+        assertThat(new MethodAsyncEventHandler<TestAsyncEvent>(listeners, method("onStage")).handleAsync(new TestAsyncEvent("a")))
+                .isCompletedExceptionally();
+        assertThat(new MethodAsyncEventHandler<TestAsyncEvent>(listeners, method("onNull")).handleAsync(new TestAsyncEvent("a")))
+                .isCompletedExceptionally();
+    }
+
+    @Test
+    void givenFailedFuture_whenHandle_ThenCauseThrown() throws NoSuchMethodException {
+        var listeners = new TestAsyncListeners();
+        var handler = new MethodAsyncEventHandler<TestAsyncEvent>(listeners, method("onFuture"));
+        listeners.future.completeExceptionally(new IllegalStateException("failure"));
+
+        var e = assertThrows(IllegalStateException.class, () -> handler.handle(new TestAsyncEvent("a")));
+
+        assertThat(e).hasMessage("failure");
+    }
+
+    @Test
+    void givenFutureFailedWithCheckedException_whenHandle_ThenWrappedCauseThrown() throws NoSuchMethodException {
+        var listeners = new TestAsyncListeners();
+        var handler = new MethodAsyncEventHandler<TestAsyncEvent>(listeners, method("onFuture"));
+        listeners.future.completeExceptionally(new IOException("failure"));
+
+        var e = assertThrows(UndeclaredThrowableException.class, () -> handler.handle(new TestAsyncEvent("a")));
+
+        assertThat(e).hasCauseInstanceOf(IOException.class);
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return TestAsyncListeners.class.getMethod(name, TestAsyncEvent.class);
+    }
+
+    public record TestAsyncEvent(String name) implements Event {
+    }
+
+    public static class TestAsyncListeners {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final List<TestAsyncEvent> events = new ArrayList<>();
+
+        @SubscribeEvent
+        public CompletableFuture<Void> onFuture(TestAsyncEvent event) {
+            events.add(event);
+            return future;
+        }
+
+        @SubscribeEvent
+        public CompletionStage<Void> onStage(TestAsyncEvent event) {
+            throw new IllegalStateException("failure");
+        }
+
+        @SubscribeEvent
+        public Mono<Void> onMono(TestAsyncEvent event) {
+            return "fail".equals(event.name()) ? Mono.error(new IllegalStateException("failure")) : Mono.empty();
+        }
+
+        @SubscribeEvent
+        public CompletableFuture<Void> onNull(TestAsyncEvent event) {
+            return null;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestAsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package fr.fezlight.eventsystem.models;
+
+import fr.fezlight.eventsystem.annotation.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MethodBatchEventHandlerTest {
+
+    @Test
+    void givenListOfEventsMethod_whenGetEventType_ThenElementTypeReturned() throws NoSuchMethodException {
+        var method = TestBatchListeners.class.getMethod("onEvents", List.class);
+
+        assertThat(MethodBatchEventHandler.isBatch(method)).isTrue();
+        assertThat(MethodBatchEventHandler.getEventType(method)).isEqualTo(TestBatchEvent.class);
+        assertThat(MethodBatchEventHandler.getBatchTimeout(method.getAnnotation(SubscribeEvent.class)))
+                .isEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void givenEventMethod_whenGetEventType_ThenParameterTypeReturned() throws NoSuchMethodException {
+        var method = TestBatchListeners.class.getMethod("onEvent", TestBatchEvent.class);
+
+        assertThat(MethodBatchEventHandler.isBatch(method)).isFalse();
+        assertThat(MethodBatchEventHandler.getEventType(method)).isEqualTo(TestBatchEvent.class);
+    }
+
+    @Test
+    void givenListOfNonEvents_whenGetEventType_ThenThrowException() throws NoSuchMethodException {
+        var method = TestBatchListeners.class.getMethod("onStrings", List.class);
+
+        assertThrows(IllegalArgumentException.class, () -> MethodBatchEventHandler.getEventType(method));
+    }
+
+    @Test
+    void givenBatchHandler_whenHandleBatchAndHandle_ThenMethodCalledWithLists() throws NoSuchMethodException {
+        var listeners = new TestBatchListeners();
+        var handler = new MethodBatchEventHandler<TestBatchEvent>(
+                listeners, TestBatchListeners.class.getMethod("onEvents", List.class)
+        );
+
+        handler.handleBatch(List.of(new TestBatchEvent("a"), new TestBatchEvent("b")));
+        handler.handle(new TestBatchEvent("c"));
+
+        assertThat(listeners.batches).containsExactly(
+                List.of(new TestBatchEvent("a"), new TestBatchEvent("b")),
+                List.of(new TestBatchEvent("c"))
+        );
+        assertThat(handler.getSubscribeEvent().batchSize()).isEqualTo(500);
+    }
+
+    @Test
+    void givenInvalidBatchSizeOrTimeout_whenCreateHandler_ThenThrowException() throws NoSuchMethodException {
+        var invalidBatchSize = TestBatchListeners.class.getMethod("onInvalidBatchSize", List.class);
+        var invalidBatchTimeout = TestBatchListeners.class.getMethod("onInvalidBatchTimeout", List.class);
+
+        assertThrows(IllegalArgumentException.class, () -> new MethodBatchEventHandler<>(new TestBatchListeners(), invalidBatchSize));
+        assertThrows(IllegalArgumentException.class, () -> new MethodBatchEventHandler<>(new TestBatchListeners(), invalidBatchTimeout));
+    }
+
+    public record TestBatchEvent(String name) implements Event {
+    }
+
+    public static class TestBatchListeners {
+        private final List<List<TestBatchEvent>> batches = new ArrayList<>();
+
+        @SubscribeEvent(batchSize = 500, batchTimeout = "200ms")
+        public void onEvents(List<TestBatchEvent> events) {
+            batches.add(events);
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestBatchEvent event) {
+        }
+
+        @SubscribeEvent
+        public void onStrings(List<String> values) {
+        }
+
+        @SubscribeEvent(batchSize = 0)
+        public void onInvalidBatchSize(List<TestBatchEvent> events) {
+        }
+
+        @SubscribeEvent(batchTimeout = "soon")
+        public void onInvalidBatchTimeout(List<TestBatchEvent> events) {
+        }
+    }
+}